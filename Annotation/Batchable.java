@@ -0,0 +1,13 @@
+package framework.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Autorise une route @Json dans un lot (batchPath). Les sous-requêtes ne passent
+// ni par les filtres servlet ni par les <security-constraint> : à réserver aux routes non protégées
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Batchable {
+}
@@ -0,0 +1,15 @@
+package framework.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Met en cache la réponse sérialisée d'une route GET (clé : chemin + paramètres listés)
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cacheable {
+    int ttl() default 60;           // durée de vie en secondes
+
+    String[] params() default {};   // paramètres de requête qui font partie de la clé
+}
@@ -0,0 +1,16 @@
+package framework.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// GET conditionnel : ETag faible calculé sur le corps, If-None-Match → 304 sans corps
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ETag {
+    // Méthode du contrôleur (mêmes paramètres liables que la route) qui renvoie la version
+    // de la ressource ; Instant / Date / ZonedDateTime → aussi Last-Modified.
+    // Une version inchangée répond 304 sans appeler la route ni sérialiser.
+    String version() default "";
+}
@@ -0,0 +1,13 @@
+package framework.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Désérialise le corps JSON de la requête dans le paramètre (POJO, List<T>, Map...)
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface JsonBody {
+    long maxBytes() default -1;     // taille maximale du corps, -1 : valeur globale (jsonBodyMaxBytes)
+}
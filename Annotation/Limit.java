@@ -0,0 +1,19 @@
+package framework.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Contrôle d'admission d'une route : au-delà, 503 (concurrence) ou 429 (débit) avec Retry-After
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Limit {
+    int concurrency() default 0;        // requêtes simultanées max, 0 : illimité
+
+    double rate() default 0;            // requêtes par seconde, 0 : illimité
+
+    int burst() default 0;              // rafale tolérée au-dessus du débit, 0 : rate
+
+    boolean adaptive() default false;   // limite de concurrence ajustée selon la latence (concurrency = plafond)
+}
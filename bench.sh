@@ -0,0 +1,23 @@
+#!/bin/bash
+
+# =========================================================
+# BENCHMARKS DU FRAMEWORK (hors ligne, sans Tomcat)
+# → compile le framework + bench/ puis lance la suite
+# → ./bench.sh [filtre]   filtre : routing | binding | invoke | json | scan
+# =========================================================
+
+set -e
+OUT_DIR="bench-classes"
+rm -rf "$OUT_DIR"
+mkdir -p "$OUT_DIR"
+
+find . -type f -name "*.java" -not -path "./bench/*" -not -path "./tests/*" | grep -v "/\." > sources.txt
+javac -encoding UTF-8 -parameters -nowarn -cp "lib/*" -d "$OUT_DIR" @sources.txt
+rm sources.txt
+javac -encoding UTF-8 -parameters -nowarn -cp "$OUT_DIR:lib/*" -d "$OUT_DIR" bench/*.java
+
+if [ "$1" = "scan" ]; then
+    java -cp "$OUT_DIR:lib/*" framework.scanner.ScanBenchmark "${2:-4000}"
+else
+    java -cp "$OUT_DIR:lib/*" framework.scanner.FrameworkBenchmarks "$1"
+fi
@@ -0,0 +1,58 @@
+package framework.scanner;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+
+/**
+ * Petit harnais de micro-benchmark façon JMH (mode temps moyen) :
+ * préchauffage, puis plusieurs itérations mesurées. Le taux d'allocation
+ * (octets / opération) est lu comme le profileur "gc" de JMH, via
+ * com.sun.management.ThreadMXBean#getThreadAllocatedBytes.
+ */
+final class Bench {
+
+    static volatile Object sink; // empêche l'élimination du code mort
+
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final long ITERATION_NANOS = 1_000_000_000L;
+    private static final int ITERATIONS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Bench() {}
+
+    static void run(String name, Callable<Object> op) throws Exception {
+        runFor(op, WARMUP_NANOS);
+
+        double bestNs = Double.MAX_VALUE;
+        double totalNs = 0;
+        double bytesPerOp = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long threadId = Thread.currentThread().getId();
+            long allocBefore = THREADS.getThreadAllocatedBytes(threadId);
+            long[] result = runFor(op, ITERATION_NANOS);
+            long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocBefore;
+
+            double ns = (double) result[1] / result[0];
+            bestNs = Math.min(bestNs, ns);
+            totalNs += ns;
+            bytesPerOp = (double) allocated / result[0];
+        }
+        System.out.printf("%-48s %12.1f ns/op (min %10.1f) %12.1f B/op%n",
+                name, totalNs / ITERATIONS, bestNs, bytesPerOp);
+    }
+
+    // Exécute par lots jusqu'à la durée demandée : {opérations, nanos}
+    private static long[] runFor(Callable<Object> op, long nanos) throws Exception {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 100; i++) sink = op.call();
+            ops += 100;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < nanos);
+        return new long[]{ops, elapsed};
+    }
+}
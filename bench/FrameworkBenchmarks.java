@@ -0,0 +1,185 @@
+package framework.scanner;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletRequest;
+import framework.annotation.Param;
+import framework.utils.ApiResponse;
+
+/**
+ * Suite de benchmarks du framework : routage, liaison des paramètres,
+ * invocation, sérialisation JSON et encodage CBOR, sur requêtes / réponses
+ * en mémoire.
+ *
+ * Lancement : ./bench.sh [filtre]   (ex: ./bench.sh routing)
+ */
+public class FrameworkBenchmarks {
+
+    public static class Adresse { String ville; String rue; }
+    public static class Employe { String nom; int age; double salaire; Adresse adresse; }
+
+    public static class BenchController {
+        public String scalar(@Param("id") int id, String nom, double salaire) { return nom; }
+        public Employe pojo(Employe emp) { return emp; }
+        public List<Employe> list(List<Employe> es) { return es; }
+        public String show(int id) { return "ok"; }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String filter = args.length > 0 ? args[0] : "";
+        System.out.println("JVM " + System.getProperty("java.version") + " — filtre : \"" + filter + "\"");
+
+        if ("routing".contains(filter) || filter.isEmpty()) routing();
+        if ("binding".contains(filter) || filter.isEmpty()) binding();
+        if ("invoke".contains(filter) || filter.isEmpty()) invoke();
+        if ("json".contains(filter) || filter.isEmpty()) json();
+        if ("cbor".contains(filter) || filter.isEmpty()) cbor();
+    }
+
+    // ------------------------------
+    // 🔹 1. ROUTAGE : 10 / 100 / 1000 routes
+    // ------------------------------
+    static void routing() throws Exception {
+        Method show = BenchController.class.getMethod("show", int.class);
+        for (int size : new int[]{10, 100, 1000}) {
+            Map<String, List<MappedMethod>> routes = new HashMap<>();
+            List<String> paths = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                String pattern = i % 2 == 0 ? "/static" + i + "/list" : "/res" + i + "/{id}/detail";
+                routes.computeIfAbsent(pattern, k -> new ArrayList<>())
+                        .add(new MappedMethod(BenchController.class, show, pattern, "GET"));
+                if (i % Math.max(1, size / 8) == 0) {
+                    paths.add(i % 2 == 0 ? pattern : "/res" + i + "/42/detail");
+                }
+            }
+            RouteTable table = RouteTable.build(routes);
+            String[] lookups = paths.toArray(new String[0]);
+            int[] next = {0};
+
+            Bench.run("routing.findMappedMethod (" + size + " routes)", () ->
+                    Scanner.findMappedMethod(lookups[(next[0]++ & 0x7fffffff) % lookups.length], "GET", routes));
+            Bench.run("routing.RouteTable (" + size + " routes)", () ->
+                    table.match(lookups[(next[0]++ & 0x7fffffff) % lookups.length], "GET"));
+        }
+    }
+
+    // ------------------------------
+    // 🔹 2. LIAISON : scalaire, POJO imbriqué, liste indexée
+    // ------------------------------
+    static void binding() throws Exception {
+        Map<String, String[]> scalar = new HashMap<>();
+        scalar.put("id", new String[]{"42"});
+        scalar.put("nom", new String[]{"Rakoto"});
+        scalar.put("salaire", new String[]{"1500.5"});
+
+        Map<String, String[]> pojo = new HashMap<>();
+        pojo.put("emp.nom", new String[]{"Rabe"});
+        pojo.put("emp.age", new String[]{"31"});
+        pojo.put("emp.salaire", new String[]{"2100"});
+        pojo.put("emp.adresse.ville", new String[]{"Antananarivo"});
+        pojo.put("emp.adresse.rue", new String[]{"Rue 12"});
+
+        Map<String, String[]> list = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            list.put("es[" + i + "].nom", new String[]{"e" + i});
+            list.put("es[" + i + "].age", new String[]{String.valueOf(20 + i)});
+        }
+
+        bindingCase("scalar", BenchController.class.getMethod("scalar", int.class, String.class, double.class), scalar);
+        bindingCase("nested-pojo", BenchController.class.getMethod("pojo", Employe.class), pojo);
+        bindingCase("indexed-list", BenchController.class.getMethod("list", List.class), list);
+    }
+
+    private static void bindingCase(String name, Method method, Map<String, String[]> form) throws Exception {
+        String pattern = "/bench";
+        HttpServletRequest request = ServletStubs.request("POST", pattern, form);
+        MappedMethod mapped = new MappedMethod(BenchController.class, method, pattern, "POST");
+        RouteMatch match = RouteMatch.forPath(mapped, pattern);
+        ArgumentBinder binder = ArgumentBinder.compile(method, mapped.getPathVariableNames());
+
+        Bench.run("binding.mapFormParametersToMethodArgs " + name, () ->
+                Scanner.mapFormParametersToMethodArgs(method, request, pattern, pattern));
+        // Les paramètres sont relus à chaque opération (FormParameters est gardé en attribut de requête)
+        Bench.run("binding.ArgumentBinder " + name, () -> {
+            request.removeAttribute(FormParameters.ATTRIBUTE);
+            return binder.bind(request, match);
+        });
+    }
+
+    // ------------------------------
+    // 🔹 3. INVOCATION
+    // ------------------------------
+    static void invoke() throws Exception {
+        Method method = BenchController.class.getMethod("show", int.class);
+        MappedMethod mapped = new MappedMethod(BenchController.class, method, "/items/{id}", "GET");
+        HttpServletRequest request = ServletStubs.request("GET", "/items/7", new HashMap<>());
+        RouteMatch match = RouteMatch.forPath(mapped, "/items/7");
+
+        Bench.run("invoke.MappedMethod (path var)", () -> mapped.invoke(request, match));
+        Bench.run("invoke.Method.invoke (référence)", () ->
+                method.invoke(BenchController.class.getDeclaredConstructor().newInstance(), 7));
+    }
+
+    // ------------------------------
+    // 🔹 4. SÉRIALISATION JSON
+    // ------------------------------
+    static void json() throws Exception {
+        Employe one = employe(1);
+        List<Employe> many = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) many.add(employe(i));
+
+        jsonCase("small", one);
+        jsonCase("large (1000 objets)", many);
+    }
+
+    private static void jsonCase(String name, Object payload) throws Exception {
+        ServletStubs.Response probe = new ServletStubs.Response();
+        Scanner.sendJson(probe.proxy, payload, null);
+        long size = probe.bytesWritten();
+
+        Bench.run("json.sendJson " + name + " (" + size + " o)", () -> {
+            ServletStubs.Response response = new ServletStubs.Response();
+            Scanner.sendJson(response.proxy, payload, null);
+            return response;
+        });
+    }
+
+    // ------------------------------
+    // 🔹 5. CBOR CONTRE JSON : octets envoyés et temps d'encodage
+    // ------------------------------
+    static void cbor() throws Exception {
+        Employe one = employe(1);
+        List<Employe> many = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) many.add(employe(i));
+
+        cborCase("small", one);
+        cborCase("large (1000 objets)", many);
+    }
+
+    private static void cborCase(String name, Object payload) throws Exception {
+        ApiResponse envelope = new ApiResponse("success", 200, payload);
+        for (ResponseFormat format : ResponseFormat.values()) {
+            ServletStubs.CountingStream probe = new ServletStubs.CountingStream();
+            format.write(envelope, probe);
+            Bench.run("cbor." + format.name().toLowerCase() + " " + name + " (" + probe.count + " o)", () -> {
+                ServletStubs.CountingStream stream = new ServletStubs.CountingStream();
+                format.write(envelope, stream);
+                return stream;
+            });
+        }
+    }
+
+    private static Employe employe(int i) {
+        Employe e = new Employe();
+        e.nom = "Employe " + i;
+        e.age = 20 + i % 40;
+        e.salaire = 1000 + i;
+        e.adresse = new Adresse();
+        e.adresse.ville = "Antananarivo";
+        e.adresse.rue = "Rue " + i;
+        return e;
+    }
+}
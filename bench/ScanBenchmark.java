@@ -0,0 +1,92 @@
+package framework.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Temps de démarrage du scan des routes sur des milliers de classes synthétiques :
+ * Scanner.scanAllClasses (Class.forName de chaque classe, initialisation comprise)
+ * contre ClassFileScanner (lecture du bytecode en parallèle, seuls les
+ * @Controller sont chargés).
+ *
+ * Lancement : ./bench.sh scan [nbClasses]
+ */
+public class ScanBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int classCount = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        Path root = Files.createTempDirectory("scan-bench");
+        Path classes = root.resolve("classes");
+        Path lib = root.resolve("lib");
+        generate(root.resolve("src"), classes, classCount);
+        Files.createDirectories(lib);
+
+        System.out.println(classCount + " classes générées dans " + classes);
+
+        for (int round = 0; round < 5; round++) {
+            long t0 = System.nanoTime();
+            Map<String, List<MappedMethod>> legacy;
+            try (URLClassLoader loader = loaderFor(classes)) {
+                legacy = Scanner.loadRoutes(Scanner.scanAllClasses(classes.toFile(), "", loader));
+            }
+            long t1 = System.nanoTime();
+            Map<String, List<MappedMethod>> parallel;
+            try (URLClassLoader loader = loaderFor(classes)) {
+                parallel = Scanner.loadAllRoutes(classes.toFile(), lib.toFile(), loader);
+            }
+            long t2 = System.nanoTime();
+
+            System.out.printf("round %d : Class.forName %d ms (%d routes) | bytecode parallèle %d ms (%d routes)%n",
+                    round, (t1 - t0) / 1_000_000, legacy.size(), (t2 - t1) / 1_000_000, parallel.size());
+        }
+    }
+
+    private static URLClassLoader loaderFor(Path classes) throws IOException {
+        return new URLClassLoader(new URL[]{classes.toUri().toURL()}, ScanBenchmark.class.getClassLoader());
+    }
+
+    // 1 % de contrôleurs, le reste des classes "métier" avec un initialiseur statique
+    private static void generate(Path src, Path out, int count) throws IOException {
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String pkg = "gen.p" + (i % 40);
+            Path dir = src.resolve(pkg.replace('.', File.separatorChar));
+            Files.createDirectories(dir);
+            String body;
+            if (i % 100 == 0) {
+                body = "@framework.controllers.Controller public class C" + i + " {\n"
+                        + "  @framework.annotation.UrlGet(\"/c" + i + "/{id}\") public String show(int id) { return \"\" + id; }\n"
+                        + "}\n";
+            } else {
+                body = "@Deprecated public class C" + i + " {\n"
+                        + "  static final java.util.Map<String, Integer> CACHE = new java.util.HashMap<>();\n"
+                        + "  static { for (int k = 0; k < 50; k++) CACHE.put(\"k\" + k, k); }\n"
+                        + "  public int value() { return CACHE.size(); }\n"
+                        + "}\n";
+            }
+            Path file = dir.resolve("C" + i + ".java");
+            Files.write(file, ("package " + pkg + ";\n" + body).getBytes(StandardCharsets.UTF_8));
+            files.add(file.toString());
+        }
+
+        Files.createDirectories(out);
+        List<String> options = new ArrayList<>(List.of(
+                "-proc:none", "-parameters", "-d", out.toString(),
+                "-cp", System.getProperty("java.class.path")));
+        options.addAll(files);
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac.run(null, null, null, options.toArray(new String[0])) != 0) {
+            throw new IllegalStateException("Compilation des classes synthétiques échouée");
+        }
+    }
+}
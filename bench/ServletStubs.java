@@ -0,0 +1,113 @@
+package framework.scanner;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Requête et réponse en mémoire pour les benchmarks (aucun conteneur).
+ * Seules les méthodes utilisées par le framework répondent, les autres renvoient null / 0.
+ */
+final class ServletStubs {
+
+    private ServletStubs() {}
+
+    static HttpServletRequest request(String method, String path, Map<String, String[]> params) {
+        Map<String, Object> attributes = new HashMap<>();
+        Map<String, String[]> parameters = Collections.unmodifiableMap(params);
+        String query = queryString(params);
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                ServletStubs.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class},
+                (proxy, m, a) -> {
+                    switch (m.getName()) {
+                        case "getMethod": return method;
+                        case "getRequestURI": return path;
+                        case "getContextPath": return "";
+                        case "getQueryString": return query;
+                        case "getParameterMap": return parameters;
+                        case "getParameter": {
+                            String[] v = parameters.get((String) a[0]);
+                            return v == null ? null : v[0];
+                        }
+                        case "getAttribute": return attributes.get((String) a[0]);
+                        case "setAttribute": attributes.put((String) a[0], a[1]); return null;
+                        case "removeAttribute": attributes.remove((String) a[0]); return null;
+                        case "isAsyncSupported":
+                        case "isAsyncStarted": return false;
+                        default: return defaultValue(m.getReturnType());
+                    }
+                });
+    }
+
+    // Query string encodée comme par un navigateur ("es[0].nom" → "es%5B0%5D.nom")
+    private static String queryString(Map<String, String[]> params) {
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, String[]> e : params.entrySet()) {
+            for (String value : e.getValue()) {
+                if (query.length() > 0) query.append('&');
+                query.append(URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8))
+                        .append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+            }
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+
+    /** Réponse qui compte les octets écrits sans les garder. */
+    static final class Response {
+        final CountingStream stream = new CountingStream();
+        final HttpServletResponse proxy;
+        private PrintWriter writer;
+
+        Response() {
+            proxy = (HttpServletResponse) Proxy.newProxyInstance(
+                    ServletStubs.class.getClassLoader(),
+                    new Class<?>[]{HttpServletResponse.class},
+                    (p, m, a) -> {
+                        switch (m.getName()) {
+                            case "getOutputStream": return stream;
+                            case "getWriter":
+                                if (writer == null) {
+                                    writer = new PrintWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+                                }
+                                return writer;
+                            case "getStatus": return 200;
+                            case "isCommitted": return false;
+                            default: return defaultValue(m.getReturnType());
+                        }
+                    });
+        }
+
+        long bytesWritten() {
+            if (writer != null) writer.flush();
+            return stream.count;
+        }
+    }
+
+    static final class CountingStream extends ServletOutputStream {
+        long count;
+
+        @Override public void write(int b) { count++; }
+        @Override public void write(byte[] b, int off, int len) { count += len; }
+        @Override public boolean isReady() { return true; }
+        @Override public void setWriteListener(WriteListener listener) {}
+        @Override public void flush() throws IOException {}
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        return null;
+    }
+}
@@ -10,4 +10,8 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 public @interface Controller {
     String value() default "";
+
+    Scope scope() default Scope.REQUEST;
+
+    int poolSize() default 16; // utilisé seulement avec Scope.POOLED
 }
@@ -0,0 +1,8 @@
+package framework.controllers;
+
+// Cycle de vie d'une instance de contrôleur
+public enum Scope {
+    REQUEST,   // une nouvelle instance par requête (comportement par défaut)
+    SINGLETON, // une seule instance créée au démarrage, partagée : doit être thread-safe
+    POOLED     // pool borné d'instances réutilisées, une seule requête à la fois par instance
+}
@@ -0,0 +1,22 @@
+#!/bin/bash
+
+# =========================================================
+# SERVEUR EMBARQUÉ (sans Tomcat)
+# → compile le framework puis lance FrontServlet sur com.sun.net.httpserver
+# → ./embedded.sh [port] [webroot]   (défaut : 8080 ../Test-framework)
+# → options supplémentaires : --param nom=valeur, --context /app, --classes dir
+# =========================================================
+
+set -e
+OUT_DIR="embedded-classes"
+PORT="${1:-8080}"
+WEBROOT="${2:-../Test-framework}"
+shift 2 2>/dev/null || shift $#
+
+rm -rf "$OUT_DIR"
+mkdir -p "$OUT_DIR"
+find . -type f -name "*.java" -not -path "./bench/*" -not -path "./tests/*" | grep -v "/\." > sources.txt
+javac -encoding UTF-8 -parameters -nowarn -cp "lib/*" -d "$OUT_DIR" @sources.txt
+rm sources.txt
+
+java -cp "$OUT_DIR:lib/*" framework.embedded.EmbeddedServer --port "$PORT" --webroot "$WEBROOT" "$@"
@@ -0,0 +1,327 @@
+package framework.embedded;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.EventListener;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterRegistration;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletRegistration;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.SessionCookieConfig;
+import jakarta.servlet.SessionTrackingMode;
+import jakarta.servlet.descriptor.JspConfigDescriptor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import framework.scanner.PathGuard;
+
+/**
+ * ServletContext du serveur embarqué : ressources lues dans le répertoire de
+ * l'application (webRoot), paramètres d'initialisation, attributs, sessions
+ * en mémoire et dispatcher "default" pour les fichiers statiques.
+ *
+ * Les JSP ne sont pas compilées ici : les vues .tpl (TemplateEngine) sont
+ * l'alternative en mode embarqué.
+ */
+final class EmbeddedContext implements ServletContext {
+
+    static final String SESSION_COOKIE = "JSESSIONID";
+    private static final int SWEEP_EVERY = 256; // purge des sessions expirées toutes les N créations
+
+    private static final Map<String, String> MIME_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html"), Map.entry("htm", "text/html"), Map.entry("css", "text/css"),
+            Map.entry("js", "text/javascript"), Map.entry("mjs", "text/javascript"), Map.entry("json", "application/json"),
+            Map.entry("svg", "image/svg+xml"), Map.entry("png", "image/png"), Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"), Map.entry("gif", "image/gif"), Map.entry("ico", "image/x-icon"),
+            Map.entry("webp", "image/webp"), Map.entry("woff", "font/woff"), Map.entry("woff2", "font/woff2"),
+            Map.entry("txt", "text/plain"), Map.entry("xml", "application/xml"), Map.entry("pdf", "application/pdf"));
+
+    private final String contextPath;
+    private final File webRoot;    // null : aucune ressource sur disque
+    private final File classesDir; // remplace /WEB-INF/classes si non null
+    private final Map<String, String> initParameters;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final Map<String, EmbeddedSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger createdSessions = new AtomicInteger();
+    private final SecureRandom random = new SecureRandom();
+    private volatile int sessionTimeoutMinutes = 30;
+    private volatile String requestEncoding;
+    private volatile String responseEncoding;
+
+    EmbeddedContext(String contextPath, File webRoot, File classesDir, Map<String, String> initParameters) {
+        this.contextPath = contextPath;
+        this.webRoot = webRoot;
+        this.classesDir = classesDir;
+        this.initParameters = new ConcurrentHashMap<>(initParameters);
+    }
+
+    // ------------------------------
+    // 🔹 1. RESSOURCES
+    // ------------------------------
+    @Override
+    public String getRealPath(String path) {
+        if (!PathGuard.isNormalized(path)) return null; // "..", ".", "//" : jamais hors du webRoot
+        if (classesDir != null && (path.equals("/WEB-INF/classes") || path.startsWith("/WEB-INF/classes/"))) {
+            return new File(classesDir, path.substring("/WEB-INF/classes".length())).getPath();
+        }
+        if (webRoot == null) return null;
+        return new File(webRoot, path).getPath();
+    }
+
+    private File file(String path) {
+        String real = getRealPath(path);
+        if (real == null) return null;
+        File file = new File(real);
+        return file.isFile() ? file : null;
+    }
+
+    @Override
+    public URL getResource(String path) throws MalformedURLException {
+        File file = file(path);
+        return file == null ? null : file.toURI().toURL();
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String path) {
+        File file = file(path);
+        if (file == null) return null;
+        try {
+            return new FileInputStream(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Set<String> getResourcePaths(String path) {
+        String real = getRealPath(path);
+        File[] children = real == null ? null : new File(real).listFiles();
+        if (children == null) return null;
+        String prefix = path.endsWith("/") ? path : path + "/";
+        Set<String> paths = new TreeSet<>();
+        for (File child : children) paths.add(prefix + child.getName() + (child.isDirectory() ? "/" : ""));
+        return paths;
+    }
+
+    @Override
+    public String getMimeType(String file) {
+        int dot = file.lastIndexOf('.');
+        String type = dot < 0 ? null : MIME_TYPES.get(file.substring(dot + 1).toLowerCase());
+        return type != null ? type : URLConnection.guessContentTypeFromName(file);
+    }
+
+    // ------------------------------
+    // 🔹 2. DISPATCHERS
+    // ------------------------------
+    @Override
+    public RequestDispatcher getNamedDispatcher(String name) {
+        return "default".equals(name) ? new StaticDispatcher(null) : null;
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        return path.endsWith(".jsp") || path.endsWith(".jspx") ? new JspDispatcher(path) : new StaticDispatcher(path);
+    }
+
+    // Fichier du webRoot (hors WEB-INF et META-INF), sinon 404
+    private final class StaticDispatcher implements RequestDispatcher {
+        private final String path; // null : chemin de la requête
+
+        StaticDispatcher(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public void forward(ServletRequest request, ServletResponse response) throws IOException {
+            String target = path;
+            if (target == null) {
+                String uri = ((HttpServletRequest) request).getRequestURI();
+                target = uri.substring(contextPath.length());
+            }
+            HttpServletResponse http = (HttpServletResponse) response;
+            File file = PathGuard.isPublic(target) ? file(target) : null;
+            if (file == null) {
+                http.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            String type = getMimeType(file.getName());
+            http.setContentType(type == null ? "application/octet-stream" : type);
+            http.setContentLengthLong(file.length());
+            http.setDateHeader("Last-Modified", file.lastModified());
+            if ("HEAD".equals(((HttpServletRequest) request).getMethod())) return;
+            try (OutputStream out = response.getOutputStream()) {
+                Files.copy(file.toPath(), out);
+            }
+        }
+
+        @Override
+        public void include(ServletRequest request, ServletResponse response) throws IOException {
+            File file = path == null ? null : file(path);
+            if (file != null) Files.copy(file.toPath(), response.getOutputStream());
+        }
+    }
+
+    private static final class JspDispatcher implements RequestDispatcher {
+        private final String path;
+
+        JspDispatcher(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public void forward(ServletRequest request, ServletResponse response) throws IOException {
+            ((HttpServletResponse) response).sendError(HttpServletResponse.SC_NOT_IMPLEMENTED,
+                    "JSP non disponible sur le serveur embarqué (" + path + ") : utiliser une vue .tpl");
+        }
+
+        @Override
+        public void include(ServletRequest request, ServletResponse response) throws IOException {
+            forward(request, response);
+        }
+    }
+
+    // ------------------------------
+    // 🔹 3. SESSIONS
+    // ------------------------------
+    EmbeddedSession findSession(String id) {
+        if (id == null) return null;
+        EmbeddedSession session = sessions.get(id);
+        if (session == null) return null;
+        long now = System.currentTimeMillis();
+        if (session.isExpired(now)) {
+            removeSession(session);
+            return null;
+        }
+        session.access(now);
+        return session;
+    }
+
+    EmbeddedSession createSession() {
+        if (createdSessions.incrementAndGet() % SWEEP_EVERY == 0) sweepSessions();
+        EmbeddedSession session = new EmbeddedSession(newSessionId(), this, sessionTimeoutMinutes * 60, null);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    // Nouvel identifiant, mêmes attributs (changeSessionId)
+    EmbeddedSession renewSession(EmbeddedSession old) {
+        EmbeddedSession session = new EmbeddedSession(newSessionId(), this, old.getMaxInactiveInterval(), old.attributes());
+        sessions.put(session.getId(), session);
+        sessions.remove(old.getId());
+        old.expire();
+        return session;
+    }
+
+    void removeSession(EmbeddedSession session) {
+        sessions.remove(session.getId(), session);
+        session.expire();
+    }
+
+    private void sweepSessions() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> {
+            if (!session.isExpired(now)) return false;
+            session.expire();
+            return true;
+        });
+    }
+
+    private String newSessionId() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return HexFormat.of().withUpperCase().formatHex(bytes);
+    }
+
+    @Override public int getSessionTimeout() { return sessionTimeoutMinutes; }
+    @Override public void setSessionTimeout(int minutes) { sessionTimeoutMinutes = minutes; }
+
+    // ------------------------------
+    // 🔹 4. PARAMÈTRES ET ATTRIBUTS
+    // ------------------------------
+    @Override public String getContextPath() { return contextPath; }
+    @Override public String getInitParameter(String name) { return initParameters.get(name); }
+    @Override public Enumeration<String> getInitParameterNames() { return Collections.enumeration(initParameters.keySet()); }
+    @Override public boolean setInitParameter(String name, String value) { return initParameters.putIfAbsent(name, value) == null; }
+    @Override public Object getAttribute(String name) { return attributes.get(name); }
+    @Override public Enumeration<String> getAttributeNames() { return Collections.enumeration(attributes.keySet()); }
+    @Override public void removeAttribute(String name) { attributes.remove(name); }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) attributes.remove(name);
+        else attributes.put(name, value);
+    }
+
+    @Override public ServletContext getContext(String uripath) { return uripath.startsWith(contextPath) ? this : null; }
+    @Override public int getMajorVersion() { return 6; }
+    @Override public int getMinorVersion() { return 0; }
+    @Override public int getEffectiveMajorVersion() { return 6; }
+    @Override public int getEffectiveMinorVersion() { return 0; }
+    @Override public String getServerInfo() { return "framework-embedded (com.sun.net.httpserver)"; }
+    @Override public String getServletContextName() { return contextPath.isEmpty() ? "ROOT" : contextPath.substring(1); }
+    @Override public String getVirtualServerName() { return "localhost"; }
+    @Override public ClassLoader getClassLoader() { return Thread.currentThread().getContextClassLoader(); }
+    @Override public void log(String msg) { System.out.println(msg); }
+
+    @Override
+    public void log(String message, Throwable throwable) {
+        System.out.println(message);
+        throwable.printStackTrace();
+    }
+
+    @Override public String getRequestCharacterEncoding() { return requestEncoding; }
+    @Override public void setRequestCharacterEncoding(String encoding) { requestEncoding = encoding; }
+    @Override public String getResponseCharacterEncoding() { return responseEncoding; }
+    @Override public void setResponseCharacterEncoding(String encoding) { responseEncoding = encoding; }
+
+    // ------------------------------
+    // 🔹 5. CONFIGURATION DYNAMIQUE : NON PRISE EN CHARGE
+    // ------------------------------
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Non pris en charge par le serveur embarqué");
+    }
+
+    @Override public ServletRegistration.Dynamic addServlet(String name, String className) { throw unsupported(); }
+    @Override public ServletRegistration.Dynamic addServlet(String name, Servlet servlet) { throw unsupported(); }
+    @Override public ServletRegistration.Dynamic addServlet(String name, Class<? extends Servlet> servletClass) { throw unsupported(); }
+    @Override public ServletRegistration.Dynamic addJspFile(String name, String jspFile) { throw unsupported(); }
+    @Override public <T extends Servlet> T createServlet(Class<T> type) { throw unsupported(); }
+    @Override public ServletRegistration getServletRegistration(String name) { return null; }
+    @Override public Map<String, ? extends ServletRegistration> getServletRegistrations() { return new HashMap<>(); }
+    @Override public FilterRegistration.Dynamic addFilter(String name, String className) { throw unsupported(); }
+    @Override public FilterRegistration.Dynamic addFilter(String name, Filter filter) { throw unsupported(); }
+    @Override public FilterRegistration.Dynamic addFilter(String name, Class<? extends Filter> filterClass) { throw unsupported(); }
+    @Override public <T extends Filter> T createFilter(Class<T> type) { throw unsupported(); }
+    @Override public FilterRegistration getFilterRegistration(String name) { return null; }
+    @Override public Map<String, ? extends FilterRegistration> getFilterRegistrations() { return new HashMap<>(); }
+    @Override public SessionCookieConfig getSessionCookieConfig() { throw unsupported(); }
+    @Override public void setSessionTrackingModes(Set<SessionTrackingMode> modes) { throw unsupported(); }
+    @Override public Set<SessionTrackingMode> getDefaultSessionTrackingModes() { return Set.of(SessionTrackingMode.COOKIE); }
+    @Override public Set<SessionTrackingMode> getEffectiveSessionTrackingModes() { return Set.of(SessionTrackingMode.COOKIE); }
+    @Override public void addListener(String className) { throw unsupported(); }
+    @Override public <T extends EventListener> void addListener(T listener) { throw unsupported(); }
+    @Override public void addListener(Class<? extends EventListener> listenerClass) { throw unsupported(); }
+    @Override public <T extends EventListener> T createListener(Class<T> type) { throw unsupported(); }
+    @Override public JspConfigDescriptor getJspConfigDescriptor() { return null; }
+    @Override public void declareRoles(String... roleNames) { throw unsupported(); }
+}
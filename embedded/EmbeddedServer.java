@@ -0,0 +1,238 @@
+package framework.embedded;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import framework.scanner.AsyncExecutors;
+
+/**
+ * Serveur HTTP embarqué (com.sun.net.httpserver du JDK) qui héberge
+ * FrontServlet sans Tomcat : même routage, même liaison, même pipeline de
+ * réponse. Un thread virtuel par requête sur une JVM 21+, sinon un pool borné.
+ *
+ *   java -cp "classes:lib/*" framework.embedded.EmbeddedServer --port 8080 --webroot ../Test-framework
+ *
+ * En code (tests d'intégration, microservice) :
+ *   EmbeddedServer server = new EmbeddedServer(servlet, 0, webRoot);
+ *   server.initParameter("jsonPretty", "true").start();
+ *   ... http://localhost:{server.getPort()}/...
+ *   server.stop();
+ *
+ * Non pris en charge : JSP (utiliser les vues .tpl), multipart, AsyncContext
+ * (les résultats asynchrones sont attendus sur le thread de la requête).
+ */
+public final class EmbeddedServer {
+
+    private final Servlet servlet;
+    private final int port;
+    private final File webRoot;
+    private final Map<String, String> initParameters = new LinkedHashMap<>();
+    private String host = "0.0.0.0";
+    private String contextPath = "";
+    private File classesDir;
+    private int maxThreads = 200;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private EmbeddedContext context;
+    private ClassLoader classLoader;
+
+    /**
+     * @param port    0 : port libre choisi par le système (voir getPort())
+     * @param webRoot répertoire de l'application (WEB-INF/views, ressources statiques), peut être null
+     */
+    public EmbeddedServer(Servlet servlet, int port, File webRoot) {
+        this.servlet = servlet;
+        this.port = port;
+        this.webRoot = webRoot;
+    }
+
+    // ------------------------------
+    // 🔹 1. CONFIGURATION
+    // ------------------------------
+
+    /** Paramètre lu par FrontServlet.config() (jsonPretty, metricsPath, asyncThreads...). */
+    public EmbeddedServer initParameter(String name, String value) {
+        initParameters.put(name, value);
+        return this;
+    }
+
+    public EmbeddedServer host(String host) {
+        this.host = host;
+        return this;
+    }
+
+    public EmbeddedServer contextPath(String contextPath) {
+        this.contextPath = contextPath == null || contextPath.equals("/") ? "" : contextPath;
+        return this;
+    }
+
+    /** Classes de l'application scannées si aucun index de routes n'est trouvé (remplace WEB-INF/classes). */
+    public EmbeddedServer classesDir(File classesDir) {
+        this.classesDir = classesDir;
+        return this;
+    }
+
+    /** Taille du pool quand les threads virtuels ne sont pas disponibles (JVM < 21). */
+    public EmbeddedServer maxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+        return this;
+    }
+
+    // ------------------------------
+    // 🔹 2. DÉMARRAGE ET ARRÊT
+    // ------------------------------
+    public synchronized EmbeddedServer start() throws IOException, ServletException {
+        if (server != null) throw new IllegalStateException("Serveur déjà démarré");
+        long begin = System.nanoTime();
+
+        context = new EmbeddedContext(contextPath, webRoot, classesDir, initParameters);
+        classLoader = Thread.currentThread().getContextClassLoader();
+        servlet.init(new ServletConfig() {
+            @Override public String getServletName() { return "FrontServlet"; }
+            @Override public ServletContext getServletContext() { return context; }
+            @Override public String getInitParameter(String name) { return initParameters.get(name); }
+            @Override public Enumeration<String> getInitParameterNames() {
+                return Collections.enumeration(initParameters.keySet());
+            }
+        });
+
+        executor = AsyncExecutors.newTaskExecutor("framework-http", maxThreads);
+        server = HttpServer.create(new InetSocketAddress(host, port), 1024);
+        server.createContext(contextPath.isEmpty() ? "/" : contextPath, this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        System.out.printf("✅ Serveur embarqué sur http://%s:%d%s (%s, démarré en %d ms)%n",
+                host, getPort(), contextPath,
+                AsyncExecutors.virtualThreadsAvailable() ? "threads virtuels" : maxThreads + " threads",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+        return this;
+    }
+
+    /** Arrêt : attend au plus delaySeconds la fin des requêtes en cours. */
+    public synchronized void stop(int delaySeconds) {
+        if (server == null) return;
+        server.stop(delaySeconds);
+        executor.shutdown();
+        servlet.destroy();
+        server = null;
+    }
+
+    public void stop() {
+        stop(0);
+    }
+
+    public int getPort() {
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+    public ServletContext getServletContext() {
+        return context;
+    }
+
+    // ------------------------------
+    // 🔹 3. TRAITEMENT D'UNE REQUÊTE
+    // ------------------------------
+    private void handle(HttpExchange exchange) {
+        Thread.currentThread().setContextClassLoader(classLoader);
+        ExchangeResponse response = new ExchangeResponse(exchange);
+        try {
+            ExchangeRequest request = new ExchangeRequest(exchange, context, response);
+            servlet.service(request, response);
+        } catch (Exception | LinkageError e) {
+            e.printStackTrace();
+            if (!response.isCommitted()) {
+                try {
+                    response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                } catch (IOException ignored) {
+                }
+            }
+        } finally {
+            try {
+                response.finish();
+            } catch (IOException ignored) {
+                // Client déconnecté
+            }
+        }
+    }
+
+    // ------------------------------
+    // 🔹 4. LANCEMENT EN LIGNE DE COMMANDE
+    // ------------------------------
+
+    /**
+     * --port 8080 --webroot dir --context /app --classes dir --param nom=valeur (répétable)
+     *
+     * Les classes de webroot/WEB-INF/classes et les jars de WEB-INF/lib sont
+     * ajoutés au class loader de l'application.
+     */
+    public static void main(String[] args) throws Exception {
+        int port = 8080;
+        File webRoot = null;
+        File classes = null;
+        String context = "";
+        Map<String, String> params = new LinkedHashMap<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(value); i++; break;
+                case "--webroot": webRoot = new File(value); i++; break;
+                case "--classes": classes = new File(value); i++; break;
+                case "--context": context = value; i++; break;
+                case "--param":
+                    int eq = value.indexOf('=');
+                    params.put(value.substring(0, eq), value.substring(eq + 1));
+                    i++;
+                    break;
+                default:
+                    System.err.println("Option inconnue : " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        ClassLoader loader = applicationLoader(webRoot, classes);
+        Thread.currentThread().setContextClassLoader(loader);
+        // FrontServlet est dans le package par défaut : chargé par son nom
+        Servlet servlet = (Servlet) Class.forName("FrontServlet", true, loader).getDeclaredConstructor().newInstance();
+
+        EmbeddedServer server = new EmbeddedServer(servlet, port, webRoot).contextPath(context).classesDir(classes);
+        params.forEach(server::initParameter);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1), "framework-http-shutdown"));
+    }
+
+    private static ClassLoader applicationLoader(File webRoot, File classes) throws MalformedURLException {
+        List<URL> urls = new ArrayList<>();
+        if (classes != null) urls.add(classes.toURI().toURL());
+        if (webRoot != null) {
+            File webInfClasses = new File(webRoot, "WEB-INF/classes");
+            if (webInfClasses.isDirectory()) urls.add(webInfClasses.toURI().toURL());
+            File[] jars = new File(webRoot, "WEB-INF/lib").listFiles((dir, name) -> name.endsWith(".jar"));
+            if (jars != null) {
+                for (File jar : jars) urls.add(jar.toURI().toURL());
+            }
+        }
+        ClassLoader parent = EmbeddedServer.class.getClassLoader();
+        return urls.isEmpty() ? parent : new URLClassLoader(urls.toArray(new URL[0]), parent);
+    }
+}
@@ -0,0 +1,92 @@
+package framework.embedded;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpSession;
+
+/** Session en mémoire du serveur embarqué (cookie JSESSIONID, expiration par inactivité). */
+final class EmbeddedSession implements HttpSession {
+
+    private final String id;
+    private final EmbeddedContext context;
+    private final long creationTime = System.currentTimeMillis();
+    private final Map<String, Object> attributes;
+    private volatile long lastAccessedTime = creationTime;
+    private volatile int maxInactiveInterval;
+    private volatile boolean valid = true;
+    private volatile boolean fresh = true;
+
+    EmbeddedSession(String id, EmbeddedContext context, int maxInactiveInterval, Map<String, Object> attributes) {
+        this.id = id;
+        this.context = context;
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.attributes = attributes == null ? new ConcurrentHashMap<>() : attributes;
+    }
+
+    Map<String, Object> attributes() {
+        return attributes;
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+
+    boolean isExpired(long now) {
+        return !valid || (maxInactiveInterval > 0 && now - lastAccessedTime > maxInactiveInterval * 1000L);
+    }
+
+    void access(long now) {
+        lastAccessedTime = now;
+        fresh = false;
+    }
+
+    void expire() {
+        valid = false;
+    }
+
+    private void checkValid() {
+        if (!valid) throw new IllegalStateException("Session invalidée");
+    }
+
+    @Override public String getId() { return id; }
+    @Override public long getCreationTime() { checkValid(); return creationTime; }
+    @Override public long getLastAccessedTime() { checkValid(); return lastAccessedTime; }
+    @Override public ServletContext getServletContext() { return context; }
+    @Override public void setMaxInactiveInterval(int interval) { maxInactiveInterval = interval; }
+    @Override public int getMaxInactiveInterval() { return maxInactiveInterval; }
+    @Override public boolean isNew() { checkValid(); return fresh; }
+
+    @Override
+    public Object getAttribute(String name) {
+        checkValid();
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        checkValid();
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        checkValid();
+        if (value == null) attributes.remove(name);
+        else attributes.put(name, value);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        checkValid();
+        attributes.remove(name);
+    }
+
+    @Override
+    public void invalidate() {
+        checkValid();
+        context.removeSession(this);
+    }
+}
@@ -0,0 +1,414 @@
+package framework.embedded;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpsExchange;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConnection;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpUpgradeHandler;
+import jakarta.servlet.http.Part;
+import framework.scanner.FormParameters;
+
+/**
+ * HttpServletRequest au-dessus d'un HttpExchange du serveur embarqué.
+ *
+ * Les paramètres sont ceux de FormParameters (query + corps urlencoded),
+ * comme pour FrontServlet sous Tomcat. Pas d'asynchrone (les méthodes @Async
+ * et les CompletionStage sont attendus sur le thread de la requête, un thread
+ * virtuel si la JVM le permet) ni de multipart.
+ */
+final class ExchangeRequest implements HttpServletRequest {
+
+    private static final AtomicLong REQUEST_IDS = new AtomicLong();
+
+    private final HttpExchange exchange;
+    private final EmbeddedContext context;
+    private final ExchangeResponse response;
+    private final String requestId = Long.toString(REQUEST_IDS.incrementAndGet());
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    private String characterEncoding;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+    private Cookie[] cookies;
+    private EmbeddedSession session;
+    private boolean sessionLookedUp;
+
+    ExchangeRequest(HttpExchange exchange, EmbeddedContext context, ExchangeResponse response) {
+        this.exchange = exchange;
+        this.context = context;
+        this.response = response;
+        this.characterEncoding = charsetOf(getContentType());
+    }
+
+    static String charsetOf(String contentType) {
+        if (contentType == null) return null;
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index < 0) return null;
+        String charset = contentType.substring(index + 8).trim();
+        int end = charset.indexOf(';');
+        if (end >= 0) charset = charset.substring(0, end).trim();
+        return charset.replace("\"", "");
+    }
+
+    // ------------------------------
+    // 🔹 1. LIGNE DE REQUÊTE ET EN-TÊTES
+    // ------------------------------
+    @Override public String getMethod() { return exchange.getRequestMethod(); }
+    @Override public String getRequestURI() { return exchange.getRequestURI().getRawPath(); }
+    @Override public String getQueryString() { return exchange.getRequestURI().getRawQuery(); }
+    @Override public String getContextPath() { return context.getContextPath(); }
+    @Override public String getServletPath() { return ""; }
+    @Override public String getPathInfo() { return getRequestURI().substring(getContextPath().length()); }
+    @Override public String getPathTranslated() { return context.getRealPath(getPathInfo()); }
+    @Override public String getProtocol() { return exchange.getProtocol(); }
+    @Override public String getScheme() { return exchange instanceof HttpsExchange ? "https" : "http"; }
+    @Override public boolean isSecure() { return exchange instanceof HttpsExchange; }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer(getScheme()).append("://").append(getServerName());
+        int port = getServerPort();
+        if (port != (isSecure() ? 443 : 80)) url.append(':').append(port);
+        return url.append(getRequestURI());
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        List<String> values = exchange.getRequestHeaders().get(name);
+        return Collections.enumeration(values == null ? List.of() : values);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(exchange.getRequestHeaders().keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value.trim());
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = getHeader(name);
+        if (value == null) return -1;
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date invalide dans l'en-tête " + name + " : " + value);
+        }
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        if (cookies == null) {
+            List<Cookie> parsed = new ArrayList<>();
+            List<String> headers = exchange.getRequestHeaders().get("Cookie");
+            if (headers != null) {
+                for (String header : headers) {
+                    for (String pair : header.split(";")) {
+                        int eq = pair.indexOf('=');
+                        if (eq <= 0) continue;
+                        try {
+                            parsed.add(new Cookie(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim()));
+                        } catch (IllegalArgumentException ignored) {
+                            // Nom de cookie invalide : ignoré
+                        }
+                    }
+                }
+            }
+            cookies = parsed.toArray(new Cookie[0]);
+        }
+        return cookies.length == 0 ? null : cookies;
+    }
+
+    @Override
+    public Locale getLocale() {
+        String header = getHeader("Accept-Language");
+        if (header == null || header.isBlank()) return Locale.getDefault();
+        String first = header.split(",")[0].split(";")[0].trim();
+        return first.equals("*") ? Locale.getDefault() : Locale.forLanguageTag(first);
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(List.of(getLocale()));
+    }
+
+    // ------------------------------
+    // 🔹 2. CORPS ET PARAMÈTRES
+    // ------------------------------
+    @Override public String getCharacterEncoding() { return characterEncoding; }
+    @Override public String getContentType() { return getHeader("Content-Type"); }
+    @Override public int getContentLength() { return (int) Math.min(Integer.MAX_VALUE, getContentLengthLong()); }
+
+    @Override
+    public void setCharacterEncoding(String encoding) throws UnsupportedEncodingException {
+        if (inputStream != null || reader != null) return;
+        if (!Charset.isSupported(encoding)) throw new UnsupportedEncodingException(encoding);
+        this.characterEncoding = encoding;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        String value = getHeader("Content-Length");
+        if (value == null) return -1;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        if (reader != null) throw new IllegalStateException("getReader() déjà appelé");
+        if (inputStream == null) {
+            InputStream body = exchange.getRequestBody();
+            inputStream = new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int b = body.read();
+                    if (b < 0) finished = true;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = body.read(b, off, len);
+                    if (n < 0) finished = true;
+                    return n;
+                }
+
+                @Override public boolean isFinished() { return finished; }
+                @Override public boolean isReady() { return true; }
+                @Override public void setReadListener(ReadListener listener) {
+                    throw new IllegalStateException("Lecture non bloquante non prise en charge");
+                }
+            };
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            if (inputStream != null) throw new IllegalStateException("getInputStream() déjà appelé");
+            Charset charset = characterEncoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(characterEncoding);
+            reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), charset));
+        }
+        return reader;
+    }
+
+    // Le multipart n'est pas décodé ici : seuls les paramètres de la query string sont lus
+    private FormParameters form() {
+        try {
+            String type = getContentType();
+            if (type != null && type.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+                return FormParameters.ofQuery(getQueryString());
+            }
+            return FormParameters.of(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override public String getParameter(String name) { return form().get(name); }
+    @Override public String[] getParameterValues(String name) { return form().getValues(name); }
+    @Override public Map<String, String[]> getParameterMap() { return form().toMap(); }
+    @Override public Enumeration<String> getParameterNames() { return Collections.enumeration(form().toMap().keySet()); }
+
+    @Override
+    public Collection<Part> getParts() throws ServletException {
+        throw new ServletException("multipart/form-data non pris en charge par le serveur embarqué");
+    }
+
+    @Override
+    public Part getPart(String name) throws ServletException {
+        throw new ServletException("multipart/form-data non pris en charge par le serveur embarqué");
+    }
+
+    // ------------------------------
+    // 🔹 3. ATTRIBUTS ET SESSION
+    // ------------------------------
+    @Override public Object getAttribute(String name) { return attributes.get(name); }
+    @Override public Enumeration<String> getAttributeNames() { return Collections.enumeration(attributes.keySet()); }
+    @Override public void removeAttribute(String name) { attributes.remove(name); }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) attributes.remove(name);
+        else attributes.put(name, value);
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (session != null && session.isValid()) return session;
+        if (!sessionLookedUp) {
+            sessionLookedUp = true;
+            session = context.findSession(getRequestedSessionId());
+            if (session != null) return session;
+        }
+        if (!create) return null;
+        session = context.createSession();
+        response.addHeader("Set-Cookie", EmbeddedContext.SESSION_COOKIE + "=" + session.getId()
+                + "; Path=" + (getContextPath().isEmpty() ? "/" : getContextPath()) + "; HttpOnly");
+        return session;
+    }
+
+    @Override public HttpSession getSession() { return getSession(true); }
+
+    @Override
+    public String getRequestedSessionId() {
+        Cookie[] all = getCookies();
+        if (all == null) return null;
+        for (Cookie cookie : all) {
+            if (EmbeddedContext.SESSION_COOKIE.equals(cookie.getName())) return cookie.getValue();
+        }
+        return null;
+    }
+
+    @Override
+    public String changeSessionId() {
+        HttpSession current = getSession(false);
+        if (current == null) throw new IllegalStateException("Aucune session");
+        session = context.renewSession((EmbeddedSession) current);
+        response.addHeader("Set-Cookie", EmbeddedContext.SESSION_COOKIE + "=" + session.getId()
+                + "; Path=" + (getContextPath().isEmpty() ? "/" : getContextPath()) + "; HttpOnly");
+        return session.getId();
+    }
+
+    @Override public boolean isRequestedSessionIdValid() { return context.findSession(getRequestedSessionId()) != null; }
+    @Override public boolean isRequestedSessionIdFromCookie() { return getRequestedSessionId() != null; }
+    @Override public boolean isRequestedSessionIdFromURL() { return false; }
+
+    // ------------------------------
+    // 🔹 4. CONNEXION ET SERVEUR
+    // ------------------------------
+    @Override public String getRemoteAddr() { return exchange.getRemoteAddress().getAddress().getHostAddress(); }
+    @Override public String getRemoteHost() { return exchange.getRemoteAddress().getHostString(); }
+    @Override public int getRemotePort() { return exchange.getRemoteAddress().getPort(); }
+    @Override public String getLocalName() { return exchange.getLocalAddress().getHostString(); }
+    @Override public String getLocalAddr() { return exchange.getLocalAddress().getAddress().getHostAddress(); }
+    @Override public int getLocalPort() { return exchange.getLocalAddress().getPort(); }
+
+    @Override
+    public String getServerName() {
+        String host = getHeader("Host");
+        if (host == null || host.isEmpty()) return getLocalName();
+        if (host.startsWith("[")) return host.substring(0, host.indexOf(']') + 1);
+        int colon = host.indexOf(':');
+        return colon < 0 ? host : host.substring(0, colon);
+    }
+
+    @Override
+    public int getServerPort() {
+        String host = getHeader("Host");
+        if (host == null) return getLocalPort();
+        int colon = host.lastIndexOf(':');
+        if (colon > host.lastIndexOf(']')) {
+            try {
+                return Integer.parseInt(host.substring(colon + 1));
+            } catch (NumberFormatException ignored) {
+                // Port illisible : port local
+            }
+        }
+        return getLocalPort();
+    }
+
+    @Override public ServletContext getServletContext() { return context; }
+    @Override public RequestDispatcher getRequestDispatcher(String path) { return context.getRequestDispatcher(path); }
+    @Override public DispatcherType getDispatcherType() { return DispatcherType.REQUEST; }
+    @Override public String getRequestId() { return requestId; }
+    @Override public String getProtocolRequestId() { return ""; }
+
+    @Override
+    public ServletConnection getServletConnection() {
+        return new ServletConnection() {
+            @Override public String getConnectionId() { return Integer.toHexString(System.identityHashCode(exchange.getHttpContext())); }
+            @Override public String getProtocol() { return exchange.getProtocol(); }
+            @Override public String getProtocolConnectionId() { return ""; }
+            @Override public boolean isSecure() { return ExchangeRequest.this.isSecure(); }
+        };
+    }
+
+    // ------------------------------
+    // 🔹 5. NON PRIS EN CHARGE
+    // ------------------------------
+    @Override public boolean isAsyncSupported() { return false; }
+    @Override public boolean isAsyncStarted() { return false; }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Asynchrone non pris en charge par le serveur embarqué");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        throw new IllegalStateException("Asynchrone non pris en charge par le serveur embarqué");
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("Asynchrone non pris en charge par le serveur embarqué");
+    }
+
+    @Override public String getAuthType() { return null; }
+    @Override public String getRemoteUser() { return null; }
+    @Override public Principal getUserPrincipal() { return null; }
+    @Override public boolean isUserInRole(String role) { return false; }
+    @Override public boolean authenticate(HttpServletResponse response) { return false; }
+
+    @Override
+    public void login(String username, String password) throws ServletException {
+        throw new ServletException("Authentification non prise en charge par le serveur embarqué");
+    }
+
+    @Override public void logout() {}
+
+    @Override
+    public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) throws ServletException {
+        throw new ServletException("Upgrade non pris en charge par le serveur embarqué");
+    }
+}
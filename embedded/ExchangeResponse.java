@@ -0,0 +1,318 @@
+package framework.embedded;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import com.sun.net.httpserver.HttpExchange;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * HttpServletResponse au-dessus d'un HttpExchange du serveur embarqué.
+ *
+ * Le corps est gardé en tampon (bufferSize) : une réponse qui tient dans le
+ * tampon part avec son Content-Length, une plus grande est envoyée en
+ * chunked dès que le tampon déborde.
+ */
+final class ExchangeResponse implements HttpServletResponse {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private final HttpExchange exchange;
+    private final boolean head;
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private int status = SC_OK;
+    private String contentType;
+    private String characterEncoding;
+    private long contentLength = -1;
+    private Locale locale = Locale.getDefault();
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+    private OutputStream body; // flux de l'échange, une fois les en-têtes envoyés
+    private boolean committed;
+    private ServletOutputStream stream;
+    private boolean streamUsed;
+    private PrintWriter writer;
+
+    ExchangeResponse(HttpExchange exchange) {
+        this.exchange = exchange;
+        this.head = "HEAD".equals(exchange.getRequestMethod());
+    }
+
+    // ------------------------------
+    // 🔹 1. ENVOI
+    // ------------------------------
+
+    /** Fin de la requête : vide le writer, envoie les en-têtes si besoin et ferme l'échange. */
+    void finish() throws IOException {
+        try {
+            if (writer != null) writer.flush();
+            if (!committed) commit(true);
+            if (body != null) body.close();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // complete : toute la réponse est dans le tampon, sa longueur est connue
+    private void commit(boolean complete) throws IOException {
+        committed = true;
+        var out = exchange.getResponseHeaders();
+        headers.forEach(out::put);
+        if (contentType != null) out.set("Content-Type", getContentType());
+
+        long length;
+        if (head || status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || status < 200) {
+            if (head && contentLength >= 0) out.set("Content-Length", Long.toString(contentLength));
+            length = -1;
+        } else if (complete) {
+            length = buffer.size() == 0 ? -1 : buffer.size();
+        } else {
+            length = contentLength >= 0 ? contentLength : 0; // 0 : chunked
+        }
+        exchange.sendResponseHeaders(status, length);
+
+        body = length == -1 ? OutputStream.nullOutputStream() : exchange.getResponseBody();
+        if (buffer.size() > 0 && length != -1) buffer.writeTo(body);
+        buffer.reset();
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (committed) {
+            body.write(b, off, len);
+            return;
+        }
+        buffer.write(b, off, len);
+        if (buffer.size() > bufferSize) commit(false);
+    }
+
+    // ------------------------------
+    // 🔹 2. CORPS
+    // ------------------------------
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (writer != null) throw new IllegalStateException("getWriter() déjà appelé");
+        streamUsed = true;
+        return stream();
+    }
+
+    private ServletOutputStream stream() {
+        if (stream == null) {
+            stream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    ExchangeResponse.this.write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    ExchangeResponse.this.write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    if (!committed) commit(false);
+                    body.flush();
+                }
+
+                // Le conteneur ferme l'échange à la fin de la requête
+                @Override public void close() throws IOException { flush(); }
+                @Override public boolean isReady() { return true; }
+                @Override public void setWriteListener(WriteListener listener) {
+                    throw new IllegalStateException("Écriture non bloquante non prise en charge");
+                }
+            };
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            if (streamUsed) throw new IllegalStateException("getOutputStream() déjà appelé");
+            writer = new PrintWriter(new OutputStreamWriter(stream(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) writer.flush();
+        if (!committed) commit(false);
+        body.flush();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (committed) throw new IllegalStateException("Réponse déjà envoyée");
+        if (writer != null) writer.flush();
+        buffer.reset();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+        characterEncoding = null;
+        contentLength = -1;
+    }
+
+    @Override public boolean isCommitted() { return committed; }
+    @Override public void setBufferSize(int size) { if (!committed) bufferSize = Math.max(size, 512); }
+    @Override public int getBufferSize() { return bufferSize; }
+    @Override public void setContentLength(int length) { setContentLengthLong(length); }
+    @Override public void setContentLengthLong(long length) { if (!committed) contentLength = length; }
+
+    // ------------------------------
+    // 🔹 3. TYPE ET ENCODAGE
+    // ------------------------------
+    @Override
+    public void setContentType(String type) {
+        if (committed) return;
+        if (type == null) {
+            contentType = null;
+            return;
+        }
+        String charset = ExchangeRequest.charsetOf(type);
+        int semicolon = type.indexOf(';');
+        contentType = semicolon < 0 ? type.trim() : type.substring(0, semicolon).trim();
+        if (charset != null && writer == null) characterEncoding = charset;
+    }
+
+    @Override
+    public String getContentType() {
+        if (contentType == null) return null;
+        return characterEncoding == null ? contentType : contentType + ";charset=" + characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        if (!committed && writer == null) characterEncoding = charset;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding == null ? "ISO-8859-1" : characterEncoding;
+    }
+
+    @Override public void setLocale(Locale locale) { if (!committed) this.locale = locale; }
+    @Override public Locale getLocale() { return locale; }
+
+    // ------------------------------
+    // 🔹 4. STATUT ET EN-TÊTES
+    // ------------------------------
+    @Override public void setStatus(int sc) { if (!committed) status = sc; }
+    @Override public int getStatus() { return status; }
+
+    @Override
+    public void sendError(int sc, String message) throws IOException {
+        if (committed) throw new IllegalStateException("Réponse déjà envoyée");
+        reset();
+        status = sc;
+        setContentType("text/html;charset=UTF-8");
+        String text = message == null ? "" : " : " + message.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+        getWriter().print("<html><body><h3>Erreur " + sc + text + "</h3></body></html>");
+    }
+
+    @Override public void sendError(int sc) throws IOException { sendError(sc, null); }
+
+    @Override
+    public void sendRedirect(String location) {
+        if (committed) throw new IllegalStateException("Réponse déjà envoyée");
+        resetBuffer();
+        status = SC_FOUND;
+        setHeader("Location", location);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (committed || name == null) return;
+        if (isSpecial(name, value)) return;
+        if (value == null) headers.remove(name);
+        else headers.put(name, new ArrayList<>(List.of(value)));
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (committed || name == null || value == null) return;
+        if (isSpecial(name, value)) return;
+        headers.computeIfAbsent(name, k -> new ArrayList<>(1)).add(value);
+    }
+
+    // Content-Type et Content-Length sont gardés à part (calculés à l'envoi)
+    private boolean isSpecial(String name, String value) {
+        if (name.equalsIgnoreCase("Content-Type")) {
+            setContentType(value);
+            return true;
+        }
+        if (name.equalsIgnoreCase("Content-Length")) {
+            contentLength = value == null ? -1 : Long.parseLong(value.trim());
+            return true;
+        }
+        return false;
+    }
+
+    @Override public void setIntHeader(String name, int value) { setHeader(name, Integer.toString(value)); }
+    @Override public void addIntHeader(String name, int value) { addHeader(name, Integer.toString(value)); }
+    @Override public void setDateHeader(String name, long date) { setHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date))); }
+    @Override public void addDateHeader(String name, long date) { addHeader(name, HTTP_DATE.format(Instant.ofEpochMilli(date))); }
+
+    @Override
+    public boolean containsHeader(String name) {
+        if (name.equalsIgnoreCase("Content-Type")) return contentType != null;
+        if (name.equalsIgnoreCase("Content-Length")) return contentLength >= 0;
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        if (name.equalsIgnoreCase("Content-Type")) return getContentType();
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? List.of() : List.copyOf(values);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return List.copyOf(headers.keySet());
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        StringBuilder header = new StringBuilder(cookie.getName()).append('=')
+                .append(cookie.getValue() == null ? "" : cookie.getValue());
+        if (cookie.getMaxAge() >= 0) header.append("; Max-Age=").append(cookie.getMaxAge());
+        if (cookie.getPath() != null) header.append("; Path=").append(cookie.getPath());
+        if (cookie.getDomain() != null) header.append("; Domain=").append(cookie.getDomain());
+        if (cookie.getSecure()) header.append("; Secure");
+        if (cookie.isHttpOnly()) header.append("; HttpOnly");
+        addHeader("Set-Cookie", header.toString());
+    }
+
+    @Override public String encodeURL(String url) { return url; }
+    @Override public String encodeRedirectURL(String url) { return url; }
+}
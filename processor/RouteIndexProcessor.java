@@ -0,0 +1,181 @@
+package framework.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import framework.annotation.Param;
+import framework.annotation.UrlGet;
+import framework.annotation.UrlHandler;
+import framework.annotation.UrlPost;
+import framework.controllers.Controller;
+
+/**
+ * Processeur d'annotations exécuté par javac : il lit @Controller, @UrlGet,
+ * @UrlPost et @UrlHandler et écrit l'index des routes
+ * META-INF/framework/routes.idx dans le dossier des classes. @Param est
+ * seulement vérifié (nom obligatoire), il n'entre pas dans l'index.
+ *
+ * Enregistré via META-INF/services dans framework.jar : toute application
+ * compilée avec framework.jar dans son classpath génère son index, et
+ * FrontServlet.init() n'a plus besoin de scanner /WEB-INF/classes.
+ *
+ * Format (une route par ligne, séparateur tabulation) :
+ *   METHODE  url  classe.binaire  nomMethode  types,des,parametres
+ * Le reste (@Json, @Limit, portée...) est relu sur la méthode au chargement.
+ *
+ * L'index ne couvre que les classes compilées avec le processeur : un jar de
+ * contrôleurs compilé sans lui doit avoir son propre index (sinon ses routes
+ * sont absentes, voir RouteIndex).
+ */
+@SupportedAnnotationTypes({
+        "framework.controllers.Controller",
+        "framework.annotation.UrlGet",
+        "framework.annotation.UrlPost",
+        "framework.annotation.UrlHandler",
+        "framework.annotation.Param"
+})
+public class RouteIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_RESOURCE = "META-INF/framework/routes.idx";
+    public static final String HEADER = "# framework route index v2";
+
+    private final List<String> lines = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Controller.class)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                collectRoutes((TypeElement) element);
+            }
+        }
+        checkOrphans(roundEnv);
+
+        if (roundEnv.processingOver() && !lines.isEmpty()) {
+            writeIndex();
+        }
+        return false; // les annotations restent visibles pour d'autres processeurs
+    }
+
+    // ------------------------------
+    // 🔹 1. ROUTES D'UN CONTRÔLEUR
+    // ------------------------------
+    private void collectRoutes(TypeElement controller) {
+        String className = processingEnv.getElementUtils().getBinaryName(controller).toString();
+
+        for (Element member : controller.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.METHOD) continue;
+            ExecutableElement method = (ExecutableElement) member;
+
+            // Même priorité que Scanner.loadAllRoutes
+            String url;
+            String httpMethod;
+            if (method.getAnnotation(UrlHandler.class) != null) {
+                url = method.getAnnotation(UrlHandler.class).url();
+                httpMethod = "ALL";
+            } else if (method.getAnnotation(UrlGet.class) != null) {
+                url = method.getAnnotation(UrlGet.class).value();
+                httpMethod = "GET";
+            } else if (method.getAnnotation(UrlPost.class) != null) {
+                url = method.getAnnotation(UrlPost.class).value();
+                httpMethod = "POST";
+            } else {
+                continue;
+            }
+
+            if (url.isEmpty() || url.indexOf('\t') >= 0 || url.indexOf('\n') >= 0) {
+                error(method, "URL de route invalide : \"" + url + "\"");
+                continue;
+            }
+
+            List<String> types = new ArrayList<>();
+            for (VariableElement parameter : method.getParameters()) {
+                Param param = parameter.getAnnotation(Param.class);
+                if (param != null && param.value().isEmpty()) {
+                    error(parameter, "@Param doit indiquer le nom du champ de formulaire");
+                }
+                types.add(typeName(parameter.asType()));
+            }
+
+            lines.add(httpMethod + "\t" + url + "\t" + className + "\t" + method.getSimpleName()
+                    + "\t" + String.join(",", types));
+        }
+    }
+
+    // Route déclarée hors d'un @Controller : jamais enregistrée, on prévient
+    private void checkOrphans(RoundEnvironment roundEnv) {
+        for (Class<? extends java.lang.annotation.Annotation> type
+                : List.of(UrlGet.class, UrlPost.class, UrlHandler.class)) {
+            for (Element method : roundEnv.getElementsAnnotatedWith(type)) {
+                Element owner = method.getEnclosingElement();
+                if (owner.getAnnotation(Controller.class) == null) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                            "Route ignorée : " + owner.getSimpleName() + " n'est pas annoté @Controller", method);
+                }
+            }
+        }
+    }
+
+    /**
+     * Nom du type effacé, identique à Class.getTypeName() au runtime
+     * (int, java.lang.String[], pkg.Outer$Inner...).
+     */
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() == TypeKind.ARRAY) {
+            return typeName(((ArrayType) erased).getComponentType()) + "[]";
+        }
+        if (erased.getKind() == TypeKind.DECLARED) {
+            TypeElement element = (TypeElement) ((DeclaredType) erased).asElement();
+            return processingEnv.getElementUtils().getBinaryName(element).toString();
+        }
+        return erased.toString(); // primitifs
+    }
+
+    // ------------------------------
+    // 🔹 2. ÉCRITURE DE L'INDEX
+    // ------------------------------
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer out = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                out.write(HEADER + "\n");
+                for (String line : lines) out.write(line + "\n");
+            }
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "Index des routes généré : " + lines.size() + " route(s) → " + INDEX_RESOURCE);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Impossible d'écrire " + INDEX_RESOURCE + " : " + e.getMessage());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,347 @@
+package framework.scanner;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.Part;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import framework.annotation.JsonBody;
+import framework.annotation.Param;
+import framework.utils.Converter;
+import framework.utils.Converters;
+import framework.utils.JsonUtils;
+import framework.utils.RequestBodyException;
+import framework.utils.UploadedFile;
+
+/**
+ * Plan de liaison des arguments, compilé une seule fois par MappedMethod.
+ *
+ * Toute la réflexion (getParameters, annotations, isAssignableFrom, types
+ * génériques, constructeurs) est faite au scan : chaque paramètre reçoit son
+ * Resolver, et une requête n'exécute que les resolvers déjà choisis.
+ */
+public final class ArgumentBinder {
+
+    // Taille maximale d'une liste remplie par indice ("es[3].nom") : l'indice vient
+    // du client, es[999999999] ne doit pas créer un milliard d'éléments (cf.
+    // autoGrowCollectionLimit de Spring). Au-delà, la clé est ignorée.
+    private static volatile int maxListSize = 256;
+
+    private final Resolver[] resolvers;
+
+    private ArgumentBinder(Resolver[] resolvers) {
+        this.resolvers = resolvers;
+    }
+
+    public Object[] bind(HttpServletRequest request, RouteMatch match) {
+        Context ctx = new Context(request, match);
+        Object[] args = new Object[resolvers.length];
+
+        for (int i = 0; i < resolvers.length; i++) {
+            try {
+                args[i] = resolvers[i].resolve(ctx);
+            } catch (RequestBodyException e) {
+                throw e; // corps refusé : 400 / 413 renvoyé par FrontServlet
+            } catch (Exception e) {
+                e.printStackTrace();
+                args[i] = null;
+            }
+        }
+        return args;
+    }
+
+    public static int getMaxListSize() {
+        return maxListSize;
+    }
+
+    public static void setMaxListSize(int max) {
+        maxListSize = max;
+    }
+
+    // ------------------------------
+    // 🔹 1. COMPILATION DU PLAN
+    // ------------------------------
+    public static ArgumentBinder compile(Method method, String[] pathVariableNames) {
+        Parameter[] parameters = method.getParameters();
+        Resolver[] resolvers = new Resolver[parameters.length];
+
+        for (int i = 0; i < parameters.length; i++) {
+            try {
+                resolvers[i] = resolverFor(parameters[i], pathVariableNames);
+            } catch (Exception e) {
+                // Paramètre non liable (pas de constructeur, générique brut...) : toujours null
+                System.out.println("⚠️ Paramètre non liable " + parameters[i] + " dans " + method + " : " + e);
+                resolvers[i] = ctx -> null;
+            }
+        }
+        return new ArgumentBinder(resolvers);
+    }
+
+    private static Resolver resolverFor(Parameter p, String[] pathVariableNames) throws Exception {
+        Class<?> type = p.getType();
+        String name = p.isAnnotationPresent(Param.class) ? p.getAnnotation(Param.class).value() : p.getName();
+
+        // 1️ Objets de contexte
+        if (type == HttpServletRequest.class) return ctx -> ctx.request;
+        if (type == HttpSession.class) return ctx -> ctx.request.getSession();
+
+        // 2️ Corps JSON de la requête
+        if (p.isAnnotationPresent(JsonBody.class)) {
+            return new JsonBodyResolver(p.getParameterizedType(), p.getAnnotation(JsonBody.class).maxBytes());
+        }
+
+        // 3️ Upload d'un ou plusieurs fichiers
+        if (type == UploadedFile.class) return new SingleFileResolver(name);
+        if (type.isArray() && type.getComponentType() == UploadedFile.class) return new MultiFileResolver(name);
+
+        // 4️ Paramètre avec @Param
+        if (p.isAnnotationPresent(Param.class)) return new ScalarResolver(name, type);
+
+        // 5️ Map<String,Object>
+        if (Map.class.isAssignableFrom(type)) return ArgumentBinder::formAsMap;
+
+        // 6️ Variables dynamiques {id} dans l'URL
+        for (int v = 0; v < pathVariableNames.length; v++) {
+            if (pathVariableNames[v].equals(name)) return new PathVariableResolver(v, type);
+        }
+
+        // 7️ Types simples (tout type ayant un convertisseur : nombres, enums, dates...)
+        if (Converters.supports(type)) {
+            return new ScalarResolver(name, type);
+        }
+
+        // 8️ Tableaux ou listes indexés (ex: emps[0].nom)
+        if (type.isArray()) {
+            return new IndexedResolver(name, type.getComponentType(), true);
+        }
+        if (List.class.isAssignableFrom(type)) {
+            ParameterizedType generic = (ParameterizedType) p.getParameterizedType();
+            return new IndexedResolver(name, (Class<?>) generic.getActualTypeArguments()[0], false);
+        }
+
+        // 9️ Objets complexes (ex: Departement, Employe)
+        return new PojoResolver(name, type);
+    }
+
+    // ------------------------------
+    // 🔹 2. CONTEXTE D'UNE REQUÊTE
+    // ------------------------------
+    static final class Context {
+        final HttpServletRequest request;
+        final RouteMatch match;
+        private FormParameters form;
+
+        Context(HttpServletRequest request, RouteMatch match) {
+            this.request = request;
+            this.match = match;
+        }
+
+        // Les paramètres ne sont lus que si un resolver en a besoin (voir FormParameters)
+        FormParameters form() throws IOException {
+            if (form == null) form = FormParameters.of(request);
+            return form;
+        }
+    }
+
+    @FunctionalInterface
+    interface Resolver {
+        Object resolve(Context ctx) throws Exception;
+    }
+
+    // ------------------------------
+    // 🔹 3. RESOLVERS
+    // ------------------------------
+    private static Object formAsMap(Context ctx) throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        for (Map.Entry<String, String[]> entry : ctx.form().toMap().entrySet()) {
+            if (entry.getValue().length > 1)
+                map.put(entry.getKey(), Arrays.asList(entry.getValue()));
+            else
+                map.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return map;
+    }
+
+    // Convertisseur résolu une fois ; un primitif absent ou invalide reçoit sa valeur par défaut
+    private abstract static class ConvertingResolver implements Resolver {
+        private final Converter<?> converter;
+        private final Object defaultValue;
+
+        ConvertingResolver(Class<?> type) {
+            this.converter = Converters.forType(type);
+            this.defaultValue = Converters.defaultValue(type);
+        }
+
+        final Object convert(String raw) {
+            Object value = raw == null ? null : converter.convert(raw);
+            return value != null ? value : defaultValue;
+        }
+    }
+
+    private static final class ScalarResolver extends ConvertingResolver {
+        private final String name;
+
+        ScalarResolver(String name, Class<?> type) {
+            super(type);
+            this.name = name;
+        }
+
+        @Override
+        public Object resolve(Context ctx) throws IOException {
+            return convert(ctx.form().get(name));
+        }
+    }
+
+    private static final class PathVariableResolver extends ConvertingResolver {
+        private final int index;
+
+        PathVariableResolver(int index, Class<?> type) {
+            super(type);
+            this.index = index;
+        }
+
+        @Override
+        public Object resolve(Context ctx) {
+            if (ctx.match == null || index >= ctx.match.getVariableCount()) return convert(null);
+            return convert(ctx.match.getPathVariable(index));
+        }
+    }
+
+    // TypeAdapter résolu au scan (types génériques compris : List<Employe>...)
+    private static final class JsonBodyResolver implements Resolver {
+        private final TypeAdapter<?> adapter;
+        private final long maxBytes;
+
+        JsonBodyResolver(Type type, long maxBytes) {
+            this.adapter = JsonUtils.getGson().getAdapter(TypeToken.get(type));
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public Object resolve(Context ctx) throws Exception {
+            long limit = maxBytes >= 0 ? maxBytes : JsonUtils.getMaxBodyBytes();
+            if (limit >= 0 && ctx.request.getContentLengthLong() > limit) {
+                throw new RequestBodyException(413, "Corps de requête trop volumineux");
+            }
+
+            Charset charset = FormParameters.bodyCharset(ctx.request.getCharacterEncoding());
+            return JsonUtils.readJson(ctx.request.getInputStream(), charset, adapter, limit);
+        }
+    }
+
+    private static final class SingleFileResolver implements Resolver {
+        private final String name;
+
+        SingleFileResolver(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object resolve(Context ctx) throws Exception {
+            Part part = ctx.request.getPart(name);
+            if (part != null && part.getSubmittedFileName() != null && part.getSize() > 0) {
+                return new UploadedFile(part);
+            }
+            return null;
+        }
+    }
+
+    private static final class MultiFileResolver implements Resolver {
+        private final String name;
+
+        MultiFileResolver(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object resolve(Context ctx) throws Exception {
+            List<UploadedFile> files = new ArrayList<>();
+            for (Part part : ctx.request.getParts()) {
+                if (part.getName().equals(name)
+                        && part.getSubmittedFileName() != null
+                        && part.getSize() > 0) {
+                    files.add(new UploadedFile(part));
+                }
+            }
+            return files.toArray(new UploadedFile[0]);
+        }
+    }
+
+    private static final class IndexedResolver implements Resolver {
+        private final String prefix;
+        private final Class<?> elementType;
+        private final Constructor<?> elementConstructor;
+        private final boolean asArray;
+
+        IndexedResolver(String name, Class<?> elementType, boolean asArray) throws NoSuchMethodException {
+            this.prefix = name + "[";
+            this.elementType = elementType;
+            this.elementConstructor = elementType.getDeclaredConstructor();
+            this.asArray = asArray;
+        }
+
+        @Override
+        public Object resolve(Context ctx) throws Exception {
+            List<Object> list = new ArrayList<>();
+
+            // Seules les clés "es[..." sont visitées ; suffix = "0].nom"
+            ctx.form().forEachWithPrefix(prefix, (suffix, values) -> {
+                int idxEnd = suffix.indexOf(']');
+                if (idxEnd <= 0) return;
+                long idx = Converters.parseInt(suffix.subSequence(0, idxEnd));
+                if (idx < 0 || idx == Converters.INVALID || idx >= maxListSize) return;
+
+                while (list.size() <= idx) {
+                    list.add(elementConstructor.newInstance());
+                }
+                if (idxEnd + 2 <= suffix.length()) {
+                    Scanner.setObjectFieldValue(list.get((int) idx), suffix.substring(idxEnd + 2), values); // skip ].
+                }
+            });
+
+            if (!asArray) return list;
+            Object array = Array.newInstance(elementType, list.size());
+            for (int i = 0; i < list.size(); i++) {
+                Array.set(array, i, list.get(i));
+            }
+            return array;
+        }
+    }
+
+    private static final class PojoResolver implements Resolver {
+        private final String prefix;
+        private final Class<?> type;
+        private final Constructor<?> constructor;
+
+        PojoResolver(String name, Class<?> type) throws NoSuchMethodException {
+            this.prefix = name + ".";
+            this.type = type;
+            this.constructor = type.getDeclaredConstructor();
+        }
+
+        @Override
+        public Object resolve(Context ctx) throws Exception {
+            Object instance = constructor.newInstance();
+            FormParameters form = ctx.form();
+
+            // "emp.nom", puis les clés sans préfixe ("nom") qui correspondent à un champ
+            form.forEachWithPrefix(prefix, (key, values) -> Scanner.setObjectFieldValue(instance, key, values));
+            form.forEachOther(prefix, key -> PropertyAccessors.isKnown(type, key),
+                    (key, values) -> Scanner.setObjectFieldValue(instance, key, values));
+            return instance;
+        }
+    }
+}
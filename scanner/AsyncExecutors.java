@@ -0,0 +1,43 @@
+package framework.scanner;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exécuteurs pour le travail déporté hors des threads du conteneur.
+ *
+ * Sur une JVM 21+, un thread virtuel par tâche ; sinon un pool borné de
+ * threads démons (le framework compile encore pour Java 17).
+ */
+public final class AsyncExecutors {
+
+    private AsyncExecutors() {}
+
+    public static ExecutorService newTaskExecutor(String name, int maxThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(maxThreads, daemonThreads(name));
+        }
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
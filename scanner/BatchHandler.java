@@ -0,0 +1,269 @@
+package framework.scanner;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import framework.utils.ApiResponse;
+import framework.utils.JsonUtils;
+import framework.utils.RequestBodyException;
+
+/**
+ * Route de lot (batchPath, ex. /_batch) : un POST contenant un tableau JSON
+ * de sous-requêtes, chacune résolue sur la RouteTable et exécutée en
+ * parallèle sur un pool borné.
+ *
+ *   [{"method": "GET", "path": "/produits/12"},
+ *    {"method": "GET", "path": "/produits", "params": {"page": 2, "tags": ["a", "b"]}},
+ *    {"method": "POST", "path": "/paniers", "body": {"produit": 12}}]
+ *
+ * La réponse est un tableau d'ApiResponse dans l'ordre des sous-requêtes,
+ * écrit au fil de l'eau : chaque résultat part dès que ceux qui le précèdent
+ * sont prêts. Seules les routes @Json marquées @Batchable peuvent faire
+ * partie d'un lot (403 sinon) ; les limites (@Limit) et les métriques de
+ * chaque route s'appliquent.
+ *
+ * Les sous-requêtes vont directement à la RouteTable : les filtres servlet et
+ * les <security-constraint> associés à leur chemin ne s'exécutent pas, seuls
+ * ceux du batchPath s'appliquent. N'annoter @Batchable que des routes sans
+ * protection propre. En-têtes, session et utilisateur sont figés
+ * (BatchRequest.Snapshot) sur le thread du lot avant la répartition.
+ */
+public final class BatchHandler {
+
+    private static final TypeAdapter<JsonArray> ARRAY = JsonUtils.getGson().getAdapter(JsonArray.class);
+
+    private final String path;
+    private final int maxRequests;
+    private final ThreadPoolExecutor executor;
+
+    public BatchHandler(String path, int threads, int maxRequests) {
+        this.path = path;
+        this.maxRequests = maxRequests;
+        // File bornée : pool saturé → la sous-requête s'exécute sur le thread du lot (contre-pression)
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 16), AsyncExecutors.daemonThreads("framework-batch"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // ------------------------------
+    // 🔹 1. LOT
+    // ------------------------------
+    public void handle(HttpServletRequest request, HttpServletResponse response, RouteTable routes) throws IOException {
+        if (!"POST".equals(request.getMethod())) {
+            response.setHeader("Allow", "POST");
+            sendError(response, HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+
+        JsonArray calls;
+        try {
+            calls = JsonUtils.readJson(request.getInputStream(), StandardCharsets.UTF_8, ARRAY, JsonUtils.getMaxBodyBytes());
+        } catch (RequestBodyException e) {
+            sendError(response, e.getStatus());
+            return;
+        }
+        if (calls == null) calls = new JsonArray();
+        if (calls.size() > maxRequests) {
+            sendError(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+
+        // La requête du conteneur n'est lue que sur ce thread : les sous-requêtes partagent un instantané
+        BatchRequest.Snapshot batch = BatchRequest.Snapshot.of(request);
+
+        // La première sous-requête reste sur ce thread, les autres partent sur le pool
+        List<Future<ApiResponse>> results = new ArrayList<>(calls.size());
+        for (int i = 1; i < calls.size(); i++) {
+            JsonElement call = calls.get(i);
+            results.add(executor.submit(() -> execute(batch, call, routes)));
+        }
+        ApiResponse first = calls.size() == 0 ? null : execute(batch, calls.get(0), routes);
+
+        response.setContentType("application/json;charset=UTF-8");
+        Gson gson = JsonUtils.getGson();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        JsonWriter json = gson.newJsonWriter(writer);
+        json.beginArray();
+        if (first != null) gson.toJson(first, ApiResponse.class, json);
+        for (Future<ApiResponse> result : results) {
+            gson.toJson(await(result), ApiResponse.class, json);
+        }
+        json.endArray();
+        json.flush();
+    }
+
+    private static ApiResponse await(Future<ApiResponse> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ApiResponse("error", HttpServletResponse.SC_SERVICE_UNAVAILABLE, null);
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+            return new ApiResponse("error", HttpServletResponse.SC_INTERNAL_SERVER_ERROR, null);
+        }
+    }
+
+    private static void sendError(HttpServletResponse response, int status) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json;charset=UTF-8");
+        JsonUtils.writeJson(new ApiResponse("error", status, null), response.getOutputStream());
+    }
+
+    // ------------------------------
+    // 🔹 2. SOUS-REQUÊTE
+    // ------------------------------
+    private ApiResponse execute(BatchRequest.Snapshot batch, JsonElement element, RouteTable routes) {
+        if (!element.isJsonObject()) return error(HttpServletResponse.SC_BAD_REQUEST);
+        JsonObject call = element.getAsJsonObject();
+        String method = string(call, "method", "GET").toUpperCase();
+        String target = string(call, "path", null);
+        if (target == null || !target.startsWith("/")) return error(HttpServletResponse.SC_BAD_REQUEST);
+
+        // "/produits?page=2" : la query du chemin s'ajoute aux params
+        int question = target.indexOf('?');
+        String subPath = question < 0 ? target : target.substring(0, question);
+        StringBuilder query = new StringBuilder(question < 0 ? "" : target.substring(question + 1));
+        JsonElement params = call.get("params");
+        if (params != null && params.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : params.getAsJsonObject().entrySet()) {
+                appendParam(query, entry.getKey(), entry.getValue());
+            }
+        }
+        if (subPath.equals(path)) return error(HttpServletResponse.SC_BAD_REQUEST); // pas de lot dans un lot
+
+        RouteMatch match = routes.match(subPath, method);
+        if (match == null) return error(HttpServletResponse.SC_NOT_FOUND);
+        MappedMethod mapped = match.getMappedMethod();
+        if (!mapped.isBatchable()) return error(HttpServletResponse.SC_FORBIDDEN); // opt-in par route
+        if (!mapped.isJson()) return error(HttpServletResponse.SC_NOT_ACCEPTABLE);
+
+        JsonElement body = call.get("body");
+        byte[] bytes = body == null || body.isJsonNull() ? null : body.toString().getBytes(StandardCharsets.UTF_8);
+        BatchRequest request = new BatchRequest(batch, method, subPath,
+                query.length() == 0 ? null : query.toString(), bytes);
+        return invoke(mapped, match, request);
+    }
+
+    // Même admission, mêmes métriques que FrontServlet.executeRoute
+    private static ApiResponse invoke(MappedMethod mapped, RouteMatch match, HttpServletRequest request) {
+        RouteLimiter limiter = mapped.getLimiter();
+        if (limiter != null) {
+            long verdict = limiter.tryAcquire();
+            if (verdict != RouteLimiter.ADMITTED) {
+                mapped.getMetrics().reject(verdict > 0 ? "rate" : "concurrency");
+                return error(verdict > 0 ? 429 : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            }
+        }
+
+        RouteMetrics metrics = mapped.getMetrics();
+        long start = metrics.enter();
+        try {
+            Object result = resolve(mapped.invoke(request, match));
+            return new ApiResponse("success", 200, result);
+        } catch (Exception e) {
+            e.printStackTrace();
+            metrics.error(e);
+            return error(e instanceof RequestBodyException ? ((RequestBodyException) e).getStatus() : 400);
+        } finally {
+            long elapsed = metrics.exit(start);
+            if (limiter != null) limiter.release(elapsed);
+        }
+    }
+
+    // CompletionStage / Callable : attendus sur le thread de la sous-requête ;
+    // Stream / Iterator / Producer : matérialisés, la réponse du lot est assemblée
+    private static Object resolve(Object result) throws Exception {
+        while (true) {
+            if (result instanceof CompletionStage<?> stage) {
+                CompletableFuture<?> future = stage.toCompletableFuture();
+                try {
+                    result = future.get();
+                } catch (ExecutionException e) {
+                    throw unwrap(e);
+                }
+            } else if (result instanceof Callable<?> callable) {
+                result = callable.call();
+            } else if (ResultStreamer.isStreamed(result)) {
+                return ResultStreamer.collect(result);
+            } else {
+                return result;
+            }
+        }
+    }
+
+    private static Exception unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof Exception e) return e;
+        return new RuntimeException(error);
+    }
+
+    private static ApiResponse error(int code) {
+        return new ApiResponse("error", code, null);
+    }
+
+    // ------------------------------
+    // 🔹 3. PARAMÈTRES → QUERY STRING
+    // ------------------------------
+
+    // {"emp": {"nom": "x"}, "es": [{"nom": "a"}], "tags": ["a", "b"]}
+    //   → emp.nom=x&es[0].nom=a&tags=a&tags=b (mêmes clés qu'un formulaire)
+    private static void appendParam(StringBuilder query, String key, JsonElement value) {
+        if (value == null || value.isJsonNull()) return;
+        if (value.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : value.getAsJsonObject().entrySet()) {
+                appendParam(query, key + "." + entry.getKey(), entry.getValue());
+            }
+        } else if (value.isJsonArray()) {
+            JsonArray array = value.getAsJsonArray();
+            for (int i = 0; i < array.size(); i++) {
+                JsonElement item = array.get(i);
+                appendParam(query, item.isJsonObject() ? key + "[" + i + "]" : key, item);
+            }
+        } else {
+            if (query.length() > 0) query.append('&');
+            query.append(URLEncoder.encode(key, StandardCharsets.UTF_8)).append('=')
+                 .append(URLEncoder.encode(value.getAsString(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String string(JsonObject object, String name, String defaultValue) {
+        JsonElement value = object.get(name);
+        return value == null || !value.isJsonPrimitive() ? defaultValue : value.getAsString();
+    }
+}
@@ -0,0 +1,277 @@
+package framework.scanner;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.Part;
+
+/**
+ * Sous-requête d'un lot (BatchHandler) : méthode, chemin, paramètres et
+ * corps JSON propres, le reste (en-têtes, session, utilisateur) vient d'un
+ * instantané de la requête du lot. Les contrôleurs la reçoivent comme une
+ * requête normale.
+ *
+ * Les sous-requêtes tournent sur le pool du lot : la requête du conteneur
+ * n'est lue que par Snapshot.of, sur le thread du lot, avant la répartition.
+ * Une sous-requête ne peut pas ouvrir de session (getSession(true) sans
+ * session existante → IllegalStateException). Les attributs posés sur la
+ * sous-requête restent locaux.
+ */
+final class BatchRequest extends HttpServletRequestWrapper {
+
+    private static final Set<String> BODY_HEADERS = Set.of("content-type", "content-length", "transfer-encoding");
+
+    private final Snapshot batch;
+    private final String method;
+    private final String path;
+    private final String queryString;
+    private final byte[] body; // corps JSON, null si absent
+    private final Map<String, Object> attributes;
+    private FormParameters form;
+    private ServletInputStream input;
+
+    BatchRequest(Snapshot batch, String method, String path, String queryString, byte[] body) {
+        super(batch.request);
+        this.batch = batch;
+        this.method = method;
+        this.path = path;
+        this.queryString = queryString;
+        this.body = body;
+        this.attributes = new HashMap<>(batch.attributes);
+    }
+
+    /** État de la requête du lot, figé sur son thread et partagé en lecture par les sous-requêtes */
+    static final class Snapshot {
+        private final HttpServletRequest request;
+        private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private final Map<String, Object> attributes = new HashMap<>();
+        private final HttpSession session; // null si le lot n'a pas de session
+        private final Cookie[] cookies;
+        private final List<Locale> locales;
+        private final Principal principal;
+        private final String remoteUser;
+        private final String authType;
+        private final String contextPath;
+        private final String scheme;
+        private final String serverName;
+        private final int serverPort;
+        private final boolean secure;
+        private final String remoteAddr;
+        private final String remoteHost;
+
+        private Snapshot(HttpServletRequest request) {
+            this.request = request;
+            for (String name : Collections.list(request.getHeaderNames())) {
+                if (BODY_HEADERS.contains(name.toLowerCase())) continue;
+                headers.computeIfAbsent(name, k -> new ArrayList<>()).addAll(Collections.list(request.getHeaders(name)));
+            }
+            for (String name : Collections.list(request.getAttributeNames())) {
+                if (!FormParameters.ATTRIBUTE.equals(name)) attributes.put(name, request.getAttribute(name));
+            }
+            this.session = request.getSession(false);
+            this.cookies = request.getCookies();
+            this.locales = List.copyOf(Collections.list(request.getLocales()));
+            this.principal = request.getUserPrincipal();
+            this.remoteUser = request.getRemoteUser();
+            this.authType = request.getAuthType();
+            this.contextPath = request.getContextPath();
+            this.scheme = request.getScheme();
+            this.serverName = request.getServerName();
+            this.serverPort = request.getServerPort();
+            this.secure = request.isSecure();
+            this.remoteAddr = request.getRemoteAddr();
+            this.remoteHost = request.getRemoteHost();
+        }
+
+        static Snapshot of(HttpServletRequest request) {
+            return new Snapshot(request);
+        }
+    }
+
+    // ------------------------------
+    // 🔹 1. LIGNE DE REQUÊTE ET CORPS
+    // ------------------------------
+    @Override public String getMethod() { return method; }
+    @Override public String getRequestURI() { return getContextPath() + path; }
+    @Override public String getServletPath() { return ""; }
+    @Override public String getPathInfo() { return path; }
+    @Override public String getQueryString() { return queryString; }
+    @Override public String getCharacterEncoding() { return "UTF-8"; }
+    @Override public void setCharacterEncoding(String encoding) {}
+    @Override public String getContentType() { return body == null ? null : "application/json;charset=UTF-8"; }
+    @Override public int getContentLength() { return body == null ? -1 : body.length; }
+    @Override public long getContentLengthLong() { return getContentLength(); }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer(getScheme()).append("://").append(getServerName());
+        int port = getServerPort();
+        if (port != (isSecure() ? 443 : 80)) url.append(':').append(port);
+        return url.append(getRequestURI());
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        if (input != null) return input;
+        ByteArrayInputStream in = new ByteArrayInputStream(body == null ? new byte[0] : body);
+        return input = new ServletInputStream() {
+            @Override public int read() { return in.read(); }
+            @Override public int read(byte[] b, int off, int len) { return in.read(b, off, len); }
+            @Override public boolean isFinished() { return in.available() == 0; }
+            @Override public boolean isReady() { return true; }
+            @Override public void setReadListener(ReadListener listener) {
+                throw new IllegalStateException("Lecture non bloquante non prise en charge");
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    // ------------------------------
+    // 🔹 2. EN-TÊTES (sans ceux du corps du lot)
+    // ------------------------------
+    @Override
+    public String getHeader(String name) {
+        if (name.equalsIgnoreCase("Content-Type")) return getContentType();
+        List<String> values = batch.headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        if (name.equalsIgnoreCase("Content-Type")) {
+            return Collections.enumeration(body == null ? List.of() : List.of(getContentType()));
+        }
+        return Collections.enumeration(batch.headers.getOrDefault(name, List.of()));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        List<String> names = new ArrayList<>(batch.headers.keySet());
+        if (body != null) names.add("Content-Type");
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = getHeader(name);
+        if (value == null) return -1;
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("En-tête " + name + " : date invalide", e);
+        }
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    // ------------------------------
+    // 🔹 3. SESSION, UTILISATEUR, CONNEXION (instantané)
+    // ------------------------------
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (batch.session == null && create) {
+            throw new IllegalStateException("Session à ouvrir avant le lot : pas de création depuis une sous-requête");
+        }
+        return batch.session;
+    }
+
+    @Override public HttpSession getSession() { return getSession(true); }
+    @Override public Cookie[] getCookies() { return batch.cookies == null ? null : batch.cookies.clone(); }
+    @Override public Locale getLocale() { return batch.locales.isEmpty() ? Locale.getDefault() : batch.locales.get(0); }
+    @Override public Enumeration<Locale> getLocales() { return Collections.enumeration(batch.locales); }
+    @Override public Principal getUserPrincipal() { return batch.principal; }
+    @Override public String getRemoteUser() { return batch.remoteUser; }
+    @Override public String getAuthType() { return batch.authType; }
+    @Override public String getContextPath() { return batch.contextPath; }
+    @Override public String getScheme() { return batch.scheme; }
+    @Override public String getServerName() { return batch.serverName; }
+    @Override public int getServerPort() { return batch.serverPort; }
+    @Override public boolean isSecure() { return batch.secure; }
+    @Override public String getRemoteAddr() { return batch.remoteAddr; }
+    @Override public String getRemoteHost() { return batch.remoteHost; }
+
+    @Override public Collection<Part> getParts() { return List.of(); }
+    @Override public Part getPart(String name) { return null; }
+
+    // ------------------------------
+    // 🔹 4. PARAMÈTRES (query string de la sous-requête)
+    // ------------------------------
+    private FormParameters form() {
+        if (form == null) {
+            try {
+                form = FormParameters.of(this);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return form;
+    }
+
+    @Override public String getParameter(String name) { return form().get(name); }
+    @Override public String[] getParameterValues(String name) { return form().getValues(name); }
+    @Override public Map<String, String[]> getParameterMap() { return form().toMap(); }
+    @Override public Enumeration<String> getParameterNames() { return Collections.enumeration(form().toMap().keySet()); }
+
+    // ------------------------------
+    // 🔹 5. ATTRIBUTS (copie de ceux du lot, modifications locales)
+    // ------------------------------
+    @Override public Object getAttribute(String name) { return attributes.get(name); }
+    @Override public Enumeration<String> getAttributeNames() { return Collections.enumeration(new ArrayList<>(attributes.keySet())); }
+    @Override public void removeAttribute(String name) { attributes.remove(name); }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) attributes.remove(name);
+        else attributes.put(name, value);
+    }
+
+    // ------------------------------
+    // 🔹 6. PAS D'ASYNCHRONE : le résultat est attendu par BatchHandler
+    // ------------------------------
+    @Override public boolean isAsyncSupported() { return false; }
+    @Override public boolean isAsyncStarted() { return false; }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Asynchrone non disponible dans un lot");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        throw new IllegalStateException("Asynchrone non disponible dans un lot");
+    }
+}
@@ -0,0 +1,95 @@
+package framework.scanner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse qui écrit normalement vers le client tout en gardant une copie
+ * du corps (jusqu'à une taille maximale), pour le cache des réponses.
+ */
+public class CapturingResponse extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    private final int maxBytes;
+    private boolean overflow;
+    private ServletOutputStream stream;
+    private PrintWriter writer;
+
+    public CapturingResponse(HttpServletResponse response, int maxBytes) {
+        super(response);
+        this.maxBytes = maxBytes;
+    }
+
+    /** @return le corps capturé, ou null s'il a dépassé la taille maximale */
+    public byte[] getCapturedBody() throws IOException {
+        if (writer != null) writer.flush();
+        return overflow ? null : copy.toByteArray();
+    }
+
+    private void capture(byte[] b, int off, int len) {
+        if (overflow) return;
+        if (copy.size() + len > maxBytes) {
+            overflow = true;
+            copy.reset();
+            return;
+        }
+        copy.write(b, off, len);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) throw new IllegalStateException("getWriter() déjà appelé");
+        if (stream == null) {
+            ServletOutputStream target = super.getOutputStream();
+            stream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    target.write(b);
+                    capture(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    target.write(b, off, len);
+                    capture(b, off, len);
+                }
+
+                @Override public void flush() throws IOException { target.flush(); }
+                @Override public void close() throws IOException { target.close(); }
+                @Override public boolean isReady() { return target.isReady(); }
+                @Override public void setWriteListener(WriteListener listener) { target.setWriteListener(listener); }
+            };
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) throw new IllegalStateException("getOutputStream() déjà appelé");
+            String encoding = getCharacterEncoding();
+            ServletOutputStream out = getOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(out, encoding == null ? "UTF-8" : encoding));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) writer.flush();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        copy.reset();
+        overflow = false;
+    }
+}
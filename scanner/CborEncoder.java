@@ -0,0 +1,413 @@
+package framework.scanner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import framework.utils.JsonUtils;
+
+/**
+ * Encodage CBOR (RFC 8949) des réponses @Json, écrit directement dans le
+ * flux de sortie via un tampon de 8 Ko.
+ *
+ * Le document a la même forme que le JSON de Gson : mêmes champs, mêmes noms
+ * (@SerializedName), null inclus (serializeNulls), énumérations par leur nom.
+ * Les objets applicatifs (ApiResponse, entités) sont lus avec les accès de
+ * PropertyAccessors ; les types que Gson traite à part (dates, @JsonAdapter...)
+ * passent par gson.toJsonTree puis sont encodés depuis l'arbre.
+ *
+ * Nombres : entiers en types majeurs 0/1, BigInteger en bignum (tags 2/3),
+ * BigDecimal en fraction décimale (tag 4), double en float32 quand la
+ * conversion est exacte, sinon float64. NaN et ±Infinity sont refusés
+ * (IllegalArgumentException), comme par Gson pour le JSON.
+ */
+public final class CborEncoder {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int UNSIGNED = 0;
+    private static final int NEGATIVE = 1 << 5;
+    private static final int BYTES = 2 << 5;
+    private static final int TEXT = 3 << 5;
+    private static final int ARRAY = 4 << 5;
+    private static final int MAP = 5 << 5;
+    private static final int TAG = 6 << 5;
+    private static final int FALSE = 0xf4, TRUE = 0xf5, NULL = 0xf6;
+    private static final int FLOAT32 = 0xfa, FLOAT64 = 0xfb;
+    private static final int INDEFINITE_ARRAY = 0x9f, INDEFINITE_MAP = 0xbf, BREAK = 0xff;
+
+    // Clés des objets applicatifs, encodées une fois par classe
+    private static final ClassValue<ObjectLayout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected ObjectLayout computeValue(Class<?> type) {
+            return new ObjectLayout(PropertyAccessors.serializedFields(type));
+        }
+    };
+
+    // Noms des constantes d'énumération (@SerializedName), par ordinal
+    private static final ClassValue<String[]> ENUM_NAMES = new ClassValue<>() {
+        @Override
+        protected String[] computeValue(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            String[] names = new String[constants.length];
+            for (int i = 0; i < constants.length; i++) {
+                String name = ((Enum<?>) constants[i]).name();
+                try {
+                    Field field = type.getField(name);
+                    SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                    if (serializedName != null) name = serializedName.value();
+                } catch (NoSuchFieldException e) {
+                    // Constante sans champ public : nom Java
+                }
+                names[i] = name;
+            }
+            return names;
+        }
+    };
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    CborEncoder(OutputStream out) {
+        this.out = out;
+    }
+
+    public static void write(Object value, OutputStream out) throws IOException {
+        CborEncoder encoder = new CborEncoder(out);
+        encoder.value(value);
+        encoder.flush();
+    }
+
+    // Écriture incrémentale (ResultStreamer) : en-têtes posés à la main, valeurs encodées une à une
+    void writeValue(Object value) throws IOException {
+        value(value);
+    }
+
+    void beginMap(int size) throws IOException {
+        head(MAP, size);
+    }
+
+    void beginArray() throws IOException {
+        writeByte(INDEFINITE_ARRAY);
+    }
+
+    void end() throws IOException {
+        writeByte(BREAK);
+    }
+
+    // ------------------------------
+    // 🔹 1. VALEURS
+    // ------------------------------
+    private void value(Object value) throws IOException {
+        if (value == null) {
+            writeByte(NULL);
+        } else if (value instanceof String s) {
+            text(s);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof AtomicInteger || value instanceof AtomicLong) {
+            integer(((Number) value).longValue());
+        } else if (value instanceof Boolean b) {
+            writeByte(b ? TRUE : FALSE);
+        } else if (value instanceof Double d) {
+            floating(d);
+        } else if (value instanceof Float f) {
+            finite(f);
+            writeByte(FLOAT32);
+            writeInt(Float.floatToIntBits(f));
+        } else if (value instanceof BigDecimal decimal) {
+            decimal(decimal);
+        } else if (value instanceof BigInteger big) {
+            bigInteger(big);
+        } else if (value instanceof Character || value instanceof CharSequence) {
+            text(value.toString());
+        } else if (value instanceof Enum<?> constant) {
+            text(ENUM_NAMES.get(constant.getDeclaringClass())[constant.ordinal()]);
+        } else if (value instanceof Map<?, ?> map) {
+            map(map);
+        } else if (value instanceof Collection<?> collection) {
+            collection(collection);
+        } else if (value.getClass().isArray()) {
+            array(value);
+        } else if (value instanceof JsonElement element) {
+            tree(element);
+        } else if (isApplicationObject(value.getClass())) {
+            object(value);
+        } else {
+            // Types avec un adaptateur Gson (dates, UUID, URL...) : même représentation que le JSON
+            tree(JsonUtils.getGson().toJsonTree(value));
+        }
+    }
+
+    private static boolean isApplicationObject(Class<?> type) {
+        return type.getClassLoader() != null && !type.isAnnotationPresent(JsonAdapter.class);
+    }
+
+    private void object(Object value) throws IOException {
+        Class<?> type = value.getClass();
+        // Comme Gson : les classes anonymes et locales sont écrites null
+        if (type.isAnonymousClass() || type.isLocalClass()) {
+            writeByte(NULL);
+            return;
+        }
+        ObjectLayout layout = LAYOUTS.get(type);
+        head(MAP, layout.fields.length);
+        for (int i = 0; i < layout.fields.length; i++) {
+            writeBytes(layout.keys[i]);
+            Object fieldValue;
+            try {
+                fieldValue = layout.fields[i].get(value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+            value(fieldValue);
+        }
+    }
+
+    private void map(Map<?, ?> map) throws IOException {
+        // Taille instable pendant le parcours : longueur indéfinie
+        boolean concurrent = map instanceof ConcurrentMap;
+        if (concurrent) writeByte(INDEFINITE_MAP);
+        else head(MAP, map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            text(String.valueOf(entry.getKey()));
+            value(entry.getValue());
+        }
+        if (concurrent) writeByte(BREAK);
+    }
+
+    private void collection(Collection<?> collection) throws IOException {
+        if (collection instanceof List<?> list && list instanceof RandomAccess) {
+            int size = list.size();
+            head(ARRAY, size);
+            for (int i = 0; i < size; i++) value(list.get(i));
+            return;
+        }
+        Object[] items = collection.toArray();
+        head(ARRAY, items.length);
+        for (Object item : items) value(item);
+    }
+
+    private void array(Object array) throws IOException {
+        if (array instanceof Object[] items) {
+            head(ARRAY, items.length);
+            for (Object item : items) value(item);
+            return;
+        }
+        // Tableaux primitifs (byte[] compris : Gson les écrit en tableau de nombres)
+        int length = Array.getLength(array);
+        head(ARRAY, length);
+        for (int i = 0; i < length; i++) value(Array.get(array, i));
+    }
+
+    // Arbre Gson (JsonElement, ou repli pour les types à adaptateur)
+    private void tree(JsonElement element) throws IOException {
+        if (element == null || element.isJsonNull()) {
+            writeByte(NULL);
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            head(MAP, object.size());
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                text(entry.getKey());
+                tree(entry.getValue());
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            head(ARRAY, array.size());
+            for (JsonElement item : array) tree(item);
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                writeByte(primitive.getAsBoolean() ? TRUE : FALSE);
+            } else if (primitive.isNumber()) {
+                Number number = primitive.getAsNumber();
+                // LazilyParsedNumber (nombre lu depuis du texte) : entier si possible
+                if (number instanceof Integer || number instanceof Long || number instanceof Double
+                        || number instanceof Float || number instanceof BigDecimal || number instanceof BigInteger) {
+                    value(number);
+                } else {
+                    BigDecimal decimal = primitive.getAsBigDecimal();
+                    if (decimal.scale() <= 0 && decimal.precision() - decimal.scale() < 19) integer(decimal.longValueExact());
+                    else floating(decimal.doubleValue());
+                }
+            } else {
+                text(primitive.getAsString());
+            }
+        }
+    }
+
+    // ------------------------------
+    // 🔹 2. NOMBRES ET TEXTE
+    // ------------------------------
+    private void integer(long value) throws IOException {
+        if (value >= 0) head(UNSIGNED, value);
+        else head(NEGATIVE, ~value); // -1 - value
+    }
+
+    private void floating(double value) throws IOException {
+        finite(value);
+        float narrow = (float) value;
+        if (narrow == value) {
+            writeByte(FLOAT32);
+            writeInt(Float.floatToIntBits(narrow));
+        } else {
+            writeByte(FLOAT64);
+            writeLong(Double.doubleToLongBits(value));
+        }
+    }
+
+    // Comme Gson (sans serializeSpecialFloatingPointValues) : NaN / ±Infinity refusés, même erreur qu'en JSON
+    private static void finite(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(value + " is not a valid double value as per JSON specification.");
+        }
+    }
+
+    private void bigInteger(BigInteger value) throws IOException {
+        if (value.bitLength() < 64) {
+            integer(value.longValue());
+            return;
+        }
+        boolean negative = value.signum() < 0;
+        byte[] magnitude = (negative ? value.not() : value).toByteArray();
+        int offset = magnitude[0] == 0 ? 1 : 0; // octet de signe de toByteArray
+        head(TAG, negative ? 3 : 2);
+        head(BYTES, magnitude.length - offset);
+        writeBytes(magnitude, offset, magnitude.length - offset);
+    }
+
+    // Tag 4 : [exposant, mantisse] avec valeur = mantisse × 10^exposant
+    private void decimal(BigDecimal value) throws IOException {
+        head(TAG, 4);
+        head(ARRAY, 2);
+        integer(-(long) value.scale());
+        bigInteger(value.unscaledValue());
+    }
+
+    private void text(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        head(TEXT, bytes.length);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    private static byte[] encodedKey(String name) {
+        ByteArrayOutputStream key = new ByteArrayOutputStream(name.length() + 9);
+        CborEncoder encoder = new CborEncoder(key);
+        try {
+            encoder.text(name);
+            encoder.drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // impossible en mémoire
+        }
+        return key.toByteArray();
+    }
+
+    // ------------------------------
+    // 🔹 3. EN-TÊTES ET TAMPON
+    // ------------------------------
+
+    // Type majeur + argument sur 0, 1, 2, 4 ou 8 octets (valeur non signée)
+    private void head(int major, long argument) throws IOException {
+        ensure(9);
+        byte[] b = buffer;
+        int p = position;
+        if (argument >= 0 && argument < 24) {
+            b[p++] = (byte) (major | (int) argument);
+        } else if (argument >= 0 && argument <= 0xff) {
+            b[p++] = (byte) (major | 24);
+            b[p++] = (byte) argument;
+        } else if (argument >= 0 && argument <= 0xffff) {
+            b[p++] = (byte) (major | 25);
+            b[p++] = (byte) (argument >>> 8);
+            b[p++] = (byte) argument;
+        } else if (argument >= 0 && argument <= 0xffffffffL) {
+            b[p++] = (byte) (major | 26);
+            for (int shift = 24; shift >= 0; shift -= 8) b[p++] = (byte) (argument >>> shift);
+        } else {
+            b[p++] = (byte) (major | 27);
+            for (int shift = 56; shift >= 0; shift -= 8) b[p++] = (byte) (argument >>> shift);
+        }
+        position = p;
+    }
+
+    private void writeByte(int value) throws IOException {
+        ensure(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeInt(int value) throws IOException {
+        ensure(4);
+        for (int shift = 24; shift >= 0; shift -= 8) buffer[position++] = (byte) (value >>> shift);
+    }
+
+    private void writeLong(long value) throws IOException {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) buffer[position++] = (byte) (value >>> shift);
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        if (length > BUFFER_SIZE - position) {
+            drain();
+            if (length > BUFFER_SIZE) {
+                out.write(bytes, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > BUFFER_SIZE) drain();
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    // ------------------------------
+    // 🔹 4. DISPOSITION D'UNE CLASSE
+    // ------------------------------
+    private static final class ObjectLayout {
+        final PropertyAccessors.SerializedField[] fields;
+        final byte[][] keys; // en-tête CBOR + nom UTF-8
+
+        ObjectLayout(PropertyAccessors.SerializedField[] fields) {
+            this.fields = fields;
+            this.keys = new byte[fields.length][];
+            for (int i = 0; i < fields.length; i++) keys[i] = encodedKey(fields[i].name);
+        }
+    }
+}
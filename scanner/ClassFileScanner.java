@@ -0,0 +1,260 @@
+package framework.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scanner de classes qui lit directement le bytecode : seuls le constant pool
+ * et l'attribut RuntimeVisibleAnnotations de la classe sont examinés, aucune
+ * classe n'est chargée pendant le scan.
+ *
+ * Les fichiers de /WEB-INF/classes et les jars de /WEB-INF/lib sont analysés
+ * en parallèle (pool fork-join commun). Seules les classes annotées
+ * @Controller sont ensuite chargées, sans initialisation statique.
+ */
+public final class ClassFileScanner {
+
+    private static final byte[] CONTROLLER_DESC =
+            "Lframework/controllers/Controller;".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RUNTIME_VISIBLE_ANNOTATIONS =
+            "RuntimeVisibleAnnotations".getBytes(StandardCharsets.US_ASCII);
+
+    private ClassFileScanner() {}
+
+    // ------------------------------
+    // 🔹 1. PARCOURS PARALLÈLE
+    // ------------------------------
+
+    /**
+     * @return les noms binaires des classes annotées @Controller
+     *         (dossier de classes et/ou dossier de jars, chacun peut être null)
+     */
+    public static List<String> findControllerClassNames(File classesDir, File libDir) throws IOException {
+        List<Path> sources = new ArrayList<>();
+        if (classesDir != null && classesDir.isDirectory()) {
+            try (Stream<Path> walk = Files.walk(classesDir.toPath())) {
+                walk.filter(p -> p.toString().endsWith(".class") && Files.isRegularFile(p))
+                        .forEach(sources::add);
+            }
+        }
+        if (libDir != null && libDir.isDirectory()) {
+            try (Stream<Path> walk = Files.list(libDir.toPath())) {
+                walk.filter(p -> p.toString().endsWith(".jar")).forEach(sources::add);
+            }
+        }
+
+        try {
+            return sources.parallelStream()
+                    .flatMap(ClassFileScanner::scanSource)
+                    .filter(Objects::nonNull)
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static List<Class<?>> loadControllerClasses(File classesDir, File libDir, ClassLoader loader) throws IOException {
+        List<Class<?>> classes = new ArrayList<>();
+        for (String name : findControllerClassNames(classesDir, libDir)) {
+            try {
+                classes.add(Class.forName(name, false, loader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                e.printStackTrace();
+            }
+        }
+        return classes;
+    }
+
+    private static Stream<String> scanSource(Path source) {
+        try {
+            if (source.toString().endsWith(".jar")) {
+                return scanJar(source).stream();
+            }
+            return Stream.of(scanClass(source.toString(), Files.readAllBytes(source)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> scanJar(Path jar) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (JarFile file = new JarFile(jar.toFile())) {
+            Enumeration<JarEntry> entries = file.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String entryName = entry.getName();
+                if (entry.isDirectory() || !entryName.endsWith(".class") || entryName.startsWith("META-INF/")) continue;
+
+                try (InputStream in = file.getInputStream(entry)) {
+                    String name = scanClass(jar + "!/" + entryName, in.readAllBytes());
+                    if (name != null) names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+
+    // ------------------------------
+    // 🔹 2. LECTURE DU FICHIER .class
+    // ------------------------------
+
+    // Un .class tronqué ou corrompu est ignoré, le scan continue sur les autres
+    private static String scanClass(String origin, byte[] b) {
+        try {
+            return controllerName(b);
+        } catch (IndexOutOfBoundsException e) {
+            System.out.println("⚠️ Fichier .class illisible ignoré : " + origin);
+            return null;
+        }
+    }
+
+    /**
+     * @return le nom binaire de la classe si elle porte @Controller, sinon null
+     * @throws IndexOutOfBoundsException si le fichier est tronqué ou corrompu
+     */
+    static String controllerName(byte[] b) {
+        if (b.length < 10 || u4(b, 0) != 0xCAFEBABE) return null;
+
+        int count = u2(b, 8);
+        int[] offsets = new int[count]; // offset de chaque entrée du constant pool
+        boolean mentionsController = false;
+        int pos = 10;
+
+        for (int i = 1; i < count; i++) {
+            offsets[i] = pos;
+            int tag = b[pos] & 0xFF;
+            switch (tag) {
+                case 1: { // Utf8
+                    int len = u2(b, pos + 1);
+                    if (!mentionsController && equalsAt(b, pos + 3, len, CONTROLLER_DESC)) mentionsController = true;
+                    pos += 3 + len;
+                    break;
+                }
+                case 7: case 8: case 16: case 19: case 20:
+                    pos += 3;
+                    break;
+                case 15:
+                    pos += 4;
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    pos += 5;
+                    break;
+                case 5: case 6: // Long / Double : deux entrées
+                    pos += 9;
+                    i++;
+                    break;
+                default:
+                    return null; // fichier inconnu ou corrompu
+            }
+        }
+
+        // Chemin rapide : la majorité des classes ne mentionnent même pas @Controller
+        if (!mentionsController) return null;
+
+        int thisClass = u2(b, pos + 2);
+        pos += 6;
+        pos += 2 + 2 * u2(b, pos); // interfaces
+        pos = skipMembers(b, pos); // champs
+        pos = skipMembers(b, pos); // méthodes
+
+        int attributes = u2(b, pos);
+        pos += 2;
+        for (int a = 0; a < attributes; a++) {
+            int nameOffset = offsets[u2(b, pos)];
+            int length = u4(b, pos + 2);
+            int start = pos + 6;
+            if (equalsAt(b, nameOffset + 3, u2(b, nameOffset + 1), RUNTIME_VISIBLE_ANNOTATIONS)
+                    && hasController(b, start, offsets)) {
+                int nameEntry = offsets[u2(b, offsets[thisClass] + 1)];
+                String internal = new String(b, nameEntry + 3, u2(b, nameEntry + 1), StandardCharsets.UTF_8);
+                return internal.replace('/', '.');
+            }
+            pos = start + length;
+        }
+        return null;
+    }
+
+    private static boolean hasController(byte[] b, int pos, int[] offsets) {
+        int annotations = u2(b, pos);
+        pos += 2;
+        for (int i = 0; i < annotations; i++) {
+            int type = offsets[u2(b, pos)];
+            if (equalsAt(b, type + 3, u2(b, type + 1), CONTROLLER_DESC)) return true;
+            pos = skipAnnotation(b, pos);
+        }
+        return false;
+    }
+
+    private static int skipMembers(byte[] b, int pos) {
+        int count = u2(b, pos);
+        pos += 2;
+        for (int i = 0; i < count; i++) {
+            pos += 6; // access_flags, name_index, descriptor_index
+            int attributes = u2(b, pos);
+            pos += 2;
+            for (int a = 0; a < attributes; a++) {
+                pos += 6 + u4(b, pos + 2);
+            }
+        }
+        return pos;
+    }
+
+    private static int skipAnnotation(byte[] b, int pos) {
+        int pairs = u2(b, pos + 2);
+        pos += 4;
+        for (int i = 0; i < pairs; i++) {
+            pos = skipElementValue(b, pos + 2);
+        }
+        return pos;
+    }
+
+    private static int skipElementValue(byte[] b, int pos) {
+        char tag = (char) (b[pos] & 0xFF);
+        pos++;
+        switch (tag) {
+            case 'e':
+                return pos + 4;
+            case '@':
+                return skipAnnotation(b, pos);
+            case '[': {
+                int values = u2(b, pos);
+                pos += 2;
+                for (int i = 0; i < values; i++) pos = skipElementValue(b, pos);
+                return pos;
+            }
+            default: // B C D F I J S Z s c
+                return pos + 2;
+        }
+    }
+
+    private static boolean equalsAt(byte[] b, int pos, int len, byte[] expected) {
+        if (len != expected.length) return false;
+        for (int i = 0; i < len; i++) {
+            if (b[pos + i] != expected[i]) return false;
+        }
+        return true;
+    }
+
+    private static int u2(byte[] b, int pos) {
+        return ((b[pos] & 0xFF) << 8) | (b[pos + 1] & 0xFF);
+    }
+
+    private static int u4(byte[] b, int pos) {
+        return ((b[pos] & 0xFF) << 24) | ((b[pos + 1] & 0xFF) << 16)
+                | ((b[pos + 2] & 0xFF) << 8) | (b[pos + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,323 @@
+package framework.scanner;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Réponse compressée au fil de l'écriture (gzip ou deflate), créée par
+ * ResponseCompression.wrap.
+ *
+ * Les premiers octets sont gardés en tampon jusqu'au seuil minBytes : une
+ * réponse plus courte part non compressée, avec son Content-Length. Au-delà,
+ * si le type de contenu est compressible, la suite passe par un Deflater sans
+ * être copiée. Un flush() avant le seuil est ignoré ; après, il envoie ce qui
+ * a été compressé (SYNC_FLUSH).
+ *
+ * Doit être terminée par close() ou CompressingResponse.finish(response).
+ */
+public class CompressingResponse extends HttpServletResponseWrapper {
+
+    private static final int UNDECIDED = 0, IDENTITY = 1, COMPRESSING = 2, FINISHED = 3;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final ResponseCompression compression;
+    private final String encoding;
+
+    private int state = UNDECIDED;
+    private byte[] pending = new byte[256];
+    private int pendingCount;
+    private long contentLength = -1;
+
+    private Deflater deflater;
+    private CRC32 crc;
+    private byte[] chunk;
+    private ServletOutputStream target;
+    private ServletOutputStream stream;
+    private PrintWriter writer;
+
+    CompressingResponse(HttpServletResponse response, ResponseCompression compression, String encoding) {
+        super(response);
+        this.compression = compression;
+        this.encoding = encoding;
+    }
+
+    // ------------------------------
+    // 🔹 1. FIN DE RÉPONSE
+    // ------------------------------
+
+    /**
+     * Termine la compression de la réponse (ou de la CompressingResponse
+     * qu'elle enveloppe) : vide le tampon ou écrit la fin du flux compressé.
+     */
+    public static void finish(ServletResponse response) throws IOException {
+        CompressingResponse compressing = find(response);
+        if (compressing == null || compressing.state == FINISHED) return;
+        // Les enveloppes extérieures (CapturingResponse...) vident d'abord leur writer
+        if (response != compressing) response.flushBuffer();
+        compressing.finishStream();
+    }
+
+    /** Désactive la compression tant que rien n'a été écrit (ex. dispatch asynchrone vers une JSP). */
+    public static void bypass(ServletResponse response) {
+        CompressingResponse compressing = find(response);
+        if (compressing != null && compressing.state == UNDECIDED && compressing.pendingCount == 0) {
+            compressing.state = IDENTITY;
+            compressing.applyContentLength();
+        }
+    }
+
+    private static CompressingResponse find(ServletResponse response) {
+        while (response instanceof ServletResponseWrapper wrapper) {
+            if (response instanceof CompressingResponse compressing) return compressing;
+            response = wrapper.getResponse();
+        }
+        return null;
+    }
+
+    private void finishStream() throws IOException {
+        if (writer != null) writer.flush();
+        if (state == UNDECIDED) {
+            // Réponse entière sous le seuil : envoyée telle quelle
+            state = IDENTITY;
+            if (contentLength < 0 && getStatus() != SC_NOT_MODIFIED) contentLength = pendingCount;
+            applyContentLength();
+            writePending();
+        } else if (state == COMPRESSING) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk, 0, chunk.length);
+                if (n > 0) target.write(chunk, 0, n);
+            }
+            if (crc != null) writeGzipTrailer();
+            compression.release(encoding, deflater);
+            deflater = null;
+        }
+        state = FINISHED;
+    }
+
+    private void writeGzipTrailer() throws IOException {
+        long value = crc.getValue();
+        long size = deflater.getBytesRead();
+        byte[] trailer = new byte[8];
+        for (int i = 0; i < 4; i++) {
+            trailer[i] = (byte) (value >>> (8 * i));
+            trailer[4 + i] = (byte) (size >>> (8 * i));
+        }
+        target.write(trailer);
+    }
+
+    // ------------------------------
+    // 🔹 2. ÉCRITURE
+    // ------------------------------
+    private void write(byte[] b, int off, int len) throws IOException {
+        switch (state) {
+            case UNDECIDED:
+                if (pendingCount + len <= compression.getMinBytes()) {
+                    if (pendingCount + len > pending.length) {
+                        pending = Arrays.copyOf(pending, Math.max(pendingCount + len, pending.length * 2));
+                    }
+                    System.arraycopy(b, off, pending, pendingCount, len);
+                    pendingCount += len;
+                    return;
+                }
+                decide();
+                if (state == COMPRESSING) {
+                    deflate(pending, 0, pendingCount);
+                    pending = null;
+                } else {
+                    writePending();
+                }
+                write(b, off, len);
+                return;
+            case IDENTITY:
+                target().write(b, off, len);
+                return;
+            case COMPRESSING:
+                deflate(b, off, len);
+                return;
+            default:
+                throw new IOException("Réponse déjà terminée");
+        }
+    }
+
+    // Seuil dépassé : compression si le type le permet et si rien n'est déjà encodé
+    private void decide() throws IOException {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        boolean compressible = compression.isCompressible(getContentType());
+        if (compressible) response.addHeader("Vary", "Accept-Encoding");
+
+        int status = response.getStatus();
+        if (!compressible || response.isCommitted() || response.containsHeader("Content-Encoding")
+                || status == HttpServletResponse.SC_NO_CONTENT || status == HttpServletResponse.SC_NOT_MODIFIED) {
+            state = IDENTITY;
+            applyContentLength();
+            return;
+        }
+
+        response.setHeader("Content-Encoding", encoding);
+        state = COMPRESSING;
+        deflater = compression.borrow(encoding);
+        chunk = new byte[CHUNK_SIZE];
+        if (ResponseCompression.GZIP.equals(encoding)) {
+            crc = new CRC32();
+            target().write(GZIP_HEADER);
+        } else {
+            target();
+        }
+    }
+
+    private void deflate(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return;
+        if (crc != null) crc.update(b, off, len);
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            int n = deflater.deflate(chunk, 0, chunk.length);
+            if (n > 0) target.write(chunk, 0, n);
+        }
+    }
+
+    private void flushStream() throws IOException {
+        if (state == COMPRESSING) {
+            int n;
+            do {
+                n = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH);
+                if (n > 0) target.write(chunk, 0, n);
+            } while (n == chunk.length);
+            target.flush();
+        } else if (state == IDENTITY) {
+            target().flush();
+        }
+    }
+
+    private void writePending() throws IOException {
+        if (pendingCount > 0) target().write(pending, 0, pendingCount);
+        pending = null;
+        pendingCount = 0;
+    }
+
+    private void applyContentLength() {
+        if (contentLength >= 0) super.setContentLengthLong(contentLength);
+    }
+
+    private ServletOutputStream target() throws IOException {
+        if (target == null) target = super.getOutputStream();
+        return target;
+    }
+
+    // ------------------------------
+    // 🔹 3. API DE LA RÉPONSE
+    // ------------------------------
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) throw new IllegalStateException("getWriter() déjà appelé");
+        if (stream == null) {
+            stream = new ServletOutputStream() {
+                private final byte[] single = new byte[1];
+
+                @Override
+                public void write(int b) throws IOException {
+                    single[0] = (byte) b;
+                    CompressingResponse.this.write(single, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    CompressingResponse.this.write(b, off, len);
+                }
+
+                @Override public void flush() throws IOException { flushStream(); }
+                @Override public void close() throws IOException {
+                    if (state != FINISHED) finishStream();
+                    if (target != null) target.close();
+                }
+                @Override public boolean isReady() { return target == null || target.isReady(); }
+                @Override public void setWriteListener(WriteListener listener) {
+                    throw new IllegalStateException("Écriture non bloquante non prise en charge avec la compression");
+                }
+            };
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) throw new IllegalStateException("getOutputStream() déjà appelé");
+            String charset = getCharacterEncoding();
+            ServletOutputStream out = getOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(out, charset == null ? "UTF-8" : charset));
+        }
+        return writer;
+    }
+
+    // Vide le writer ; avant le seuil, les octets restent en tampon (la réponse n'est pas validée)
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) writer.flush();
+        if (state != UNDECIDED) {
+            flushStream();
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (writer != null) writer.flush();
+        if (state == UNDECIDED) pendingCount = 0;
+        super.resetBuffer();
+        if (state == COMPRESSING) restartStream();
+    }
+
+    // Tampon du conteneur vidé avant validation : le flux compressé repart de zéro
+    private void restartStream() {
+        deflater.reset();
+        if (crc == null) return;
+        crc.reset();
+        try {
+            target.write(GZIP_HEADER);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // En-têtes effacés (Content-Encoding, Vary) : la compression est de nouveau à décider
+    @Override
+    public void reset() {
+        if (writer != null) writer.flush();
+        super.reset();
+        if (state == COMPRESSING) {
+            compression.release(encoding, deflater);
+            deflater = null;
+            crc = null;
+            pending = new byte[256];
+            state = UNDECIDED;
+        }
+        if (state == UNDECIDED) {
+            pendingCount = 0;
+            contentLength = -1;
+        }
+    }
+
+    // La longueur n'est connue qu'une fois la compression décidée
+    @Override
+    public void setContentLength(int length) {
+        setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        if (state == UNDECIDED) contentLength = length;
+        else if (state == IDENTITY) super.setContentLengthLong(length);
+    }
+}
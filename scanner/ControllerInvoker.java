@@ -0,0 +1,81 @@
+package framework.scanner;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Couche d'invocation d'une méthode de contrôleur, préparée au scan des routes :
+ * MethodHandle "spreader" de forme (Object, Object[])Object.
+ * (Le constructeur est compilé par ControllerProvider.)
+ *
+ * Si la conversion échoue (accès refusé, classe cachée...), on garde la
+ * réflexion classique. Dans tous les cas, l'exception levée par le contrôleur
+ * remonte telle quelle, sans InvocationTargetException ; une Error est
+ * enveloppée pour finir, comme avant, sur la page d'erreur.
+ */
+final class ControllerInvoker {
+
+    private static final MethodType CALL_TYPE =
+            MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Method method;
+    private final MethodHandle call; // (Object, Object[])Object, null → réflexion
+
+    private ControllerInvoker(Method method, MethodHandle call) {
+        this.method = method;
+        this.call = call;
+    }
+
+    // ------------------------------
+    // 🔹 1. COMPILATION
+    // ------------------------------
+    static ControllerInvoker compile(Class<?> controllerClass, Method method) {
+        MethodHandle call = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(controllerClass, MethodHandles.lookup());
+            call = callHandle(lookup, method);
+        } catch (Throwable e) {
+            System.out.println("⚠️ Invocation réflexive pour " + method + " : " + e);
+        }
+        return new ControllerInvoker(method, call);
+    }
+
+    private static MethodHandle callHandle(MethodHandles.Lookup lookup, Method method) throws IllegalAccessException {
+        int arity = method.getParameterCount();
+        MethodHandle handle = lookup.unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle
+                .asType(MethodType.genericMethodType(arity + 1))
+                .asSpreader(Object[].class, arity)
+                .asType(CALL_TYPE);
+    }
+
+    // ------------------------------
+    // 🔹 2. APPELS
+    // ------------------------------
+    Object invoke(Object controller, Object[] args) throws Exception {
+        if (call != null) {
+            try {
+                return (Object) call.invokeExact(controller, args);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+        try {
+            return method.invoke(controller, args);
+        } catch (InvocationTargetException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    static Exception rethrow(Throwable t) {
+        if (t instanceof Exception e) return e;
+        return new RuntimeException(t); // Error (StackOverflowError...) : page d'erreur, pas le conteneur
+    }
+}
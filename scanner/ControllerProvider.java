@@ -0,0 +1,212 @@
+package framework.scanner;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import framework.controllers.Controller;
+import framework.controllers.Scope;
+
+/**
+ * Fournit les instances d'une classe contrôleur selon son Scope.
+ * Un seul provider par classe, partagé par toutes ses MappedMethod.
+ */
+public abstract class ControllerProvider {
+
+    private static final long POOL_WAIT_SECONDS = 30;
+
+    // Nombre d'instances créées, par scope
+    private static final AtomicLong[] INSTANCES = new AtomicLong[Scope.values().length];
+    static {
+        for (int i = 0; i < INSTANCES.length; i++) INSTANCES[i] = new AtomicLong();
+    }
+
+    private final Class<?> controllerClass;
+    private final Scope scope;
+    private final Factory factory;
+
+    private ControllerProvider(Class<?> controllerClass, Scope scope, Factory factory) {
+        this.controllerClass = controllerClass;
+        this.scope = scope;
+        this.factory = factory;
+    }
+
+    public Class<?> getControllerClass() { return controllerClass; }
+    public Scope getScope() { return scope; }
+
+    abstract Object acquire() throws Exception;
+
+    void release(Object controller) {}
+
+    Object create() throws Exception {
+        Object controller = factory.create();
+        INSTANCES[scope.ordinal()].incrementAndGet();
+        return controller;
+    }
+
+    public static Map<Scope, Long> instanceCounts() {
+        Map<Scope, Long> counts = new EnumMap<>(Scope.class);
+        for (Scope s : Scope.values()) counts.put(s, INSTANCES[s.ordinal()].get());
+        return counts;
+    }
+
+    // ------------------------------
+    // 🔹 1. CRÉATION SELON LE SCOPE
+    // ------------------------------
+    public static ControllerProvider of(Class<?> controllerClass) {
+        Controller annotation = controllerClass.getAnnotation(Controller.class);
+        Scope scope = annotation == null ? Scope.REQUEST : annotation.scope();
+        Factory factory = compileFactory(controllerClass);
+
+        switch (scope) {
+            case SINGLETON:
+                return new SingletonProvider(controllerClass, factory);
+            case POOLED:
+                return new PooledProvider(controllerClass, factory, Math.max(1, annotation.poolSize()));
+            default:
+                return new RequestProvider(controllerClass, factory);
+        }
+    }
+
+    private static final class RequestProvider extends ControllerProvider {
+        RequestProvider(Class<?> controllerClass, Factory factory) {
+            super(controllerClass, Scope.REQUEST, factory);
+        }
+
+        @Override
+        Object acquire() throws Exception {
+            return create();
+        }
+    }
+
+    // Instance créée tout de suite (au scan des routes, donc dans FrontServlet.init())
+    private static final class SingletonProvider extends ControllerProvider {
+        private final Object instance;
+        private final Exception failure;
+
+        SingletonProvider(Class<?> controllerClass, Factory factory) {
+            super(controllerClass, Scope.SINGLETON, factory);
+            Object created = null;
+            Exception error = null;
+            try {
+                created = create();
+            } catch (Exception e) {
+                e.printStackTrace();
+                error = e;
+            }
+            this.instance = created;
+            this.failure = error;
+        }
+
+        @Override
+        Object acquire() throws Exception {
+            if (failure != null) throw failure;
+            return instance;
+        }
+    }
+
+    // Pool borné : instances créées à la demande jusqu'à poolSize, puis attente d'une instance libre
+    private static final class PooledProvider extends ControllerProvider {
+        private final ArrayBlockingQueue<Object> idle;
+        private final AtomicInteger created = new AtomicInteger();
+        private final int poolSize;
+
+        PooledProvider(Class<?> controllerClass, Factory factory, int poolSize) {
+            super(controllerClass, Scope.POOLED, factory);
+            this.idle = new ArrayBlockingQueue<>(poolSize);
+            this.poolSize = poolSize;
+        }
+
+        @Override
+        Object acquire() throws Exception {
+            Object controller = idle.poll();
+            if (controller != null) return controller;
+
+            int count;
+            while ((count = created.get()) < poolSize) {
+                if (created.compareAndSet(count, count + 1)) {
+                    try {
+                        return create();
+                    } catch (Exception e) {
+                        created.decrementAndGet();
+                        throw e;
+                    }
+                }
+            }
+
+            controller = idle.poll(POOL_WAIT_SECONDS, TimeUnit.SECONDS);
+            if (controller == null) {
+                throw new IllegalStateException("Pool de " + getControllerClass().getSimpleName()
+                        + " épuisé (" + poolSize + " instances occupées)");
+            }
+            return controller;
+        }
+
+        @Override
+        void release(Object controller) {
+            if (controller != null) idle.offer(controller);
+        }
+    }
+
+    // ------------------------------
+    // 🔹 2. CONSTRUCTEUR COMPILÉ
+    // ------------------------------
+    @FunctionalInterface
+    interface Factory {
+        Object create() throws Exception;
+    }
+
+    /**
+     * Constructeur sans argument : Supplier généré par LambdaMetafactory,
+     * sinon MethodHandle, sinon réflexion classique.
+     */
+    @SuppressWarnings("unchecked")
+    static Factory compileFactory(Class<?> controllerClass) {
+        MethodHandle constructor;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(controllerClass, MethodHandles.lookup());
+            constructor = lookup.findConstructor(controllerClass, MethodType.methodType(void.class));
+
+            try {
+                CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        constructor,
+                        constructor.type());
+                Supplier<Object> supplier = (Supplier<Object>) site.getTarget().invokeExact();
+                return supplier::get;
+            } catch (Throwable e) {
+                // LambdaMetafactory refusé : on garde le MethodHandle
+            }
+        } catch (Throwable e) {
+            // Pas de constructeur accessible : la réflexion lèvera l'erreur à l'appel
+            return () -> {
+                try {
+                    return controllerClass.getDeclaredConstructor().newInstance();
+                } catch (InvocationTargetException ite) {
+                    throw ControllerInvoker.rethrow(ite.getCause());
+                }
+            };
+        }
+
+        MethodHandle handle = constructor.asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return (Object) handle.invokeExact();
+            } catch (Throwable t) {
+                throw ControllerInvoker.rethrow(t);
+            }
+        };
+    }
+}
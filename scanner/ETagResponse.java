@@ -0,0 +1,268 @@
+package framework.scanner;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Date;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.ServletResponseWrapper;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * GET conditionnel des routes dynamiques (@ETag, ou etag=true pour toutes
+ * les routes @Json / ModelView).
+ *
+ * Le corps est gardé en mémoire (jusqu'à maxBytes) au lieu de partir vers le
+ * client ; à la fin de la route, un xxHash64 du corps donne un ETag faible.
+ * Si le client l'a déjà (If-None-Match), la réponse devient un 304 sans
+ * corps, sinon le corps part en une fois avec son Content-Length. Au-delà de
+ * maxBytes, ou si la requête passe en asynchrone, la réponse est transmise
+ * telle quelle, sans ETag.
+ *
+ * notModified() sert au crochet de version du contrôleur : l'ETag (et
+ * Last-Modified) sont calculés depuis la version, avant toute sérialisation.
+ */
+public final class ETagResponse extends HttpServletResponseWrapper {
+
+    private static final int BUFFERING = 0, PASSTHROUGH = 1, FINISHED = 2;
+    private static final long SEED = 0x45546167L; // "ETag"
+
+    private final HttpServletRequest request;
+    private final int maxBytes;
+    private int state = BUFFERING;
+    private byte[] body = new byte[1024];
+    private int count;
+    private ServletOutputStream stream;
+    private PrintWriter writer;
+
+    public ETagResponse(HttpServletResponse response, HttpServletRequest request, int maxBytes) {
+        super(response);
+        this.request = request;
+        this.maxBytes = maxBytes;
+    }
+
+    // ------------------------------
+    // 🔹 1. FIN DE LA RÉPONSE
+    // ------------------------------
+
+    /** Calcule l'ETag du corps gardé, puis envoie 304 ou le corps. Sans effet après un passage direct. */
+    public void finish() throws IOException {
+        if (writer != null) writer.flush();
+        if (state != BUFFERING) return;
+        state = FINISHED;
+
+        if (getStatus() == HttpServletResponse.SC_OK) {
+            String tag = weakTag(XxHash64.hash(body, 0, count, SEED));
+            super.setHeader("ETag", tag);
+            if (matches(request.getHeader("If-None-Match"), tag)) {
+                super.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                body = null;
+                return;
+            }
+        }
+        super.setContentLength(count);
+        if (count > 0) super.getOutputStream().write(body, 0, count);
+        body = null;
+    }
+
+    /** Passage direct (ex. requête devenue asynchrone) : le corps n'est plus gardé ni haché. */
+    public static void bypass(ServletResponse response) throws IOException {
+        while (response instanceof ServletResponseWrapper wrapper) {
+            if (response instanceof ETagResponse etag) {
+                etag.spill();
+                return;
+            }
+            response = wrapper.getResponse();
+        }
+    }
+
+    private void spill() throws IOException {
+        if (state != BUFFERING) return;
+        state = PASSTHROUGH;
+        if (count > 0) super.getOutputStream().write(body, 0, count);
+        body = null;
+    }
+
+    private void append(byte[] b, int off, int len) throws IOException {
+        if (state != BUFFERING) {
+            super.getOutputStream().write(b, off, len);
+            return;
+        }
+        if (count + len > maxBytes) {
+            // Trop gros pour être gardé : envoyé au fil de l'eau, sans ETag
+            spill();
+            super.getOutputStream().write(b, off, len);
+            return;
+        }
+        if (count + len > body.length) {
+            body = Arrays.copyOf(body, Math.min(maxBytes, Math.max(body.length * 2, count + len)));
+        }
+        System.arraycopy(b, off, body, count, len);
+        count += len;
+    }
+
+    // ------------------------------
+    // 🔹 2. VERSION FOURNIE PAR LE CONTRÔLEUR
+    // ------------------------------
+
+    /**
+     * Pose ETag (et Last-Modified pour une date) depuis la version de la
+     * ressource. @return true si le client est à jour : statut 304 posé, la
+     * route ne doit pas être appelée.
+     *
+     * @param variant représentation négociée (format JSON / CBOR), dans l'ETag
+     */
+    public static boolean notModified(HttpServletRequest request, HttpServletResponse response,
+        Object version, String variant) {
+        if (version == null) return false;
+        Instant modified = lastModified(version);
+        String key = (modified != null ? Long.toString(modified.getEpochSecond()) : version.toString()) + '\n' + variant;
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        String tag = weakTag(XxHash64.hash(bytes, 0, bytes.length, SEED));
+
+        response.setHeader("ETag", tag);
+        if (modified != null) response.setDateHeader("Last-Modified", modified.getEpochSecond() * 1000);
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        boolean fresh;
+        if (ifNoneMatch != null) {
+            fresh = matches(ifNoneMatch, tag);
+        } else {
+            // If-Modified-Since n'est consulté qu'en l'absence d'If-None-Match
+            long since = ifModifiedSince(request);
+            fresh = modified != null && since >= 0 && modified.getEpochSecond() <= since / 1000;
+        }
+        if (fresh) response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        return fresh;
+    }
+
+    private static Instant lastModified(Object version) {
+        if (version instanceof Instant instant) return instant;
+        if (version instanceof Date date) return date.toInstant();
+        if (version instanceof TemporalAccessor temporal && temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+            return Instant.from(temporal);
+        }
+        return null;
+    }
+
+    private static long ifModifiedSince(HttpServletRequest request) {
+        try {
+            return request.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return -1; // date illisible : ignorée
+        }
+    }
+
+    private static String weakTag(long hash) {
+        String hex = Long.toHexString(hash);
+        return "W/\"" + "0".repeat(16 - hex.length()) + hex + '"';
+    }
+
+    // Comparaison faible : W/ ignoré, "*" accepte tout
+    static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) return false;
+        String opaque = tag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*")) return true;
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals(opaque)) return true;
+        }
+        return false;
+    }
+
+    // ------------------------------
+    // 🔹 3. API DE LA RÉPONSE
+    // ------------------------------
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) throw new IllegalStateException("getWriter() déjà appelé");
+        if (stream == null) {
+            stream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    append(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    append(b, off, len);
+                }
+
+                // Tant que le corps est gardé, flush() ne l'envoie pas
+                @Override
+                public void flush() throws IOException {
+                    if (state == PASSTHROUGH) ETagResponse.super.getOutputStream().flush();
+                }
+
+                // Fin du forward vers une JSP : fermeture par le conteneur
+                @Override
+                public void close() throws IOException {
+                    finish();
+                    ETagResponse.super.getOutputStream().close();
+                }
+
+                @Override public boolean isReady() { return true; }
+                @Override public void setWriteListener(WriteListener listener) {
+                    throw new IllegalStateException("Écriture non bloquante non prise en charge");
+                }
+            };
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) throw new IllegalStateException("getOutputStream() déjà appelé");
+            String encoding = getCharacterEncoding();
+            ServletOutputStream out = getOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(out, encoding == null ? "UTF-8" : encoding));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) writer.flush();
+        if (state == PASSTHROUGH) super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (state == BUFFERING) count = 0;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (state == BUFFERING) count = 0;
+    }
+
+    // La longueur est celle du corps gardé, posée par finish()
+    @Override
+    public void setContentLength(int length) {
+        if (state != BUFFERING) super.setContentLength(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        if (state != BUFFERING) super.setContentLengthLong(length);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (state == BUFFERING && "Content-Length".equalsIgnoreCase(name)) return;
+        super.setHeader(name, value);
+    }
+}
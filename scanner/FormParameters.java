@@ -0,0 +1,435 @@
+package framework.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletRequest;
+import framework.utils.RequestBodyException;
+
+/**
+ * Paramètres de la requête (query string + corps urlencoded) lus par le
+ * framework au lieu de request.getParameterMap().
+ *
+ * Les octets bruts sont parcourus une seule fois : on ne garde que la position
+ * de chaque clé et de chaque valeur, avec le hash de la clé décodée dans une
+ * petite table d'adressage ouvert. Une valeur n'est décodée (%XX, '+') que si
+ * elle est demandée, et le parcours par préfixe ("emp.", "es[") compare les
+ * clés directement dans les octets, sans créer de String pour celles qui ne
+ * correspondent pas.
+ *
+ * Les requêtes multipart, ou dont le corps a déjà été lu par le conteneur,
+ * retombent sur le parameterMap du conteneur.
+ *
+ * Limites (comme maxPostSize / maxParameterCount de Tomcat) : corps de 2 Mo
+ * et 1000 paramètres par défaut, réglables par formMaxBytes et
+ * formMaxParameters (-1 : illimité). Le hash des clés est tiré d'une graine
+ * aléatoire : des clés choisies pour entrer en collision (comme "Aa" / "BB"
+ * avec String.hashCode) ne dégradent pas la table.
+ */
+public final class FormParameters {
+
+    public static final String ATTRIBUTE = "framework.form";
+    private static final int SEED = new SecureRandom().nextInt();
+    private static final String[] NO_VALUES = new String[0];
+    private static final byte[] HEX = new byte[256]; // valeur d'un chiffre hexadécimal, -1 sinon
+
+    private static volatile long maxBodyBytes = 2L * 1024 * 1024; // même défaut que maxPostSize de Tomcat
+    private static volatile int maxParameters = 1000;             // même défaut que maxParameterCount
+
+    static {
+        Arrays.fill(HEX, (byte) -1);
+        for (int c = '0'; c <= '9'; c++) HEX[c] = (byte) (c - '0');
+        for (int c = 'a'; c <= 'f'; c++) HEX[c] = HEX[c - 32] = (byte) (c - 'a' + 10);
+    }
+
+    private final byte[] data;
+    private final Charset charset;
+    private final int count;
+    private final int[] keyStart;
+    private final int[] keyEnd;   // fin de la clé ; data[keyEnd] == '=' si une valeur suit
+    private final int[] valueEnd;
+    private final int[] hashes;
+    private final int[] nextSame; // entrée suivante avec la même clé, -1 sinon
+    private final int[] lastSame; // pour une première occurrence : dernière entrée de sa chaîne
+    private final boolean[] first; // première occurrence de sa clé
+    private final int[] table;    // hash → première entrée (+1), 0 = vide
+
+    private final Map<String, String[]> containerMap; // mode repli (multipart...)
+    private Map<String, String[]> map;
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(String key, String[] values) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface KeyFilter {
+        boolean accept(String key);
+    }
+
+    public static long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public static void setMaxBodyBytes(long maxBytes) {
+        maxBodyBytes = maxBytes;
+    }
+
+    public static int getMaxParameters() {
+        return maxParameters;
+    }
+
+    public static void setMaxParameters(int max) {
+        maxParameters = max;
+    }
+
+    // ------------------------------
+    // 🔹 1. CRÉATION
+    // ------------------------------
+
+    /** Paramètres de la requête, analysés au premier appel puis gardés en attribut. */
+    public static FormParameters of(HttpServletRequest request) throws IOException {
+        Object cached = request.getAttribute(ATTRIBUTE);
+        if (cached instanceof FormParameters form) return form;
+
+        FormParameters form = read(request);
+        request.setAttribute(ATTRIBUTE, form);
+        return form;
+    }
+
+    private static FormParameters read(HttpServletRequest request) throws IOException {
+        String query = request.getQueryString();
+        byte[] body = null;
+        Charset charset = StandardCharsets.UTF_8;
+
+        String contentType = request.getContentType();
+        if (contentType != null && "POST".equals(request.getMethod())) {
+            String type = contentType.toLowerCase();
+            if (type.startsWith("multipart/")) {
+                return new FormParameters(request.getParameterMap());
+            }
+            if (type.startsWith("application/x-www-form-urlencoded")) {
+                charset = bodyCharset(request.getCharacterEncoding());
+                long max = maxBodyBytes < 0 ? Integer.MAX_VALUE - 9 : Math.min(maxBodyBytes, Integer.MAX_VALUE - 9);
+                long length = request.getContentLengthLong();
+                if (length > max) throw new RequestBodyException(413, "Formulaire trop volumineux");
+                try (InputStream in = request.getInputStream()) {
+                    body = in.readNBytes((int) max + 1);
+                }
+                if (body.length > max) throw new RequestBodyException(413, "Formulaire trop volumineux");
+                // Corps déjà consommé (getParameter appelé par un filtre) : le conteneur a les valeurs
+                if (body.length == 0 && length > 0) return new FormParameters(request.getParameterMap());
+            }
+        }
+        return parse(query, body, charset);
+    }
+
+    /** Paramètres de la seule query string (serveur sans décodage propre des formulaires). */
+    public static FormParameters ofQuery(String query) {
+        return parse(query, null, StandardCharsets.UTF_8);
+    }
+
+    /** Charset déclaré du corps (UTF-8 par défaut) ; inconnu ou invalide : 400 */
+    static Charset bodyCharset(String encoding) {
+        if (encoding == null) return StandardCharsets.UTF_8;
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException e) { // UnsupportedCharsetException, IllegalCharsetNameException
+            throw new RequestBodyException(400, "Encodage de caractères inconnu : " + encoding);
+        }
+    }
+
+    // La query string est toujours en UTF-8 (RFC 3986) ; un corps dans un autre
+    // charset est d'abord ré-encodé en UTF-8, pour un seul décodage sur tout le tableau
+    static FormParameters parse(String query, byte[] body, Charset bodyCharset) {
+        byte[] q = query == null ? new byte[0] : query.getBytes(StandardCharsets.UTF_8);
+        if (body != null && body.length > 0 && !StandardCharsets.UTF_8.equals(bodyCharset)) {
+            body = toUtf8(new FormParameters(body, bodyCharset));
+        }
+        if (body == null || body.length == 0) return new FormParameters(q, StandardCharsets.UTF_8);
+        if (q.length == 0) return new FormParameters(body, StandardCharsets.UTF_8);
+
+        byte[] data = Arrays.copyOf(q, q.length + 1 + body.length);
+        data[q.length] = '&';
+        System.arraycopy(body, 0, data, q.length + 1, body.length);
+        return new FormParameters(data, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toUtf8(FormParameters form) {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, String[]> entry : form.toMap().entrySet()) {
+            String key = URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8);
+            for (String value : entry.getValue()) {
+                if (out.length() > 0) out.append('&');
+                out.append(key).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+            }
+        }
+        return out.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private FormParameters(Map<String, String[]> containerMap) {
+        this.data = null;
+        this.charset = null;
+        this.count = 0;
+        this.keyStart = this.keyEnd = this.valueEnd = this.hashes = this.nextSame = this.lastSame = this.table = null;
+        this.first = null;
+        this.containerMap = containerMap;
+    }
+
+    // ------------------------------
+    // 🔹 2. INDEXATION DES OCTETS
+    // ------------------------------
+    private FormParameters(byte[] data, Charset charset) {
+        this.data = data;
+        this.charset = charset;
+        this.containerMap = null;
+
+        // Segments avec une clé : premier octet ni '&' ni '=' ("a=1&&=2" : 1)
+        int pairs = 0;
+        for (int i = 0; i < data.length; i++) {
+            if ((i == 0 || data[i - 1] == '&') && data[i] != '&' && data[i] != '=') pairs++;
+        }
+        int max = maxParameters;
+        if (max >= 0 && pairs > max) throw new RequestBodyException(400, "Trop de paramètres (" + max + " au plus)");
+        pairs = Math.max(pairs, 1);
+
+        keyStart = new int[pairs];
+        keyEnd = new int[pairs];
+        valueEnd = new int[pairs];
+        hashes = new int[pairs];
+        nextSame = new int[pairs];
+        lastSame = new int[pairs];
+        first = new boolean[pairs];
+        table = new int[Integer.highestOneBit(pairs * 2 - 1) << 1];
+
+        int n = 0;
+        int pos = 0;
+        while (pos <= data.length) {
+            int end = pos;
+            while (end < data.length && data[end] != '&') end++;
+            if (end > pos) { // "a=1&&b=2" : segments vides ignorés
+                int eq = pos;
+                while (eq < end && data[eq] != '=') eq++;
+                if (eq > pos) {
+                    keyStart[n] = pos;
+                    keyEnd[n] = eq;
+                    valueEnd[n] = end;
+                    nextSame[n] = -1;
+                    hashes[n] = hash(pos, eq);
+                    link(n);
+                    n++;
+                }
+            }
+            pos = end + 1;
+        }
+        count = n;
+    }
+
+    // Chaîne les occurrences d'une même clé ; la table ne garde que la première
+    private void link(int entry) {
+        int mask = table.length - 1;
+        int slot = spread(hashes[entry]) & mask;
+        while (table[slot] != 0) {
+            int head = table[slot] - 1;
+            if (hashes[head] == hashes[entry] && sameKey(head, entry)) {
+                nextSame[lastSame[head]] = entry; // ajout en fin de chaîne sans la parcourir
+                lastSame[head] = entry;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry + 1;
+        first[entry] = true;
+        lastSame[entry] = entry;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    // Hash des octets décodés (même calcul que find() pour un nom), FNV-1a depuis la graine
+    private int hash(int from, int to) {
+        int h = SEED;
+        for (int i = from; i < to; ) {
+            int b = data[i] & 0xFF;
+            if (b == '%' || b == '+') {
+                long d = decodeAt(i, to);
+                b = (int) (d & 0xFF);
+                i = (int) (d >>> 8);
+            } else {
+                i++;
+            }
+            h = (h ^ b) * 0x01000193;
+        }
+        return h;
+    }
+
+    private boolean sameKey(int a, int b) {
+        int i = keyStart[a], ie = keyEnd[a];
+        int j = keyStart[b], je = keyEnd[b];
+        while (i < ie && j < je) {
+            long x = decodeAt(i, ie);
+            long y = decodeAt(j, je);
+            if ((x & 0xFF) != (y & 0xFF)) return false;
+            i = (int) (x >>> 8);
+            j = (int) (y >>> 8);
+        }
+        return i == ie && j == je;
+    }
+
+    // Octet décodé à la position i : (position suivante << 8) | octet
+    private long decodeAt(int i, int end) {
+        int b = data[i] & 0xFF;
+        if (b == '+') return ((long) (i + 1) << 8) | ' ';
+        if (b == '%' && i + 2 < end) {
+            int hi = HEX[data[i + 1] & 0xFF];
+            int lo = HEX[data[i + 2] & 0xFF];
+            if (hi >= 0 && lo >= 0) return ((long) (i + 3) << 8) | (hi << 4 | lo);
+        }
+        return ((long) (i + 1) << 8) | b; // '%' isolé gardé tel quel
+    }
+
+    // ------------------------------
+    // 🔹 3. LECTURE
+    // ------------------------------
+    public String get(String name) {
+        if (containerMap != null) {
+            String[] values = containerMap.get(name);
+            return values == null || values.length == 0 ? null : values[0];
+        }
+        int entry = find(name);
+        return entry < 0 ? null : value(entry);
+    }
+
+    public String[] getValues(String name) {
+        if (containerMap != null) return containerMap.get(name);
+        int entry = find(name);
+        return entry < 0 ? null : values(entry);
+    }
+
+    /**
+     * Parcourt les clés qui commencent par prefix (une fois par clé distincte) ;
+     * le visiteur reçoit la fin de la clé et ses valeurs décodées.
+     */
+    public void forEachWithPrefix(String prefix, Visitor visitor) throws Exception {
+        if (containerMap != null) {
+            for (Map.Entry<String, String[]> e : containerMap.entrySet()) {
+                if (e.getKey().startsWith(prefix)) visitor.visit(e.getKey().substring(prefix.length()), e.getValue());
+            }
+            return;
+        }
+        byte[] name = ascii(prefix) ? null : prefix.getBytes(charset);
+        for (int i = 0; i < count; i++) {
+            if (!first[i]) continue;
+            int rest = matchPrefix(i, prefix, name);
+            if (rest >= 0) visitor.visit(decode(rest, keyEnd[i]), values(i));
+        }
+    }
+
+    /**
+     * Parcourt les autres clés (celles qui ne commencent pas par prefix) ; les
+     * valeurs ne sont décodées que pour les clés acceptées par le filtre.
+     */
+    public void forEachOther(String prefix, KeyFilter filter, Visitor visitor) throws Exception {
+        if (containerMap != null) {
+            for (Map.Entry<String, String[]> e : containerMap.entrySet()) {
+                if (!e.getKey().startsWith(prefix) && filter.accept(e.getKey())) visitor.visit(e.getKey(), e.getValue());
+            }
+            return;
+        }
+        byte[] name = ascii(prefix) ? null : prefix.getBytes(charset);
+        for (int i = 0; i < count; i++) {
+            if (!first[i] || matchPrefix(i, prefix, name) >= 0) continue;
+            String key = decode(keyStart[i], keyEnd[i]);
+            if (filter.accept(key)) visitor.visit(key, values(i));
+        }
+    }
+
+    /** Toutes les valeurs, décodées (compatibilité avec getParameterMap). */
+    public Map<String, String[]> toMap() {
+        if (containerMap != null) return containerMap;
+        if (map == null) {
+            Map<String, String[]> all = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                if (first[i]) all.put(decode(keyStart[i], keyEnd[i]), values(i));
+            }
+            map = Collections.unmodifiableMap(all);
+        }
+        return map;
+    }
+
+    private int find(String name) {
+        byte[] bytes = ascii(name) ? null : name.getBytes(charset);
+        int h = SEED;
+        if (bytes == null) {
+            for (int i = 0; i < name.length(); i++) h = (h ^ name.charAt(i)) * 0x01000193;
+        } else {
+            for (byte b : bytes) h = (h ^ (b & 0xFF)) * 0x01000193;
+        }
+
+        int mask = table.length - 1;
+        for (int slot = spread(h) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (hashes[entry] == h && matchPrefix(entry, name, bytes) == keyEnd[entry]) return entry;
+        }
+        return -1;
+    }
+
+    // Position (dans data) qui suit le préfixe dans la clé, -1 si la clé ne commence pas par lui
+    private int matchPrefix(int entry, String prefix, byte[] bytes) {
+        int i = keyStart[entry];
+        int end = keyEnd[entry];
+        int length = bytes == null ? prefix.length() : bytes.length;
+        for (int k = 0; k < length; k++) {
+            if (i >= end) return -1;
+            long d = decodeAt(i, end);
+            int expected = bytes == null ? prefix.charAt(k) : bytes[k] & 0xFF;
+            if ((d & 0xFF) != expected) return -1;
+            i = (int) (d >>> 8);
+        }
+        return i;
+    }
+
+    private String value(int entry) {
+        int start = keyEnd[entry] + 1;
+        return start > valueEnd[entry] ? "" : decode(start, valueEnd[entry]);
+    }
+
+    private String[] values(int entry) {
+        int n = 0;
+        for (int e = entry; e >= 0; e = nextSame[e]) n++;
+        String[] values = n == 0 ? NO_VALUES : new String[n];
+        int k = 0;
+        for (int e = entry; e >= 0; e = nextSame[e]) values[k++] = value(e);
+        return values;
+    }
+
+    private String decode(int from, int to) {
+        int i = from;
+        while (i < to && data[i] != '%' && data[i] != '+') i++;
+        if (i == to) return new String(data, from, to - from, charset); // rien à décoder
+
+        byte[] out = new byte[to - from];
+        int n = 0;
+        while (from < to) {
+            long d = decodeAt(from, to);
+            out[n++] = (byte) d;
+            from = (int) (d >>> 8);
+        }
+        return new String(out, 0, n, charset);
+    }
+
+    private static boolean ascii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package framework.scanner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Requête dont les paramètres viennent de FormParameters : le contrôleur,
+ * la clé de ResponseCache et la JSP voient les mêmes valeurs que la liaison
+ * des arguments, sans que le conteneur ne décode tout le formulaire.
+ */
+public final class FormRequest extends HttpServletRequestWrapper {
+
+    private FormParameters form;
+
+    private FormRequest(HttpServletRequest request) {
+        super(request);
+    }
+
+    public static HttpServletRequest wrap(HttpServletRequest request) {
+        return request instanceof FormRequest ? request : new FormRequest(request);
+    }
+
+    // Analyse au premier accès à un paramètre
+    private FormParameters form() {
+        if (form == null) {
+            try {
+                form = FormParameters.of((HttpServletRequest) getRequest());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return form;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        return form().get(name);
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return form().getValues(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return form().toMap();
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(form().toMap().keySet());
+    }
+}
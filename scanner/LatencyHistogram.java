@@ -0,0 +1,72 @@
+package framework.scanner;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme log-linéaire des latences (en nanosecondes), sans verrou.
+ *
+ * Chaque puissance de 2 est découpée en 16 sous-intervalles linéaires
+ * (erreur relative < 6,25 %), de 1 µs à ~70 s. Un enregistrement coûte
+ * quelques décalages de bits et un incrément atomique.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MIN_EXP = 10;  // 2^10 ns ≈ 1 µs : en dessous, premier intervalle
+    private static final int MAX_EXP = 36;  // 2^36 ns ≈ 69 s : au-dessus, dernier intervalle
+    private static final int BUCKETS = (MAX_EXP - MIN_EXP + 1) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+
+    public void record(long nanos) {
+        counts.getAndIncrement(indexOf(nanos));
+        totalNanos.add(nanos);
+    }
+
+    static int indexOf(long nanos) {
+        if (nanos < (1L << MIN_EXP)) return 0;
+        int exp = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exp > MAX_EXP) return BUCKETS - 1;
+        int sub = (int) (nanos >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exp - MIN_EXP) * SUB_COUNT + sub;
+    }
+
+    // Borne haute de l'intervalle : un percentile n'est jamais sous-estimé
+    static long upperBound(int index) {
+        int exp = index / SUB_COUNT + MIN_EXP;
+        int sub = index % SUB_COUNT;
+        return (1L << exp) + ((long) (sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+        return total;
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    /** @param quantile entre 0 et 1 (0.5, 0.99, 0.999...) */
+    public long percentile(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return upperBound(BUCKETS - 1);
+    }
+}
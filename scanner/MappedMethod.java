@@ -2,41 +2,210 @@ package framework.scanner;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import framework.annotation.Async;
+import framework.annotation.Batchable;
+import framework.annotation.Cacheable;
+import framework.annotation.ETag;
 import framework.annotation.Json;
+import framework.annotation.Limit;
+import framework.controllers.Scope;
 
 public class MappedMethod {
     private final Class<?> controllerClass;
     private final Method method;
     private final String urlPattern;
     private final String httpMethod; // "GET", "POST", ou "ALL" si @UrlHandler
+    private final String[] pathVariableNames; // noms des {var} dans l'ordre du pattern
+    private final ArgumentBinder binder;      // plan de liaison compilé au scan
+    private final ControllerInvoker invoker;  // MethodHandle / LambdaMetafactory, sinon réflexion
+
+    private final ControllerProvider provider; // scope du contrôleur (requête, singleton, pool)
+    private final boolean json;
+    private final boolean async;
+    private final boolean batchable; // @Batchable : admise dans un lot
+    private final Cacheable cacheable; // null si la route n'est pas mise en cache
+    private final ETag etag;           // null sans @ETag
+    private final ArgumentBinder versionBinder;     // crochet @ETag(version), null si absent
+    private final ControllerInvoker versionInvoker;
+    private final RouteMetrics metrics = new RouteMetrics();
+    private volatile RouteLimiter limiter; // null : pas de contrôle d'admission
 
     public MappedMethod(Class<?> controllerClass, Method method, String urlPattern, String httpMethod) {
-        this.controllerClass = controllerClass;
+        this(ControllerProvider.of(controllerClass), method, urlPattern, httpMethod);
+    }
+
+    public MappedMethod(ControllerProvider provider, Method method, String urlPattern, String httpMethod) {
+        this.provider = provider;
+        this.controllerClass = provider.getControllerClass();
         this.method = method;
         this.urlPattern = urlPattern;
         this.httpMethod = httpMethod;
+        this.pathVariableNames = parsePathVariableNames(urlPattern, method);
+        this.binder = ArgumentBinder.compile(method, pathVariableNames);
+        this.invoker = ControllerInvoker.compile(controllerClass, method);
+        this.json = method.isAnnotationPresent(Json.class);
+        this.async = method.isAnnotationPresent(Async.class);
+        this.batchable = method.isAnnotationPresent(Batchable.class);
+        this.cacheable = method.getAnnotation(Cacheable.class);
+        this.etag = method.getAnnotation(ETag.class);
+        Method version = etag == null || etag.version().isEmpty() ? null : versionMethod(controllerClass, etag.version());
+        this.versionBinder = version == null ? null : ArgumentBinder.compile(version, pathVariableNames);
+        this.versionInvoker = version == null ? null : ControllerInvoker.compile(controllerClass, version);
+        this.limiter = RouteLimiter.of(method.getAnnotation(Limit.class));
+    }
+
+    private static String[] parsePathVariableNames(String urlPattern, Method method) {
+        List<String> names = new ArrayList<>();
+        try {
+            for (String segment : urlPattern.split("/", -1)) {
+                RouteTable.Variable variable = RouteTable.variable(segment);
+                if (variable != null) names.add(variable.name());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(e.getMessage() + " dans " + urlPattern + " → "
+                    + method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()", e);
+        }
+        return names.toArray(new String[0]);
+    }
+
+    private static Method versionMethod(Class<?> controllerClass, String name) {
+        Method found = null;
+        for (Method candidate : controllerClass.getMethods()) {
+            if (!candidate.getName().equals(name)) continue;
+            if (found != null) {
+                throw new IllegalArgumentException("@ETag(version) ambigu : plusieurs méthodes " + name
+                        + " dans " + controllerClass.getName());
+            }
+            found = candidate;
+        }
+        if (found == null || found.getReturnType() == void.class) {
+            throw new IllegalArgumentException("@ETag(version) : méthode publique " + name
+                    + " introuvable ou void dans " + controllerClass.getName());
+        }
+        return found;
     }
 
     public Class<?> getControllerClass() { return controllerClass; }
     public Method getMethod() { return method; }
     public String getUrlPattern() { return urlPattern; }
     public String getHttpMethod() { return httpMethod; }
+    public String[] getPathVariableNames() { return pathVariableNames; }
+    public ControllerProvider getProvider() { return provider; }
 
     public Object invoke(HttpServletRequest request, String actualPath) throws Exception {
-        Object controller = controllerClass.getDeclaredConstructor().newInstance();
+        return invoke(request, RouteMatch.forPath(this, actualPath));
+    }
 
-        Object[] args = Scanner.mapFormParametersToMethodArgs(
-                method,
-                request,
-                urlPattern,
-                actualPath
-        );
+    // Variante utilisée avec la RouteTable : les variables {var} sont déjà capturées
+    public Object invoke(HttpServletRequest request, RouteMatch match) throws Exception {
+        Object controller = provider.acquire();
+        Runnable release = releaseOnce(controller);
+        Object held = null;
+        try {
+            Object[] args = binder.bind(request, match);
+            Object result = invoker.invoke(controller, args);
+            held = provider.getScope() == Scope.POOLED ? holdUntilDone(result, release) : null;
+            return held != null ? held : result;
+        } finally {
+            if (held == null) release.run();
+        }
+    }
+
+    private Runnable releaseOnce(Object controller) {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) provider.release(controller);
+        };
+    }
+
+    /**
+     * Résultat qui s'exécute encore après le retour de la méthode : l'instance
+     * (poolée, non thread-safe) reste occupée jusqu'à la fin du calcul, de
+     * l'appel du Callable ou de la fermeture du flux par ResultStreamer.
+     * @return le résultat à rendre à la place, null si rien n'est différé
+     */
+    @SuppressWarnings("unchecked")
+    private Object holdUntilDone(Object result, Runnable release) {
+        if (result instanceof CompletionStage<?> stage) {
+            stage.whenComplete((value, error) -> release.run());
+            return stage;
+        }
+        if (result instanceof Callable<?> callable) {
+            return (Callable<Object>) () -> {
+                Object held = null;
+                try {
+                    Object value = callable.call();
+                    held = holdUntilDone(value, release); // Callable qui renvoie un flux
+                    return held != null ? held : value;
+                } finally {
+                    if (held == null) release.run();
+                }
+            };
+        }
+        // Flux d'une route @Json : toujours consommé puis fermé (ResultStreamer, route de lot)
+        if (json && ResultStreamer.isStreamed(result)) return ResultStreamer.onClose(result, release);
+        return null;
+    }
 
-        return method.invoke(controller, args);
+    /**
+     * Version courante de la ressource (crochet @ETag(version)), liée comme
+     * la route : variables {var}, @Param, requête... null sans crochet.
+     */
+    public Object version(HttpServletRequest request, RouteMatch match) throws Exception {
+        if (versionInvoker == null) return null;
+        Object controller = provider.acquire();
+        try {
+            return versionInvoker.invoke(controller, versionBinder.bind(request, match));
+        } finally {
+            provider.release(controller);
+        }
     }
 
     public boolean isJson() {
-        return method.isAnnotationPresent(Json.class);
+        return json;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public boolean isBatchable() {
+        return batchable;
+    }
+
+    public Cacheable getCacheable() {
+        return cacheable;
+    }
+
+    public ETag getETag() {
+        return etag;
+    }
+
+    public boolean hasVersion() {
+        return versionInvoker != null;
+    }
+
+    /** Vue rendue par la route (type de retour ModelView) */
+    public boolean returnsView() {
+        return ModelView.class.isAssignableFrom(method.getReturnType());
+    }
+
+    public RouteMetrics getMetrics() {
+        return metrics;
+    }
+
+    public RouteLimiter getLimiter() {
+        return limiter;
+    }
+
+    // Remplace la limite de l'annotation (fichier limitsFile)
+    public void setLimiter(RouteLimiter limiter) {
+        this.limiter = limiter;
     }
 
     @Override
@@ -0,0 +1,147 @@
+package framework.scanner;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletResponse;
+import framework.controllers.Scope;
+import framework.utils.JsonUtils;
+
+/**
+ * Export des métriques des routes (urlMappings / routesInfo), au format
+ * texte Prometheus ou JSON.
+ */
+public final class MetricsExporter {
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private MetricsExporter() {}
+
+    // ------------------------------
+    // 🔹 1. PROMETHEUS
+    // ------------------------------
+    public static void writePrometheus(Map<String, List<MappedMethod>> routes, HttpServletResponse response)
+            throws IOException {
+        response.setContentType("text/plain; version=0.0.4; charset=UTF-8");
+        PrintWriter out = response.getWriter();
+
+        out.println("# TYPE framework_requests_total counter");
+        forEach(routes, (labels, m) -> out.println("framework_requests_total{" + labels + "} " + m.getRequests()));
+
+        out.println("# TYPE framework_requests_in_flight gauge");
+        forEach(routes, (labels, m) -> out.println("framework_requests_in_flight{" + labels + "} " + m.getInFlight()));
+
+        out.println("# TYPE framework_errors_total counter");
+        forEach(routes, (labels, m) -> m.getErrors().forEach((type, count) ->
+                out.println("framework_errors_total{" + labels + ",type=\"" + escape(type) + "\"} " + count)));
+
+        out.println("# TYPE framework_rejections_total counter");
+        forEach(routes, (labels, m) -> m.getRejections().forEach((reason, count) ->
+                out.println("framework_rejections_total{" + labels + ",reason=\"" + reason + "\"} " + count)));
+
+        out.println("# TYPE framework_concurrency_limit gauge");
+        for (List<MappedMethod> methods : routes.values()) {
+            for (MappedMethod mapped : methods) {
+                RouteLimiter limiter = mapped.getLimiter();
+                if (limiter != null && limiter.getLimit() > 0) {
+                    out.println("framework_concurrency_limit{" + labels(mapped) + "} " + limiter.getLimit());
+                }
+            }
+        }
+
+        out.println("# TYPE framework_request_duration_seconds summary");
+        forEach(routes, (labels, m) -> {
+            LatencyHistogram h = m.getLatency();
+            for (double q : QUANTILES) {
+                out.println("framework_request_duration_seconds{" + labels + ",quantile=\"" + q + "\"} "
+                        + seconds(h.percentile(q)));
+            }
+            out.println("framework_request_duration_seconds_sum{" + labels + "} " + seconds(h.totalNanos()));
+            out.println("framework_request_duration_seconds_count{" + labels + "} " + h.count());
+        });
+
+        out.println("# TYPE framework_controller_instances_total counter");
+        ControllerProvider.instanceCounts().forEach((scope, count) ->
+                out.println("framework_controller_instances_total{scope=\"" + scope + "\"} " + count));
+
+        // Compteurs d'événements du cache ; sa taille est une jauge à part
+        ResponseCache cache = ResponseCache.shared();
+        out.println("# TYPE framework_response_cache_total counter");
+        out.println("framework_response_cache_total{event=\"hits\"} " + cache.getHits());
+        out.println("framework_response_cache_total{event=\"misses\"} " + cache.getMisses());
+        out.println("framework_response_cache_total{event=\"evictions\"} " + cache.getEvictions());
+        out.println("# TYPE framework_response_cache_bytes gauge");
+        out.println("framework_response_cache_bytes " + cache.getSizeBytes());
+        out.flush();
+    }
+
+    // ------------------------------
+    // 🔹 2. JSON
+    // ------------------------------
+    public static void writeJson(Map<String, List<MappedMethod>> routes, HttpServletResponse response)
+            throws IOException {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (List<MappedMethod> methods : routes.values()) {
+            for (MappedMethod mapped : methods) {
+                RouteMetrics m = mapped.getMetrics();
+                LatencyHistogram h = m.getLatency();
+                Map<String, Object> route = new LinkedHashMap<>();
+                route.put("method", mapped.getHttpMethod());
+                route.put("route", mapped.getUrlPattern());
+                route.put("handler", mapped.getControllerClass().getSimpleName() + "." + mapped.getMethod().getName());
+                route.put("requests", m.getRequests());
+                route.put("inFlight", m.getInFlight());
+                route.put("errors", m.getErrors());
+                route.put("rejections", m.getRejections());
+                if (mapped.getLimiter() != null) route.put("concurrencyLimit", mapped.getLimiter().getLimit());
+                route.put("p50Millis", millis(h.percentile(0.5)));
+                route.put("p99Millis", millis(h.percentile(0.99)));
+                route.put("p999Millis", millis(h.percentile(0.999)));
+                list.add(route);
+            }
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("routes", list);
+        Map<String, Long> instances = new LinkedHashMap<>();
+        for (Map.Entry<Scope, Long> e : ControllerProvider.instanceCounts().entrySet()) {
+            instances.put(e.getKey().name(), e.getValue());
+        }
+        body.put("controllerInstances", instances);
+        body.put("responseCache", ResponseCache.shared().stats());
+
+        response.setContentType("application/json;charset=UTF-8");
+        JsonUtils.writeJson(body, response.getOutputStream());
+    }
+
+    private interface RouteVisitor {
+        void visit(String labels, RouteMetrics metrics);
+    }
+
+    private static void forEach(Map<String, List<MappedMethod>> routes, RouteVisitor visitor) {
+        for (List<MappedMethod> methods : routes.values()) {
+            for (MappedMethod mapped : methods) {
+                visitor.visit(labels(mapped), mapped.getMetrics());
+            }
+        }
+    }
+
+    private static String labels(MappedMethod mapped) {
+        return "method=\"" + mapped.getHttpMethod() + "\",route=\"" + escape(mapped.getUrlPattern()) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,51 @@
+package framework.scanner;
+
+import java.util.Locale;
+
+/**
+ * Contrôle des chemins de ressources venant de la requête (getRequestURI est
+ * brut, non normalisé) avant tout accès au disque.
+ *
+ * Un chemin accepté commence par '/', n'a ni segment vide, ni "." ni "..",
+ * ni '\' ni caractère nul : il est déjà sous sa forme normale, et le test
+ * WEB-INF / META-INF porte sur ce que getRealPath() ouvrira réellement
+ * ("/./WEB-INF/web.xml" ou "//WEB-INF/web.xml" sont refusés).
+ */
+public final class PathGuard {
+
+    private PathGuard() {
+    }
+
+    /** @return true si le chemin est déjà normalisé (voir plus haut) */
+    public static boolean isNormalized(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') return false;
+        if (path.indexOf('\\') >= 0 || path.indexOf('\0') >= 0) return false;
+        int start = 1;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) end = path.length();
+            int length = end - start;
+            // Segment vide accepté seulement en fin de chemin ("/dossier/")
+            if (length == 0 && end < path.length()) return false;
+            if (length == 1 && path.charAt(start) == '.') return false;
+            if (length == 2 && path.charAt(start) == '.' && path.charAt(start + 1) == '.') return false;
+            start = end + 1;
+        }
+        return true;
+    }
+
+    /** Premier segment WEB-INF ou META-INF (casse et points / espaces finaux ignorés, cf. Windows). */
+    public static boolean isProtected(String path) {
+        int end = path.indexOf('/', 1);
+        String first = path.substring(1, end < 0 ? path.length() : end).toUpperCase(Locale.ROOT);
+        int last = first.length();
+        while (last > 0 && (first.charAt(last - 1) == '.' || first.charAt(last - 1) == ' ')) last--;
+        first = first.substring(0, last);
+        return first.equals("WEB-INF") || first.equals("META-INF");
+    }
+
+    /** @return true si le chemin peut être servi comme ressource statique publique */
+    public static boolean isPublic(String path) {
+        return isNormalized(path) && !isProtected(path);
+    }
+}
@@ -0,0 +1,356 @@
+package framework.scanner;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.google.gson.annotations.SerializedName;
+import framework.utils.Converter;
+import framework.utils.Converters;
+
+/**
+ * Chemins de propriétés des formulaires ("emp.adresse.ville", "es[0].nom"),
+ * compilés une fois par classe et gardés dans un ClassValue.
+ *
+ * Un chemin compilé est une chaîne de VarHandle (avec le type d'élément des
+ * List<T> et le constructeur des objets intermédiaires). Les indices [n] ne
+ * font pas partie de la clé : "es[0].nom" et "es[7].nom" partagent le même
+ * chemin. Une clé inconnue est gardée comme entrée négative : une recherche
+ * dans une table, aucune exception.
+ *
+ * Les mêmes accès servent en lecture à l'encodage binaire des réponses
+ * (CborEncoder) : serializedFields donne les champs dans l'ordre et sous
+ * les noms qu'utilise Gson.
+ */
+final class PropertyAccessors {
+
+    private static final int MAX_PATHS_PER_CLASS = 1024; // chemins valides gardés (classes récursives : infinis)
+    private static final int[] NO_INDICES = new int[0];
+    private static final PropertyPath UNKNOWN = new PropertyPath(new Step[0], null);
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ClassAccessors> CACHE = new ClassValue<>() {
+        @Override
+        protected ClassAccessors computeValue(Class<?> type) {
+            return new ClassAccessors(type);
+        }
+    };
+
+    private PropertyAccessors() {}
+
+    // ------------------------------
+    // 🔹 1. AFFECTATION D'UNE VALEUR
+    // ------------------------------
+    static void set(Object target, String key, String[] values) {
+        if (target == null || key == null) return;
+        ClassAccessors accessors = CACHE.get(target.getClass());
+
+        try {
+            if (key.indexOf('[') < 0) {
+                accessors.path(key).apply(target, NO_INDICES, values);
+                return;
+            }
+
+            // "es[3].notes[1]" → clé "es[].notes[]" + indices {3, 1}
+            StringBuilder normalized = new StringBuilder(key.length());
+            int[] indices = new int[4];
+            int count = 0;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                normalized.append(c);
+                if (c != '[') continue;
+
+                int end = key.indexOf(']', i + 1);
+                if (end < 0) return;
+                int index = parseIndex(key, i + 1, end);
+                if (index < 0) return;
+                if (count == indices.length) indices = Arrays.copyOf(indices, count * 2);
+                indices[count++] = index;
+                normalized.append(']');
+                i = end;
+            }
+            accessors.path(normalized.toString()).apply(target, indices, values);
+        } catch (Throwable t) {
+            if (t instanceof Error) throw (Error) t;
+            t.printStackTrace();
+        }
+    }
+
+    /** @return true si la clé correspond à un chemin connu de la classe (entrée du cache) */
+    static boolean isKnown(Class<?> type, String key) {
+        if (key.indexOf('[') < 0) return CACHE.get(type).path(key).leaf != null;
+
+        StringBuilder normalized = new StringBuilder(key.length());
+        boolean inIndex = false;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '[') inIndex = true;
+            else if (c == ']') inIndex = false;
+            else if (inIndex) continue;
+            normalized.append(c);
+        }
+        return CACHE.get(type).path(normalized.toString()).leaf != null;
+    }
+
+    /**
+     * Champs écrits par Gson pour cette classe : ni static, ni transient, ni
+     * synthétiques, nom de @SerializedName ; la classe puis ses superclasses.
+     */
+    static SerializedField[] serializedFields(Class<?> type) {
+        return CACHE.get(type).serializedFields();
+    }
+
+    static final class SerializedField {
+        final String name;
+        private final MethodHandle getter;
+
+        SerializedField(String name, MethodHandle getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+
+        Object get(Object target) throws Throwable {
+            return (Object) getter.invokeExact(target);
+        }
+    }
+
+    // Entier positif sans exception ; -1 si la syntaxe est invalide ou l'indice hors de la taille maximale
+    private static int parseIndex(String s, int from, int to) {
+        if (from == to || to - from > 9) return -1;
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value < ArgumentBinder.getMaxListSize() ? value : -1;
+    }
+
+    // ------------------------------
+    // 🔹 2. CHEMIN COMPILÉ
+    // ------------------------------
+    private static final class PropertyPath {
+        private final Step[] steps;  // objets intermédiaires, vide si le chemin est inconnu
+        private final FieldAccess leaf; // null → chemin inconnu
+
+        PropertyPath(Step[] steps, FieldAccess leaf) {
+            this.steps = steps;
+            this.leaf = leaf;
+        }
+
+        @SuppressWarnings("unchecked")
+        void apply(Object target, int[] indices, String[] values) throws Throwable {
+            if (leaf == null) return;
+
+            Object current = target;
+            for (Step step : steps) {
+                Object next = step.field.get(current);
+                if (step.indexSlot >= 0) {
+                    if (step.indexSlot >= indices.length) return;
+                    List<Object> list = (List<Object>) next;
+                    if (list == null) {
+                        if (step.field.setter == null) return;
+                        list = new ArrayList<>();
+                        step.field.set(current, list);
+                    }
+                    int index = indices[step.indexSlot];
+                    while (list.size() <= index) {
+                        list.add(step.factory.create());
+                    }
+                    next = list.get(index);
+                } else if (next == null) {
+                    if (step.field.setter == null) return;
+                    next = step.factory.create();
+                    step.field.set(current, next);
+                }
+                current = next;
+            }
+
+            if (leaf.setter == null) return;
+            Object converted = null;
+            if (values != null && values.length > 0) {
+                if (values.length > 1 && leaf.type.isAssignableFrom(List.class))
+                    converted = Arrays.asList(values);
+                else
+                    converted = values[0] == null ? null : leaf.converter.convert(values[0]);
+            }
+            if (converted == null && leaf.type.isPrimitive()) return; // valeur absente ou invalide : défaut conservé
+            leaf.set(current, converted);
+        }
+    }
+
+    private static final class Step {
+        final FieldAccess field;
+        final ControllerProvider.Factory factory; // objet intermédiaire ou élément de la liste
+        final int indexSlot;                       // position dans les indices, -1 si pas une liste
+
+        Step(FieldAccess field, ControllerProvider.Factory factory, int indexSlot) {
+            this.field = field;
+            this.factory = factory;
+            this.indexSlot = indexSlot;
+        }
+    }
+
+    // ------------------------------
+    // 🔹 3. CACHE PAR CLASSE
+    // ------------------------------
+    private static final class ClassAccessors {
+        private final Class<?> type;
+        private final Map<String, FieldAccess> fields;
+        private final Map<String, PropertyPath> paths = new ConcurrentHashMap<>();
+        private volatile SerializedField[] serialized;
+
+        ClassAccessors(Class<?> type) {
+            this.type = type;
+            this.fields = fieldsOf(type);
+        }
+
+        SerializedField[] serializedFields() {
+            SerializedField[] result = serialized;
+            if (result == null) {
+                List<SerializedField> all = new ArrayList<>();
+                for (Class<?> c = type; c != null && c != Object.class && bindable(c); c = c.getSuperclass()) {
+                    for (FieldAccess field : (c == type ? fields : CACHE.get(c).fields).values()) {
+                        if (!field.isTransient) all.add(new SerializedField(field.jsonName, field.getter));
+                    }
+                }
+                serialized = result = all.toArray(new SerializedField[0]);
+            }
+            return result;
+        }
+
+        // Seuls les chemins valides sont gardés : les clés inconnues viennent du client
+        // (nombre illimité) et échouent dès le premier champ absent, sans coût notable
+        PropertyPath path(String key) {
+            PropertyPath path = paths.get(key);
+            if (path != null) return path;
+            path = compile(key);
+            if (path != UNKNOWN && paths.size() < MAX_PATHS_PER_CLASS) paths.putIfAbsent(key, path);
+            return path;
+        }
+
+        private PropertyPath compile(String key) {
+            String[] parts = key.split("\\.", -1);
+            Step[] steps = new Step[parts.length - 1];
+            Class<?> owner = type;
+            int slot = 0;
+
+            for (int i = 0; i < parts.length; i++) {
+                String part = parts[i];
+                boolean indexed = part.endsWith("[]");
+                String name = indexed ? part.substring(0, part.length() - 2) : part;
+
+                FieldAccess field = owner == type ? fields.get(name) : CACHE.get(owner).fields.get(name);
+                if (field == null) return UNKNOWN;
+
+                if (i == parts.length - 1) {
+                    return new PropertyPath(steps, field);
+                }
+
+                if (List.class.isAssignableFrom(field.type)) {
+                    Class<?> elementType = elementType(field.genericType);
+                    if (!indexed || elementType == null || !bindable(elementType)) return UNKNOWN;
+                    steps[i] = new Step(field, ControllerProvider.compileFactory(elementType), slot++);
+                    owner = elementType;
+                } else {
+                    if (!bindable(field.type)) return UNKNOWN;
+                    steps[i] = new Step(field, ControllerProvider.compileFactory(field.type), -1);
+                    owner = field.type;
+                }
+                if (indexed && steps[i].indexSlot < 0) slot++; // indice ignoré sur un objet simple
+            }
+            return UNKNOWN;
+        }
+    }
+
+    // Seules les classes applicatives sont parcourues (pas String, Integer, java.util...)
+    private static boolean bindable(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && !type.isInterface() && type.getClassLoader() != null;
+    }
+
+    private static Class<?> elementType(Type generic) {
+        if (!(generic instanceof ParameterizedType)) return null;
+        Type arg = ((ParameterizedType) generic).getActualTypeArguments()[0];
+        return arg instanceof Class ? (Class<?>) arg : null;
+    }
+
+    // ------------------------------
+    // 🔹 4. ACCÈS À UN CHAMP
+    // ------------------------------
+    private static final class FieldAccess {
+        final Class<?> type;
+        final Type genericType;
+        final Converter<?> converter;
+        final String jsonName;     // nom écrit par Gson (@SerializedName)
+        final boolean isTransient;
+        final MethodHandle getter; // (Object)Object
+        final MethodHandle setter; // (Object,Object)void, null si le champ est final
+
+        FieldAccess(Field field, MethodHandle getter, MethodHandle setter) {
+            this.type = field.getType();
+            this.genericType = field.getGenericType();
+            this.converter = Converters.forType(type);
+            SerializedName serializedName = field.getAnnotation(SerializedName.class);
+            this.jsonName = serializedName != null ? serializedName.value() : field.getName();
+            this.isTransient = Modifier.isTransient(field.getModifiers());
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        Object get(Object target) throws Throwable {
+            return (Object) getter.invokeExact(target);
+        }
+
+        void set(Object target, Object value) throws Throwable {
+            setter.invokeExact(target, value);
+        }
+    }
+
+    private static Map<String, FieldAccess> fieldsOf(Class<?> type) {
+        Map<String, FieldAccess> fields = new LinkedHashMap<>(); // ordre de déclaration (sérialisation)
+        if (!bindable(type)) return fields;
+
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException | RuntimeException e) {
+            lookup = null;
+        }
+
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) continue;
+            boolean isFinal = Modifier.isFinal(field.getModifiers());
+            try {
+                MethodHandle getter;
+                MethodHandle setter = null;
+                if (lookup != null) {
+                    VarHandle handle = lookup.unreflectVarHandle(field);
+                    getter = handle.toMethodHandle(VarHandle.AccessMode.GET);
+                    if (!isFinal) setter = handle.toMethodHandle(VarHandle.AccessMode.SET);
+                } else {
+                    // Accès privé refusé : réflexion classique convertie en MethodHandle
+                    field.setAccessible(true);
+                    getter = MethodHandles.lookup().unreflectGetter(field);
+                    if (!isFinal) setter = MethodHandles.lookup().unreflectSetter(field);
+                }
+                fields.put(field.getName(), new FieldAccess(field,
+                        getter.asType(GETTER_TYPE), setter == null ? null : setter.asType(SETTER_TYPE)));
+            } catch (IllegalAccessException | RuntimeException e) {
+                // Champ inaccessible : traité comme inconnu
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,217 @@
+package framework.scanner;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import framework.annotation.Cacheable;
+
+/**
+ * Cache des réponses des routes @Cacheable : octets sérialisés + content-type.
+ *
+ * Borné en octets, découpé en segments (chacun une LinkedHashMap en ordre
+ * d'accès protégée par son propre verrou) : éviction LRU par taille dans
+ * chaque segment, expiration par TTL. Un hit évite tout MappedMethod.invoke.
+ *
+ * Les contrôleurs invalident après une écriture :
+ *   ResponseCache.shared().invalidate("/produits");
+ */
+public final class ResponseCache {
+
+    private static final int SEGMENTS = 16;
+    private static final char SEPARATOR = '\n';
+
+    private static volatile ResponseCache shared = new ResponseCache(32L * 1024 * 1024);
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int maxEntryBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache(long maxBytes) {
+        long perSegment = Math.max(1, maxBytes / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment(perSegment);
+        this.maxEntryBytes = (int) Math.min(Integer.MAX_VALUE - 8, perSegment / 4);
+    }
+
+    public static ResponseCache shared() {
+        return shared;
+    }
+
+    public static void install(ResponseCache cache) {
+        shared = cache;
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    // ------------------------------
+    // 🔹 1. CLÉ, LECTURE, ÉCRITURE
+    // ------------------------------
+
+    // Clé : chemin (qui contient déjà les variables {var}) + paramètres listés dans @Cacheable
+    public static String key(String path, HttpServletRequest request, Cacheable cacheable) {
+        return key(path, request, cacheable, null);
+    }
+
+    /** variant : représentation négociée (ex. "CBOR"), null pour la représentation par défaut */
+    public static String key(String path, HttpServletRequest request, Cacheable cacheable, String variant) {
+        String[] params = cacheable.params();
+        if (params.length == 0 && variant == null) return path;
+
+        StringBuilder key = new StringBuilder(path.length() + 32).append(path).append(SEPARATOR);
+        for (String name : params) {
+            String value = request.getParameter(name);
+            key.append(name).append('=');
+            if (value != null) key.append(value);
+            key.append('&');
+        }
+        if (variant != null) key.append('#').append(variant);
+        return key.toString();
+    }
+
+    /** Écrit la réponse en cache si elle existe et n'a pas expiré. */
+    public boolean serve(String key, HttpServletResponse response) throws IOException {
+        Entry entry = segmentFor(key).get(key, System.nanoTime());
+        if (entry == null) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        if (entry.contentType != null) response.setContentType(entry.contentType);
+        response.setContentLength(entry.body.length);
+        response.getOutputStream().write(entry.body);
+        return true;
+    }
+
+    public void put(String key, String contentType, byte[] body, int ttlSeconds) {
+        if (body == null || body.length > maxEntryBytes || ttlSeconds <= 0) return;
+        long expiresAt = System.nanoTime() + ttlSeconds * 1_000_000_000L;
+        segmentFor(key).put(key, new Entry(contentType, body, expiresAt));
+    }
+
+    // ------------------------------
+    // 🔹 2. INVALIDATION
+    // ------------------------------
+
+    /** Supprime toutes les variantes (paramètres) d'un chemin exact. */
+    public void invalidate(String path) {
+        for (Segment segment : segments) segment.removeIf(path, false);
+    }
+
+    /** Supprime toutes les entrées dont le chemin commence par ce préfixe. */
+    public void invalidatePrefix(String prefix) {
+        for (Segment segment : segments) segment.removeIf(prefix, true);
+    }
+
+    public void invalidateAll() {
+        for (Segment segment : segments) segment.clear();
+    }
+
+    // ------------------------------
+    // 🔹 3. STATISTIQUES
+    // ------------------------------
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+
+    public long getSizeBytes() {
+        long total = 0;
+        for (Segment segment : segments) total += segment.bytes();
+        return total;
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", getHits());
+        stats.put("misses", getMisses());
+        stats.put("evictions", getEvictions());
+        stats.put("bytes", getSizeBytes());
+        return stats;
+    }
+
+    private Segment segmentFor(String key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Entry {
+        final String contentType;
+        final byte[] body;
+        final long expiresAt;
+
+        Entry(String contentType, byte[] body, long expiresAt) {
+            this.contentType = contentType;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        int weight() {
+            return body.length + 64;
+        }
+    }
+
+    private final class Segment {
+        private final long maxBytes;
+        private final LinkedHashMap<String, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes;
+
+        Segment(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized Entry get(String key, long now) {
+            Entry entry = map.get(key);
+            if (entry == null) return null;
+            if (now - entry.expiresAt >= 0) {
+                map.remove(key);
+                bytes -= entry.weight();
+                return null;
+            }
+            return entry;
+        }
+
+        synchronized void put(String key, Entry entry) {
+            Entry previous = map.put(key, entry);
+            if (previous != null) bytes -= previous.weight();
+            bytes += entry.weight();
+
+            // LRU par taille : on retire les plus anciennes jusqu'à repasser sous la limite
+            Iterator<Entry> eldest = map.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Entry victim = eldest.next();
+                eldest.remove();
+                bytes -= victim.weight();
+                evictions.increment();
+            }
+        }
+
+        synchronized void removeIf(String path, boolean prefix) {
+            Iterator<Map.Entry<String, Entry>> it = map.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Entry> e = it.next();
+                String key = e.getKey();
+                int end = key.indexOf(SEPARATOR);
+                String keyPath = end < 0 ? key : key.substring(0, end);
+                if (prefix ? keyPath.startsWith(path) : keyPath.equals(path)) {
+                    it.remove();
+                    bytes -= e.getValue().weight();
+                }
+            }
+        }
+
+        synchronized void clear() {
+            map.clear();
+            bytes = 0;
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package framework.scanner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Deflater;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Compression gzip / deflate des réponses des routes, négociée avec
+ * Accept-Encoding. Réglages : seuil minimal (en dessous, la réponse part
+ * telle quelle), types de contenu compressibles et niveau de compression.
+ *
+ * Les Deflater (mémoire native) sont réutilisés : pool borné par format,
+ * partagé par tous les threads (y compris virtuels, un par requête : un
+ * ThreadLocal y créerait un Deflater par requête, jamais libéré par end()).
+ * Un Deflater rendu à un pool plein est libéré aussitôt.
+ */
+public final class ResponseCompression {
+
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    public static final Set<String> DEFAULT_TYPES = Set.of(
+            "text/html", "text/plain", "text/css", "text/xml", "text/csv", "text/javascript",
+            "application/json", "application/cbor", "application/x-ndjson", "application/javascript",
+            "application/xml", "image/svg+xml");
+
+    private static final int POOL_SIZE = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final boolean enabled;
+    private final int level;
+    private final int minBytes;
+    private final Set<String> types;
+    // [0] : gzip (deflate brut, en-tête écrit par CompressingResponse), [1] : deflate (format zlib)
+    private final List<ArrayBlockingQueue<Deflater>> idle =
+            List.of(new ArrayBlockingQueue<>(POOL_SIZE), new ArrayBlockingQueue<>(POOL_SIZE));
+
+    public ResponseCompression(boolean enabled, int level, int minBytes, Set<String> types) {
+        this.enabled = enabled;
+        this.level = Math.max(Deflater.BEST_SPEED, Math.min(Deflater.BEST_COMPRESSION, level));
+        this.minBytes = Math.max(0, minBytes);
+        this.types = types;
+    }
+
+    /** "text/html, application/json" → ensemble des types (null ou vide : types par défaut) */
+    public static Set<String> parseTypes(String list) {
+        if (list == null || list.isBlank()) return DEFAULT_TYPES;
+        return Set.copyOf(Arrays.asList(list.toLowerCase(Locale.ROOT).trim().split("\\s*,\\s*")));
+    }
+
+    public int getMinBytes() {
+        return minBytes;
+    }
+
+    // ------------------------------
+    // 🔹 1. NÉGOCIATION
+    // ------------------------------
+
+    /** @return la réponse à utiliser : enveloppée si le client accepte gzip ou deflate */
+    public HttpServletResponse wrap(HttpServletRequest request, HttpServletResponse response) {
+        if (!enabled || "HEAD".equals(request.getMethod())) return response;
+        String encoding = negotiate(request.getHeader("Accept-Encoding"));
+        return encoding == null ? response : new CompressingResponse(response, this, encoding);
+    }
+
+    /** gzip de préférence, puis deflate ; q=0 exclut un codage */
+    static String negotiate(String acceptEncoding) {
+        double[] q = weights(acceptEncoding);
+        if (q[0] > 0 && q[0] >= q[1]) return GZIP;
+        return q[1] > 0 ? DEFLATE : null;
+    }
+
+    /** gzip acceptable (q > 0), même si deflate est préféré : variante gzip déjà prête des fichiers statiques */
+    static boolean acceptsGzip(String acceptEncoding) {
+        return weights(acceptEncoding)[0] > 0;
+    }
+
+    // Poids {gzip, deflate} de l'en-tête ; "*" vaut pour un codage non cité
+    private static double[] weights(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) return new double[2];
+        double gzip = 0, deflate = 0, any = 0;
+        boolean gzipListed = false, deflateListed = false;
+
+        for (String part : acceptEncoding.split(",")) {
+            int semicolon = part.indexOf(';');
+            String coding = (semicolon < 0 ? part : part.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+            double q = semicolon < 0 ? 1 : quality(part.substring(semicolon + 1));
+            switch (coding) {
+                case "gzip": case "x-gzip": gzip = Math.max(gzip, q); gzipListed = true; break;
+                case "deflate": deflate = q; deflateListed = true; break;
+                case "*": any = q; break;
+                default: break;
+            }
+        }
+        if (!gzipListed) gzip = any;
+        if (!deflateListed) deflate = any;
+        return new double[]{gzip, deflate};
+    }
+
+    // "q=0.5" → 0.5 ; valeur illisible → 1
+    static double quality(String params) {
+        for (String param : params.split(";")) {
+            String p = param.trim();
+            if (p.startsWith("q=") || p.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(p.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /** Type compressible (sans les paramètres : charset...) */
+    boolean isCompressible(String contentType) {
+        if (contentType == null) return false;
+        int semicolon = contentType.indexOf(';');
+        String type = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim();
+        return types.contains(type.toLowerCase(Locale.ROOT));
+    }
+
+    // ------------------------------
+    // 🔹 2. POOL DE DEFLATER
+    // ------------------------------
+    Deflater borrow(String encoding) {
+        int slot = GZIP.equals(encoding) ? 0 : 1;
+        Deflater deflater = idle.get(slot).poll();
+        return deflater != null ? deflater : new Deflater(level, slot == 0);
+    }
+
+    // Remis à zéro et rendu au pool ; pool plein : libéré
+    void release(String encoding, Deflater deflater) {
+        deflater.reset();
+        if (!idle.get(GZIP.equals(encoding) ? 0 : 1).offer(deflater)) deflater.end();
+    }
+
+    /** Libère la mémoire native des Deflater au repos (arrêt du servlet) */
+    public void shutdown() {
+        for (ArrayBlockingQueue<Deflater> pool : idle) {
+            Deflater deflater;
+            while ((deflater = pool.poll()) != null) deflater.end();
+        }
+    }
+}
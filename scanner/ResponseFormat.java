@@ -0,0 +1,67 @@
+package framework.scanner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import framework.utils.JsonUtils;
+
+/**
+ * Format de la réponse d'une route @Json, négocié avec l'en-tête Accept.
+ *
+ * JSON reste le format par défaut (navigateurs, curl, Accept absent ou
+ * générique) ; CBOR (RFC 8949) n'est choisi que si application/cbor est
+ * demandé explicitement avec une qualité au moins égale à celle de JSON :
+ *
+ *   Accept: application/cbor                          → CBOR
+ *   Accept: application/cbor, application/json;q=0.5  → CBOR
+ *   Accept: application/json, application/cbor;q=0.9  → JSON
+ */
+public enum ResponseFormat {
+
+    JSON("application/json;charset=UTF-8"),
+    CBOR("application/cbor");
+
+    private final String contentType;
+
+    ResponseFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void write(Object value, OutputStream out) throws IOException {
+        if (this == CBOR) {
+            CborEncoder.write(value, out);
+        } else {
+            JsonUtils.writeJson(value, out);
+        }
+    }
+
+    public static ResponseFormat negotiate(String accept) {
+        return prefers(accept, "application/cbor") ? CBOR : JSON;
+    }
+
+    /**
+     * @return true si le type est demandé explicitement, avec une qualité au
+     * moins égale à celle de JSON (application/json, application/* ou tout type)
+     */
+    static boolean prefers(String accept, String type) {
+        // Cas courant : type absent de l'en-tête, pas d'analyse
+        if (accept == null || !accept.contains(type.substring(type.indexOf('/') + 1))) return false;
+        double wanted = 0, json = 0;
+
+        for (String part : accept.split(",")) {
+            int semicolon = part.indexOf(';');
+            String range = (semicolon < 0 ? part : part.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+            double q = semicolon < 0 ? 1 : ResponseCompression.quality(part.substring(semicolon + 1));
+            if (range.equals(type)) {
+                wanted = Math.max(wanted, q);
+            } else if (range.equals("application/json") || range.equals("application/*") || range.equals("*/*")) {
+                json = Math.max(json, q);
+            }
+        }
+        return wanted > 0 && wanted >= json;
+    }
+}
@@ -0,0 +1,334 @@
+package framework.scanner;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import framework.utils.JsonUtils;
+import framework.utils.Producer;
+
+/**
+ * Résultats @Json en flux (Stream, Iterator, Producer) : les éléments sont
+ * sérialisés un à un vers la réponse, sans liste intermédiaire.
+ *
+ * Formats, selon Accept :
+ *   - JSON (défaut) : {"status":"success","code":200,"data":[...]} ;
+ *   - NDJSON (application/x-ndjson) : un élément par ligne ;
+ *   - CBOR (application/cbor) : même enveloppe, tableau de longueur indéfinie.
+ *
+ * La sortie est vidée tous les flushElements éléments, ou dès que
+ * flushMillis se sont écoulés depuis le dernier envoi : le client reçoit des
+ * morceaux (chunked) au rythme de la production. La source est toujours
+ * fermée, y compris quand le client se déconnecte.
+ *
+ * Erreur de la source avant le premier envoi : la réponse est vidée et
+ * l'exception remonte (enveloppe d'erreur normale). Après : le flux s'arrête
+ * (JSON tronqué) ; en NDJSON, une dernière ligne d'erreur est écrite.
+ */
+public final class ResultStreamer {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final int flushElements;
+    private final long flushNanos;
+
+    public ResultStreamer(int flushElements, long flushMillis) {
+        this.flushElements = Math.max(1, flushElements);
+        this.flushNanos = Math.max(0, flushMillis) * 1_000_000L;
+    }
+
+    /** Stream, Iterator ou Producer (les collections restent sérialisées d'un bloc). */
+    public static boolean isStreamed(Object result) {
+        return result instanceof Stream<?> || result instanceof Iterator<?> || result instanceof Producer<?>;
+    }
+
+    // ------------------------------
+    // 🔹 1. ENVOI
+    // ------------------------------
+    public void send(HttpServletRequest request, HttpServletResponse response, Object result) throws Exception {
+        String accept = request.getHeader("Accept");
+        ElementWriter writer;
+        try {
+            if (ResponseFormat.prefers(accept, NDJSON) || ResponseFormat.prefers(accept, "application/ndjson")) {
+                response.setContentType(NDJSON + ";charset=UTF-8");
+                writer = new NdjsonWriter(response.getOutputStream());
+            } else if (ResponseFormat.negotiate(accept) == ResponseFormat.CBOR) {
+                response.setContentType(ResponseFormat.CBOR.getContentType());
+                writer = new CborWriter(response.getOutputStream());
+            } else {
+                response.setContentType(ResponseFormat.JSON.getContentType());
+                writer = new JsonEnvelopeWriter(response.getOutputStream());
+            }
+            writer.begin();
+        } catch (IOException | RuntimeException e) {
+            close(result); // échec avant le premier élément : la source n'est jamais parcourue
+            throw e;
+        }
+        Output output = new Output(writer);
+        try {
+            forEach(result, output::write);
+        } catch (Exception e) {
+            if (output.disconnected) throw e; // client parti : la source est déjà fermée
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                throw e;
+            }
+            try {
+                writer.fail();
+            } catch (IOException ignored) {
+                // Client parti entre-temps
+            }
+            throw e;
+        }
+        writer.end();
+    }
+
+    // Écriture d'un élément, vidage par nombre d'éléments ou par délai
+    private final class Output {
+        private final ElementWriter writer;
+        private int pending;
+        private long last = System.nanoTime();
+        boolean disconnected; // échec d'écriture vers le client (≠ erreur de la source)
+
+        Output(ElementWriter writer) {
+            this.writer = writer;
+        }
+
+        void write(Object element) throws IOException {
+            try {
+                writer.element(element);
+                if (++pending < flushElements && System.nanoTime() - last < flushNanos) return;
+                writer.flush();
+            } catch (IOException e) {
+                disconnected = true;
+                throw e;
+            }
+            pending = 0;
+            last = System.nanoTime();
+        }
+    }
+
+    // ------------------------------
+    // 🔹 2. PARCOURS DES SOURCES (toujours fermées)
+    // ------------------------------
+    private interface ElementSink {
+        void accept(Object element) throws IOException;
+    }
+
+    private static void forEach(Object source, ElementSink sink) throws Exception {
+        if (source instanceof Stream<?> stream) {
+            try (stream) {
+                Iterator<?> it = stream.iterator();
+                while (it.hasNext()) sink.accept(it.next());
+            }
+        } else if (source instanceof Iterator<?> it) {
+            try {
+                while (it.hasNext()) sink.accept(it.next());
+            } finally {
+                if (it instanceof AutoCloseable closeable) closeable.close();
+            }
+        } else {
+            Producer<?> producer = (Producer<?>) source;
+            try {
+                producer.produce(element -> {
+                    try {
+                        sink.accept(element);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                if (producer instanceof AutoCloseable closeable) closeable.close();
+            }
+        }
+    }
+
+    /** Ajoute une action à la fermeture de la source (libération du contrôleur poolé). */
+    static Object onClose(Object source, Runnable action) {
+        if (source instanceof Stream<?> stream) return stream.onClose(action);
+        if (source instanceof Iterator<?> it) return new ClosingIterator<>(it, action);
+        return new ClosingProducer<>((Producer<?>) source, action);
+    }
+
+    /** Ferme une source en flux qui ne sera pas parcourue (résultat abandonné). */
+    public static void close(Object source) {
+        if (!isStreamed(source) || !(source instanceof AutoCloseable closeable)) return;
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static final class ClosingIterator<T> implements Iterator<T>, AutoCloseable {
+        private final Iterator<T> it;
+        private final Runnable action;
+
+        ClosingIterator(Iterator<T> it, Runnable action) {
+            this.it = it;
+            this.action = action;
+        }
+
+        @Override public boolean hasNext() { return it.hasNext(); }
+        @Override public T next() { return it.next(); }
+
+        @Override
+        public void close() throws Exception {
+            try {
+                if (it instanceof AutoCloseable closeable) closeable.close();
+            } finally {
+                action.run();
+            }
+        }
+    }
+
+    private static final class ClosingProducer<T> implements Producer<T>, AutoCloseable {
+        private final Producer<T> producer;
+        private final Runnable action;
+
+        ClosingProducer(Producer<T> producer, Runnable action) {
+            this.producer = producer;
+            this.action = action;
+        }
+
+        @Override
+        public void produce(Consumer<? super T> sink) throws Exception {
+            producer.produce(sink);
+        }
+
+        @Override
+        public void close() throws Exception {
+            try {
+                if (producer instanceof AutoCloseable closeable) closeable.close();
+            } finally {
+                action.run();
+            }
+        }
+    }
+
+    /** Résultat en flux matérialisé en liste (route de lot, où les réponses sont assemblées). */
+    public static List<Object> collect(Object source) throws Exception {
+        List<Object> list = new ArrayList<>();
+        forEach(source, list::add);
+        return list;
+    }
+
+    // ------------------------------
+    // 🔹 3. FORMATS
+    // ------------------------------
+    private interface ElementWriter {
+        void begin() throws IOException;
+        void element(Object element) throws IOException;
+        void end() throws IOException;
+        void flush() throws IOException;
+        default void fail() throws IOException {}
+    }
+
+    private static void writeJson(Gson gson, Object element, JsonWriter json) throws IOException {
+        if (element == null) json.nullValue();
+        else gson.toJson(element, element.getClass(), json);
+    }
+
+    private static final class JsonEnvelopeWriter implements ElementWriter {
+        private final Gson gson = JsonUtils.getGson();
+        private final JsonWriter json;
+
+        JsonEnvelopeWriter(OutputStream out) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            this.json = gson.newJsonWriter(writer);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            json.beginObject();
+            json.name("status").value("success");
+            json.name("code").value(200);
+            json.name("data").beginArray();
+        }
+
+        @Override public void element(Object element) throws IOException { writeJson(gson, element, json); }
+
+        @Override
+        public void end() throws IOException {
+            json.endArray();
+            json.endObject();
+            json.flush();
+        }
+
+        @Override public void flush() throws IOException { json.flush(); }
+    }
+
+    private static final class NdjsonWriter implements ElementWriter {
+        private final Gson gson = JsonUtils.getGson();
+        private final Writer writer;
+        private final JsonWriter json;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            this.json = gson.newJsonWriter(writer);
+            json.setIndent("");    // une ligne par élément, même avec jsonPretty
+            json.setLenient(true); // plusieurs valeurs de premier niveau
+        }
+
+        @Override public void begin() {}
+
+        @Override
+        public void element(Object element) throws IOException {
+            writeJson(gson, element, json);
+            writer.write('\n');
+        }
+
+        @Override public void end() throws IOException { json.flush(); }
+        @Override public void flush() throws IOException { json.flush(); }
+
+        // Ligne finale au format de l'enveloppe d'erreur
+        @Override
+        public void fail() throws IOException {
+            writer.write("{\"status\":\"error\",\"code\":500,\"data\":null}\n");
+            json.flush();
+        }
+    }
+
+    private static final class CborWriter implements ElementWriter {
+        private final CborEncoder cbor;
+
+        CborWriter(OutputStream out) {
+            this.cbor = new CborEncoder(out);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            cbor.beginMap(3);
+            cbor.writeValue("status");
+            cbor.writeValue("success");
+            cbor.writeValue("code");
+            cbor.writeValue(200);
+            cbor.writeValue("data");
+            cbor.beginArray();
+        }
+
+        @Override public void element(Object element) throws IOException { cbor.writeValue(element); }
+
+        @Override
+        public void end() throws IOException {
+            cbor.end();
+            cbor.flush();
+        }
+
+        @Override public void flush() throws IOException { cbor.flush(); }
+    }
+}
@@ -0,0 +1,101 @@
+package framework.scanner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import framework.processor.RouteIndexProcessor;
+
+/**
+ * Lecture de l'index des routes généré à la compilation par RouteIndexProcessor.
+ *
+ * Seules les classes contrôleurs listées sont chargées, sans initialisation
+ * statique (Class.forName(name, false, loader)) : plus de parcours de
+ * /WEB-INF/classes au démarrage. Chaque jar compilé avec le processeur a son
+ * propre index : tous ceux du classpath sont fusionnés.
+ *
+ * Dès qu'un index existe, le scan n'a plus lieu : chaque dossier de classes
+ * ou jar contenant des contrôleurs doit avoir été compilé avec le processeur
+ * (framework.jar dans le classpath de javac). Les contrôleurs d'un jar sans
+ * index ne sont pas servis ; avec un tel jar, routeIndex=false fait scanner
+ * /WEB-INF/classes et /WEB-INF/lib comme sans index.
+ */
+public final class RouteIndex {
+
+    private RouteIndex() {}
+
+    /**
+     * @return les routes de tous les index, ou null si aucun index n'est
+     *         présent ou si l'un d'eux est invalide (classe ou méthode
+     *         introuvable, ligne mal formée) : FrontServlet revient alors au
+     *         scan des classes
+     */
+    public static Map<String, List<MappedMethod>> load(ClassLoader loader) throws IOException {
+        Enumeration<URL> indexes = loader.getResources(RouteIndexProcessor.INDEX_RESOURCE);
+        if (!indexes.hasMoreElements()) return null;
+
+        Map<String, List<MappedMethod>> urlMappings = new HashMap<>();
+        Map<Class<?>, ControllerProvider> providers = new HashMap<>();
+        Set<String> seen = new HashSet<>(); // même ligne dans deux index (jar copié dans classes)
+
+        while (indexes.hasMoreElements()) {
+            URL index = indexes.nextElement();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty() || line.startsWith("#") || !seen.add(line)) continue;
+                    add(line, loader, providers, urlMappings);
+                }
+            } catch (IOException | ReflectiveOperationException | LinkageError | IllegalArgumentException e) {
+                System.out.println("⚠️ Index des routes invalide (" + index + ") : " + e.getMessage()
+                        + " → scan des classes à la place");
+                return null;
+            }
+        }
+        return urlMappings;
+    }
+
+    private static void add(String line, ClassLoader loader, Map<Class<?>, ControllerProvider> providers,
+        Map<String, List<MappedMethod>> urlMappings) throws IOException, ReflectiveOperationException {
+        String[] cols = line.split("\t", -1);
+        if (cols.length < 5) { // v1 : colonne "json|-" en plus, ignorée
+            throw new IOException("Ligne d'index invalide : " + line);
+        }
+        String httpMethod = cols[0];
+        String url = cols[1];
+        Class<?> cls = Class.forName(cols[2], false, loader);
+        Method method = findMethod(cls, cols[3], cols[4]);
+
+        ControllerProvider provider = providers.computeIfAbsent(cls, ControllerProvider::of);
+        MappedMethod mapped = Scanner.mapRoute(provider, method, url, httpMethod);
+        if (mapped != null) urlMappings.computeIfAbsent(url, k -> new ArrayList<>()).add(mapped);
+    }
+
+    private static Method findMethod(Class<?> cls, String name, String parameterTypes) throws NoSuchMethodException {
+        for (Method method : cls.getDeclaredMethods()) {
+            if (method.getName().equals(name) && signature(method).equals(parameterTypes)) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(cls.getName() + "." + name + "(" + parameterTypes + ")"
+                + " : index des routes obsolète, recompilez l'application");
+    }
+
+    private static String signature(Method method) {
+        StringBuilder sb = new StringBuilder();
+        for (Class<?> type : method.getParameterTypes()) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(type.getTypeName());
+        }
+        return sb.toString();
+    }
+}
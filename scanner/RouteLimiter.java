@@ -0,0 +1,176 @@
+package framework.scanner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import framework.annotation.Limit;
+
+/**
+ * Contrôle d'admission d'une route, sans verrou : limite de concurrence
+ * (compteur atomique) et limite de débit (seau à jetons en GCRA : un seul
+ * AtomicLong, l'heure théorique de la prochaine arrivée).
+ *
+ * En mode adaptatif, la limite de concurrence suit la latence observée
+ * (algorithme à gradient) : elle baisse quand la latence récente dépasse
+ * la latence de référence, et remonte tant que la limite est utilisée.
+ *
+ * Configuré par @Limit ou par le fichier limitsFile (clé : pattern de la route) :
+ *   /produits/{id} = concurrency=50, rate=200, burst=400, adaptive=true
+ */
+public final class RouteLimiter {
+
+    /** Résultat de tryAcquire : requête admise. */
+    public static final long ADMITTED = 0;
+    /** Résultat de tryAcquire : trop de requêtes simultanées (503). Un résultat > 0 : débit dépassé (429), délai en ns. */
+    public static final long OVER_CONCURRENCY = -1;
+
+    private static final int MIN_ADAPTIVE_LIMIT = 4;
+    private static final double TOLERANCE = 1.5;  // latence récente admise par rapport à la référence
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_WINDOW = 600; // échantillons de la moyenne de référence
+
+    private final int maxConcurrency;  // 0 : illimité
+    private final boolean adaptive;
+    private final long interval;       // GCRA : ns entre deux requêtes, 0 : pas de limite de débit
+    private final long tolerance;      // GCRA : avance tolérée (rafale)
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong nextArrival = new AtomicLong(System.nanoTime());
+    private final AtomicLong adaptiveLimit;  // double (bits) : limite courante du mode adaptatif
+    private final AtomicLong longLatency = new AtomicLong(Double.doubleToRawLongBits(0)); // double (bits), ns
+    private volatile int limit;
+
+    public RouteLimiter(int concurrency, double rate, int burst, boolean adaptive) {
+        this.maxConcurrency = Math.max(0, concurrency);
+        this.adaptive = adaptive && maxConcurrency > 0;
+        this.interval = rate > 0 ? Math.max(1, (long) (1e9 / rate)) : 0;
+        int allowed = burst > 0 ? burst : (int) Math.max(1, Math.ceil(rate));
+        this.tolerance = interval * (allowed - 1L);
+
+        // Plancher adaptatif, mais jamais au-delà de maxConcurrency (ex: @Limit(concurrency = 2))
+        int initial = this.adaptive ? Math.min(maxConcurrency, Math.max(MIN_ADAPTIVE_LIMIT, maxConcurrency / 2)) : maxConcurrency;
+        this.limit = initial;
+        this.adaptiveLimit = new AtomicLong(Double.doubleToRawLongBits(initial));
+    }
+
+    /** @return null si l'annotation ne limite rien */
+    public static RouteLimiter of(Limit limit) {
+        if (limit == null || (limit.concurrency() <= 0 && limit.rate() <= 0)) return null;
+        return new RouteLimiter(limit.concurrency(), limit.rate(), limit.burst(), limit.adaptive());
+    }
+
+    /**
+     * "concurrency=50, rate=200, burst=400, adaptive=true" (ordre libre, tout est facultatif)
+     *
+     * @throws IllegalArgumentException option inconnue ou sans valeur, nombre invalide ou négatif
+     */
+    public static RouteLimiter parse(String spec) {
+        int concurrency = 0;
+        double rate = 0;
+        int burst = 0;
+        boolean adaptive = false;
+        for (String option : spec.split("[,;]")) {
+            if (option.isBlank()) continue;
+            String[] kv = option.trim().split("\\s*=\\s*", 2);
+            if (kv.length != 2 || kv[1].isEmpty()) throw new IllegalArgumentException("Option sans valeur : " + option.trim());
+            switch (kv[0]) {
+                case "concurrency": concurrency = Integer.parseInt(kv[1]); break;
+                case "rate": rate = Double.parseDouble(kv[1]); break;
+                case "burst": burst = Integer.parseInt(kv[1]); break;
+                case "adaptive":
+                    if (!kv[1].equalsIgnoreCase("true") && !kv[1].equalsIgnoreCase("false")) {
+                        throw new IllegalArgumentException("adaptive attend true ou false : " + kv[1]);
+                    }
+                    adaptive = Boolean.parseBoolean(kv[1]);
+                    break;
+                default: throw new IllegalArgumentException("Option inconnue : " + kv[0]);
+            }
+        }
+        if (concurrency < 0 || burst < 0 || !(rate >= 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Valeur négative ou invalide : " + spec.trim());
+        }
+        if (concurrency <= 0 && rate <= 0) return null;
+        return new RouteLimiter(concurrency, rate, burst, adaptive);
+    }
+
+    // ------------------------------
+    // 🔹 1. ADMISSION
+    // ------------------------------
+
+    /** @return ADMITTED, OVER_CONCURRENCY, ou le délai (ns) avant qu'un jeton soit disponible */
+    public long tryAcquire() {
+        if (maxConcurrency > 0) {
+            for (;;) {
+                int current = inFlight.get();
+                if (current >= limit) return OVER_CONCURRENCY;
+                if (inFlight.compareAndSet(current, current + 1)) break;
+            }
+        }
+
+        if (interval > 0) {
+            long wait = takeToken();
+            if (wait > 0) {
+                if (maxConcurrency > 0) inFlight.decrementAndGet();
+                return wait;
+            }
+        }
+        return ADMITTED;
+    }
+
+    // GCRA : la requête est admise si la prochaine arrivée théorique n'est pas trop en avance
+    private long takeToken() {
+        for (;;) {
+            long now = System.nanoTime();
+            long tat = nextArrival.get();
+            long next = Math.max(tat, now) + interval;
+            long early = next - now - interval - tolerance;
+            if (early > 0) return early;
+            if (nextArrival.compareAndSet(tat, next)) return 0;
+        }
+    }
+
+    /** Fin d'une requête admise ; latencyNanos alimente le mode adaptatif. */
+    public void release(long latencyNanos) {
+        if (maxConcurrency <= 0) return;
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (adaptive) adapt(latencyNanos, inFlightBefore);
+    }
+
+    // ------------------------------
+    // 🔹 2. LIMITE ADAPTATIVE (gradient)
+    // ------------------------------
+    private void adapt(long latencyNanos, int inFlightBefore) {
+        double sample = Math.max(1, latencyNanos);
+
+        // Latence de référence : moyenne mobile lente (≈ 600 requêtes)
+        double reference;
+        for (;;) {
+            long bits = longLatency.get();
+            double current = Double.longBitsToDouble(bits);
+            reference = current == 0 ? sample : current + (sample - current) / LONG_WINDOW;
+            // Référence tirée vers le haut par une surcharge prolongée : on la fait redescendre
+            if (reference / sample > 2) reference *= 0.95;
+            if (longLatency.compareAndSet(bits, Double.doubleToRawLongBits(reference))) break;
+        }
+
+        for (;;) {
+            long bits = adaptiveLimit.get();
+            double current = Double.longBitsToDouble(bits);
+
+            // Limite peu utilisée : pas de hausse (elle ne mesurerait rien)
+            if (inFlightBefore < current / 2 && sample <= reference * TOLERANCE) return;
+
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * reference / sample));
+            double target = current * gradient + Math.sqrt(current);
+            double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+            next = Math.min(maxConcurrency, Math.max(MIN_ADAPTIVE_LIMIT, next));
+
+            if (adaptiveLimit.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                limit = (int) next;
+                return;
+            }
+        }
+    }
+
+    public int getLimit() { return limit; }
+    public int getInFlight() { return inFlight.get(); }
+}
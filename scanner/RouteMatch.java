@@ -0,0 +1,78 @@
+package framework.scanner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Résultat d'une recherche dans la RouteTable : la méthode trouvée et les
+ * offsets [début, fin) de chaque variable {var} dans le chemin demandé.
+ */
+public final class RouteMatch {
+    private static final int[] EMPTY = new int[0];
+
+    private final MappedMethod mapped;
+    private final String path;
+    private final int[] bounds;
+
+    RouteMatch(MappedMethod mapped, String path, int varCount) {
+        this.mapped = mapped;
+        this.path = path;
+        this.bounds = varCount == 0 ? EMPTY : new int[varCount * 2];
+    }
+
+    /**
+     * Construit un RouteMatch à partir d'un chemin déjà connu pour correspondre au pattern
+     * (chemin hors RouteTable). Retourne null si le nombre de segments diffère.
+     */
+    static RouteMatch forPath(MappedMethod mapped, String path) {
+        String[] pattern = mapped.getUrlPattern().split("/", -1);
+        RouteMatch match = new RouteMatch(mapped, path, mapped.getPathVariableNames().length);
+
+        int start = 0;
+        int var = 0;
+        for (int i = 0; i < pattern.length; i++) {
+            if (start > path.length()) return null;
+            int end = path.indexOf('/', start);
+            if (end < 0) end = path.length();
+            RouteTable.Variable variable = RouteTable.variable(pattern[i]);
+            if (variable != null) {
+                int from = start + variable.prefix().length();
+                int to = end - variable.suffix().length();
+                if (to <= from) return null;
+                match.setVariable(var++, from, to);
+            }
+            start = end + 1;
+        }
+        return start == path.length() + 1 ? match : null;
+    }
+
+    void setVariable(int index, int start, int end) {
+        bounds[index * 2] = start;
+        bounds[index * 2 + 1] = end;
+    }
+
+    public MappedMethod getMappedMethod() { return mapped; }
+    public String getPath() { return path; }
+    public int getVariableCount() { return bounds.length / 2; }
+
+    public String getPathVariable(int index) {
+        return path.substring(bounds[index * 2], bounds[index * 2 + 1]);
+    }
+
+    public String getPathVariable(String name) {
+        String[] names = mapped.getPathVariableNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) return getPathVariable(i);
+        }
+        return null;
+    }
+
+    public Map<String, String> getPathVariables() {
+        String[] names = mapped.getPathVariableNames();
+        Map<String, String> vars = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            vars.put(names[i], getPathVariable(i));
+        }
+        return vars;
+    }
+}
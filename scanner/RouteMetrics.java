@@ -0,0 +1,62 @@
+package framework.scanner;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'une route (une instance par MappedMethod) : requêtes, requêtes
+ * en cours, erreurs par type d'exception, requêtes refusées par le contrôle
+ * d'admission et histogramme des latences.
+ */
+public final class RouteMetrics {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /** @return l'instant de début, à repasser à exit() */
+    public long enter() {
+        requests.increment();
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    /** @return la durée de la requête (ns) */
+    public long exit(long start) {
+        long elapsed = System.nanoTime() - start;
+        inFlight.decrement();
+        latency.record(elapsed);
+        return elapsed;
+    }
+
+    public void error(Throwable error) {
+        errors.computeIfAbsent(error.getClass().getSimpleName(), k -> new LongAdder()).increment();
+    }
+
+    // Requête refusée avant la liaison des arguments ("concurrency" ou "rate")
+    public void reject(String reason) {
+        rejections.computeIfAbsent(reason, k -> new LongAdder()).increment();
+    }
+
+    public long getRequests() { return requests.sum(); }
+    public long getInFlight() { return inFlight.sum(); }
+    public LatencyHistogram getLatency() { return latency; }
+
+    public Map<String, Long> getErrors() {
+        return snapshot(errors);
+    }
+
+    public Map<String, Long> getRejections() {
+        return snapshot(rejections);
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((key, count) -> snapshot.put(key, count.sum()));
+        return snapshot;
+    }
+}
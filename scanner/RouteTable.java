@@ -0,0 +1,243 @@
+package framework.scanner;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table de routage immuable (trie par segments), construite une seule fois
+ * dans FrontServlet.init().
+ *
+ * Chaque noeud possède des enfants statiques, des enfants à variable partielle
+ * (préfixe et/ou suffixe fixes : "user-{id}", "{nom}.json"), un enfant joker
+ * {var} et un tableau de slots GET / POST / ALL. Une recherche coûte
+ * O(nombre de segments) et n'alloue rien tant qu'aucune route ne correspond.
+ *
+ * Une seule variable par segment : "{nom}.{ext}" est refusé à la construction
+ * (le découpage serait ambigu), comme une accolade non fermée.
+ */
+public final class RouteTable {
+
+    static final int SLOT_GET = 0;
+    static final int SLOT_POST = 1;
+    static final int SLOT_ALL = 2;
+
+    private final Node root;
+    private final int size;
+
+    private RouteTable(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public int size() { return size; }
+
+    // ------------------------------
+    // 🔹 1. CONSTRUCTION
+    // ------------------------------
+    public static RouteTable build(Map<String, List<MappedMethod>> urlMappings) {
+        Builder root = new Builder();
+        int count = 0;
+
+        for (List<MappedMethod> methods : urlMappings.values()) {
+            for (MappedMethod mapped : methods) {
+                Builder node = root;
+                for (String segment : mapped.getUrlPattern().split("/", -1)) {
+                    Variable variable = variable(segment);
+                    if (variable != null && variable.isWhole()) {
+                        if (node.wildcard == null) node.wildcard = new Builder();
+                        node = node.wildcard;
+                    } else if (variable != null) {
+                        node = node.partials.computeIfAbsent(variable.prefix() + "{}" + variable.suffix(), k -> new Builder());
+                    } else {
+                        node = node.children.computeIfAbsent(segment, k -> new Builder());
+                    }
+                }
+
+                int slot = slotOf(mapped.getHttpMethod());
+                if (node.slots[slot] == null) {
+                    node.slots[slot] = mapped;
+                    count++;
+                } else {
+                    System.out.println("⚠️ Route en double ignorée : " + mapped
+                            + " (déjà prise par " + node.slots[slot] + ")");
+                }
+            }
+        }
+        return new RouteTable(root.freeze(), count);
+    }
+
+    /** Variable d'un segment de pattern : prefixe{nom}suffixe (préfixe et suffixe éventuellement vides). */
+    record Variable(String prefix, String name, String suffix) {
+        boolean isWhole() { return prefix.isEmpty() && suffix.isEmpty(); }
+    }
+
+    /**
+     * @return la variable du segment, null pour un segment statique
+     * @throws IllegalArgumentException accolades mal formées ou plusieurs variables dans le segment
+     */
+    static Variable variable(String segment) {
+        int open = segment.indexOf('{');
+        int close = segment.indexOf('}');
+        if (open < 0 && close < 0) return null;
+        if (open < 0 || close < open + 2 || segment.indexOf('{', open + 1) >= 0 || segment.indexOf('}', close + 1) >= 0) {
+            throw new IllegalArgumentException("Segment de route invalide : \"" + segment
+                    + "\" (une seule variable {nom} par segment, ex: user-{id} ou {nom}.json)");
+        }
+        return new Variable(segment.substring(0, open), segment.substring(open + 1, close), segment.substring(close + 1));
+    }
+
+    private static int slotOf(String httpMethod) {
+        switch (httpMethod) {
+            case "GET": return SLOT_GET;
+            case "POST": return SLOT_POST;
+            default: return SLOT_ALL;
+        }
+    }
+
+    // ------------------------------
+    // 🔹 2. RECHERCHE
+    // ------------------------------
+    public RouteMatch match(String path, String httpMethod) {
+        int slot = "GET".equalsIgnoreCase(httpMethod) ? SLOT_GET
+                : "POST".equalsIgnoreCase(httpMethod) ? SLOT_POST
+                : -1;
+        return match(root, path, 0, slot, 0);
+    }
+
+    /**
+     * Parcours en profondeur : l'enfant statique est essayé avant le joker,
+     * avec retour arrière si la branche statique n'aboutit pas.
+     * Les offsets des variables sont écrits en remontant, une fois la feuille trouvée.
+     */
+    private static RouteMatch match(Node node, String path, int start, int slot, int varIndex) {
+        int end = path.indexOf('/', start);
+        boolean last = end < 0;
+        if (last) end = path.length();
+
+        Node child = node.findChild(path, start, end);
+        if (child != null) {
+            RouteMatch found = last ? leaf(child, path, slot, varIndex) : match(child, path, end + 1, slot, varIndex);
+            if (found != null) return found;
+        }
+
+        // Variables partielles, les plus longs préfixe + suffixe d'abord
+        for (int i = 0; i < node.partials.length; i++) {
+            String prefix = node.prefixes[i];
+            String suffix = node.suffixes[i];
+            int from = start + prefix.length();
+            int to = end - suffix.length();
+            if (to <= from || !path.startsWith(prefix, start) || !path.startsWith(suffix, to)) continue;
+            Node partial = node.partials[i];
+            RouteMatch found = last ? leaf(partial, path, slot, varIndex + 1)
+                    : match(partial, path, end + 1, slot, varIndex + 1);
+            if (found != null) {
+                found.setVariable(varIndex, from, to);
+                return found;
+            }
+        }
+
+        Node wildcard = node.wildcard;
+        if (wildcard != null && end > start) {
+            RouteMatch found = last ? leaf(wildcard, path, slot, varIndex + 1)
+                    : match(wildcard, path, end + 1, slot, varIndex + 1);
+            if (found != null) {
+                found.setVariable(varIndex, start, end);
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static RouteMatch leaf(Node node, String path, int slot, int varCount) {
+        MappedMethod mapped = slot >= 0 ? node.slots[slot] : null;
+        if (mapped == null) mapped = node.slots[SLOT_ALL];
+        if (mapped == null) return null;
+        return new RouteMatch(mapped, path, varCount);
+    }
+
+    // ------------------------------
+    // 🔹 3. NOEUDS
+    // ------------------------------
+    private static final class Builder {
+        final Map<String, Builder> children = new HashMap<>();
+        final Map<String, Builder> partials = new LinkedHashMap<>(); // "prefixe{}suffixe" → enfant
+        final MappedMethod[] slots = new MappedMethod[3];
+        Builder wildcard;
+
+        Node freeze() {
+            List<String> keys = new ArrayList<>(children.keySet());
+            Node[] nodes = new Node[keys.size()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = children.get(keys.get(i)).freeze();
+            }
+
+            List<String> shapes = new ArrayList<>(partials.keySet());
+            shapes.sort(Comparator.comparingInt(String::length).reversed());
+            String[] prefixes = new String[shapes.size()];
+            String[] suffixes = new String[shapes.size()];
+            Node[] partialNodes = new Node[shapes.size()];
+            for (int i = 0; i < partialNodes.length; i++) {
+                String shape = shapes.get(i);
+                int hole = shape.indexOf("{}");
+                prefixes[i] = shape.substring(0, hole);
+                suffixes[i] = shape.substring(hole + 2);
+                partialNodes[i] = partials.get(shape).freeze();
+            }
+            return new Node(keys.toArray(new String[0]), nodes, slots.clone(),
+                    prefixes, suffixes, partialNodes, wildcard == null ? null : wildcard.freeze());
+        }
+    }
+
+    /**
+     * Noeud figé : les enfants statiques sont rangés dans une table à adressage
+     * ouvert dont le hash est calculé directement sur la portion du chemin,
+     * sans créer de sous-chaîne.
+     */
+    private static final class Node {
+        private final String[] keys;
+        private final Node[] nodes;
+        private final int mask;
+        final MappedMethod[] slots;
+        final String[] prefixes;
+        final String[] suffixes;
+        final Node[] partials;
+        final Node wildcard;
+
+        Node(String[] childKeys, Node[] childNodes, MappedMethod[] slots,
+             String[] prefixes, String[] suffixes, Node[] partials, Node wildcard) {
+            int capacity = 1;
+            while (capacity < childKeys.length * 2) capacity <<= 1;
+            this.keys = new String[capacity];
+            this.nodes = new Node[capacity];
+            this.mask = capacity - 1;
+            this.slots = slots;
+            this.prefixes = prefixes;
+            this.suffixes = suffixes;
+            this.partials = partials;
+            this.wildcard = wildcard;
+
+            for (int i = 0; i < childKeys.length; i++) {
+                int h = childKeys[i].hashCode() & mask;
+                while (keys[h] != null) h = (h + 1) & mask;
+                keys[h] = childKeys[i];
+                nodes[h] = childNodes[i];
+            }
+        }
+
+        Node findChild(String path, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) h = 31 * h + path.charAt(i);
+            int len = end - start;
+
+            for (int i = h & mask; keys[i] != null; i = (i + 1) & mask) {
+                String key = keys[i];
+                if (key.length() == len && key.regionMatches(0, path, start, len)) return nodes[i];
+            }
+            return null;
+        }
+    }
+}
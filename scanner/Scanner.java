@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.*;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
-import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import jakarta.servlet.ServletContext;
@@ -15,11 +14,11 @@ import framework.annotation.*;
 import framework.controllers.Controller;
 import java.net.MalformedURLException;
 import framework.utils.ApiResponse;
-import framework.utils.JsonUtils;
+import framework.utils.Converters;
+import framework.utils.RequestBodyException;
 import java.io.IOException;
 import jakarta.servlet.http.Part;
 import framework.utils.UploadedFile;
-import java.io.InputStream;
 
 public class Scanner {
 
@@ -27,11 +26,23 @@ public class Scanner {
     // 🔹 1. SCAN DE CLASSES CONTROLEUR
     // ------------------------------
     public static Map<String, List<MappedMethod>> loadAllRoutes(File baseDir) {
+        return loadRoutes(scanAllClasses(baseDir, ""));
+    }
+
+    // Scan parallèle du bytecode (classes + jars) : seuls les @Controller sont chargés, sans initialisation
+    public static Map<String, List<MappedMethod>> loadAllRoutes(File classesDir, File libDir, ClassLoader loader)
+            throws IOException {
+        return loadRoutes(ClassFileScanner.loadControllerClasses(classesDir, libDir, loader));
+    }
+
+    public static Map<String, List<MappedMethod>> loadRoutes(List<Class<?>> allClasses) {
         Map<String, List<MappedMethod>> urlMappings = new HashMap<>();
-        List<Class<?>> allClasses = scanAllClasses(baseDir, "");
 
         for (Class<?> cls : allClasses) {
             if (cls.isAnnotationPresent(Controller.class)) {
+                // Un seul provider par classe : le singleton / pool est partagé par toutes ses routes
+                ControllerProvider provider = null;
+
                 for (Method method : cls.getDeclaredMethods()) {
                     String url = null;
                     String httpMethod = "GET"; // par défaut
@@ -49,8 +60,9 @@ public class Scanner {
                     }
 
                     if (url != null) {
-                        MappedMethod mapped = new MappedMethod(cls, method, url, httpMethod);
-                        urlMappings.computeIfAbsent(url, k -> new ArrayList<>()).add(mapped);
+                        if (provider == null) provider = ControllerProvider.of(cls);
+                        MappedMethod mapped = mapRoute(provider, method, url, httpMethod);
+                        if (mapped != null) urlMappings.computeIfAbsent(url, k -> new ArrayList<>()).add(mapped);
                     }
                 }
             }
@@ -58,6 +70,20 @@ public class Scanner {
         return urlMappings;
     }
 
+    /**
+     * Route d'une méthode, ou null si elle est mal déclarée (pattern invalide,
+     * @ETag(version) introuvable...) : seule cette route est ignorée, signalée
+     * dans les logs, les autres restent servies.
+     */
+    static MappedMethod mapRoute(ControllerProvider provider, Method method, String url, String httpMethod) {
+        try {
+            return new MappedMethod(provider, method, url, httpMethod);
+        } catch (IllegalArgumentException e) {
+            System.out.println("⚠️ Route ignorée [" + httpMethod + "] " + url + " : " + e.getMessage());
+            return null;
+        }
+    }
+
     // ------------------------------
     // 🔹 2. AFFICHAGE DES ROUTES (DEBUG)
     // ------------------------------
@@ -102,9 +128,11 @@ public class Scanner {
     // ------------------------------
     // 🔹 4. DETECTION DES FICHIERS STATIQUES
     // ------------------------------
+    private static final String[] STATIC_EXTENSIONS =
+            {".html", ".htm", ".css", ".js", ".png", ".jpg", ".jpeg", ".gif", ".ico"};
+
     public static boolean isStaticResource(String path, ServletContext context) {
-        String[] staticExt = {".html", ".htm", ".css", ".js", ".png", ".jpg", ".jpeg", ".gif", ".ico"};
-        for (String ext : staticExt) if (path.endsWith(ext)) return true;
+        for (String ext : STATIC_EXTENSIONS) if (path.endsWith(ext)) return true;
         try {
             return context.getResource(path) != null;
         } catch (MalformedURLException e) {
@@ -113,6 +141,10 @@ public class Scanner {
     }
 
     public static List<Class<?>> scanAllClasses(File baseDir, String packageName) {
+        return scanAllClasses(baseDir, packageName, Scanner.class.getClassLoader());
+    }
+
+    public static List<Class<?>> scanAllClasses(File baseDir, String packageName, ClassLoader loader) {
         List<Class<?>> classes = new ArrayList<>();
 
         for (File file : baseDir.listFiles()) {
@@ -120,12 +152,12 @@ public class Scanner {
                 String newPackage = packageName.isEmpty()
                         ? file.getName()
                         : packageName + "." + file.getName();
-                classes.addAll(scanAllClasses(file, newPackage));
+                classes.addAll(scanAllClasses(file, newPackage, loader));
             } else if (file.getName().endsWith(".class")) {
                 String className = file.getName().substring(0, file.getName().length() - 6);
                 try {
                     String fullName = packageName.isEmpty() ? className : packageName + "." + className;
-                    Class<?> cls = Class.forName(fullName);
+                    Class<?> cls = Class.forName(fullName, true, loader);
                     classes.add(cls);
                 } catch (ClassNotFoundException e) {
                     e.printStackTrace();
@@ -145,12 +177,18 @@ public class Scanner {
             String urlPattern,
             String actualPath) {
 
+        // Variables dynamiques dans l’URL (ex: /user/{id})
+        return mapFormParametersToMethodArgs(method, request, extractPathVariables(urlPattern, actualPath));
+    }
+
+    public static Object[] mapFormParametersToMethodArgs(
+            Method method,
+            HttpServletRequest request,
+            Map<String, String> pathVars) {
+
         Parameter[] parameters = method.getParameters();
         Object[] args = new Object[parameters.length];
 
-        // Variables dynamiques dans l’URL (ex: /user/{id})
-        Map<String, String> pathVars = extractPathVariables(urlPattern, actualPath);
-
         // Paramètres simples (form data)
         Map<String, String[]> formParams = request.getParameterMap();
 
@@ -209,13 +247,7 @@ public class Scanner {
                 else if (paramType == framework.utils.UploadedFile.class) {
                     Part part = request.getPart(p.getName());
                     if (part != null && part.getSubmittedFileName() != null && part.getSize() > 0) {
-                        byte[] bytes = part.getInputStream().readAllBytes();
-                        value = new framework.utils.UploadedFile(
-                                part.getSubmittedFileName(),
-                                part.getContentType(),
-                                part.getSize(),
-                                bytes
-                        );
+                        value = new framework.utils.UploadedFile(part);
                     }
                 }
 
@@ -236,13 +268,7 @@ public class Scanner {
                             part.getSubmittedFileName() != null &&
                             part.getSize() > 0) {
 
-                            byte[] bytes = part.getInputStream().readAllBytes();
-                            files.add(new UploadedFile(
-                                    part.getSubmittedFileName(),
-                                    part.getContentType(),
-                                    part.getSize(),
-                                    bytes
-                            ));
+                            files.add(new UploadedFile(part));
                         }
                     }
 
@@ -290,16 +316,8 @@ public class Scanner {
             String name = part.getName();
 
             if (part.getSubmittedFileName() != null && !part.getSubmittedFileName().isEmpty()) {
-                try (InputStream input = part.getInputStream()) {
-                    byte[] bytes = input.readAllBytes();
-                    UploadedFile file = new UploadedFile(
-                            part.getSubmittedFileName(),
-                            part.getContentType(),
-                            part.getSize(),
-                            bytes
-                    );
-                    fileParams.computeIfAbsent(name, k -> new ArrayList<>()).add(file);
-                }
+                // Contenu laissé dans le Part : lu en flux à la demande
+                fileParams.computeIfAbsent(name, k -> new ArrayList<>()).add(new UploadedFile(part));
             } else {
                 String value = new String(part.getInputStream().readAllBytes(), "UTF-8");
                 formParams.put(name, new String[]{value});
@@ -369,72 +387,9 @@ public class Scanner {
     
     
     
-    private static void setObjectFieldValue(Object obj, String paramName, String[] values) {
-        try {
-            if (obj == null || paramName == null) return;
-    
-            String[] parts = paramName.split("\\.");
-            Object currentObj = obj;
-    
-            for (int i = 0; i < parts.length; i++) {
-                String fieldName = parts[i];
-                int listIndex = -1;
-    
-                // Gestion des listes : "es[0]"
-                if (fieldName.contains("[") && fieldName.contains("]")) {
-                    String baseName = fieldName.substring(0, fieldName.indexOf("["));
-                    listIndex = Integer.parseInt(fieldName.substring(fieldName.indexOf("[") + 1, fieldName.indexOf("]")));
-                    fieldName = baseName;
-                }
-    
-                Field field = currentObj.getClass().getDeclaredField(fieldName);
-                field.setAccessible(true);
-                Class<?> fieldType = field.getType();
-    
-                if (i == parts.length - 1) {
-                    Object converted = null;
-                    if (values != null && values.length > 0) {
-                        if (values.length > 1)
-                            converted = Arrays.asList(values);
-                        else
-                            converted = convertValue(values[0], fieldType);
-                    }
-                    field.set(currentObj, converted);
-                } else {
-                    if (List.class.isAssignableFrom(fieldType)) {
-                        List<Object> list = (List<Object>) field.get(currentObj);
-                        if (list == null) {
-                            list = new ArrayList<>();
-                            field.set(currentObj, list);
-                        }
-    
-                        ParameterizedType genericType = (ParameterizedType) field.getGenericType();
-                        Class<?> elementType = (Class<?>) genericType.getActualTypeArguments()[0];
-    
-                        while (list.size() <= listIndex) {
-                            list.add(elementType.getDeclaredConstructor().newInstance());
-                        }
-    
-                        Object element = list.get(listIndex);
-                        String remainingPath = String.join(".", Arrays.copyOfRange(parts, i + 1, parts.length));
-                        setObjectFieldValue(element, remainingPath, values);
-                        return;
-                    }
-    
-                    Object nested = field.get(currentObj);
-                    if (nested == null) {
-                        nested = fieldType.getDeclaredConstructor().newInstance();
-                        field.set(currentObj, nested);
-                    }
-                    currentObj = nested;
-                }
-            }
-    
-        } catch (NoSuchFieldException ignored) {
-            // Champ inexistant, ignore
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    // Chemin compilé et mis en cache par classe (voir PropertyAccessors)
+    static void setObjectFieldValue(Object obj, String paramName, String[] values) {
+        PropertyAccessors.set(obj, paramName, values);
     }
 
     private static Map<String, String> extractPathVariables(String pattern, String actualPath) {
@@ -452,28 +407,45 @@ public class Scanner {
         return vars;
     }
 
-    private static Object convertValue(String value, Class<?> type) {
-        if (value == null) return null;
-        try {
-            if (type == String.class) return value;
-            if (type == int.class || type == Integer.class) return Integer.parseInt(value);
-            if (type == long.class || type == Long.class) return Long.parseLong(value);
-            if (type == double.class || type == Double.class) return Double.parseDouble(value);
-        } catch (Exception ignored) {}
-        return null;
+    static Object convertValue(String value, Class<?> type) {
+        return Converters.convert(value, type);
     }
 
     public static void sendJson(HttpServletResponse response, Object result, Exception ex) throws IOException {
+        sendJson(null, response, result, ex);
+    }
+
+    /**
+     * Enveloppe ApiResponse au format demandé par l'en-tête Accept de la
+     * requête : JSON par défaut, CBOR si application/cbor est préféré.
+     */
+    public static void sendJson(HttpServletRequest request, HttpServletResponse response,
+        Object result, Exception ex) throws IOException {
         ApiResponse apiResponse;
 
         if (ex != null) {
             // Si une exception est passée, retour d'erreur JSON
-            apiResponse = new ApiResponse("error", 400, null);
+            int code = ex instanceof RequestBodyException ? ((RequestBodyException) ex).getStatus() : 400;
+            apiResponse = new ApiResponse("error", code, null);
         } else {
             apiResponse = new ApiResponse("success", 200, result);
         }
 
-        response.setContentType("application/json;charset=UTF-8");
-        response.getWriter().write(JsonUtils.toJson(apiResponse));
+        sendApiResponse(request, response, apiResponse);
+    }
+
+    public static void sendApiResponse(HttpServletRequest request, HttpServletResponse response,
+        ApiResponse apiResponse) throws IOException {
+        ResponseFormat format = request == null ? ResponseFormat.JSON : ResponseFormat.negotiate(request.getHeader("Accept"));
+        if (request != null && !varies(response, "Accept")) response.addHeader("Vary", "Accept");
+        response.setContentType(format.getContentType());
+        format.write(apiResponse, response.getOutputStream());
+    }
+
+    private static boolean varies(HttpServletResponse response, String header) {
+        for (String vary : response.getHeaders("Vary")) {
+            if (vary.equalsIgnoreCase(header)) return true;
+        }
+        return false;
     }
 }
@@ -0,0 +1,302 @@
+package framework.scanner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPOutputStream;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cache mémoire des ressources statiques, servi directement par FrontServlet.
+ *
+ * Le contenu est gardé hors du heap (ByteBuffer direct), avec son ETag fort,
+ * sa date Last-Modified et une variante gzip construite au chargement (ou lue
+ * depuis un fichier .gz voisin). Gère If-None-Match / If-Modified-Since (304)
+ * et les requêtes Range à un seul intervalle. Tout ce qui ne peut pas être
+ * mis en cache (fichier trop gros, war non décompressé, WEB-INF...) est
+ * laissé au dispatcher "default" du conteneur.
+ */
+public final class StaticResources {
+
+    private static final long RECHECK_MILLIS = 1000;   // vérification de la date du fichier au plus 1x/s
+    private static final int MIN_GZIP_SIZE = 256;
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[16 * 1024]);
+
+    private final ServletContext context;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    public StaticResources(ServletContext context, long maxBytes, long maxEntryBytes) {
+        this.context = context;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    public boolean isCached(String path) {
+        return entries.containsKey(path);
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    // ------------------------------
+    // 🔹 1. SERVICE D'UNE RESSOURCE
+    // ------------------------------
+
+    /**
+     * @return false si la ressource n'est pas gérée par le cache
+     *         (l'appelant la transmet alors au dispatcher "default")
+     */
+    public boolean serve(String path, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String method = request.getMethod();
+        boolean head = "HEAD".equals(method);
+        if (!head && !"GET".equals(method)) return false;
+
+        Entry entry = lookup(path);
+        if (entry == null) return false;
+        entry.lastAccess = System.nanoTime();
+
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        String range = request.getHeader("Range");
+        boolean gzip = entry.gzip != null && range == null
+                && ResponseCompression.acceptsGzip(acceptEncoding);
+        String etag = gzip ? entry.gzipEtag : entry.etag;
+
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", entry.lastModified);
+        response.setHeader("Accept-Ranges", "bytes");
+        if (entry.gzip != null) response.setHeader("Vary", "Accept-Encoding");
+
+        if (notModified(request, entry, etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+
+        response.setContentType(entry.contentType);
+        ByteBuffer body = gzip ? entry.gzip : entry.content;
+        if (gzip) response.setHeader("Content-Encoding", "gzip");
+
+        long start = 0;
+        long end = body.limit() - 1L;
+        if (range != null && ifRangeMatches(request, entry)) {
+            long[] bounds = parseRange(range, body.limit());
+            if (bounds == null) {
+                response.setHeader("Content-Range", "bytes */" + body.limit());
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return true;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + body.limit());
+            }
+        }
+
+        response.setContentLengthLong(end - start + 1);
+        if (!head) write(body, (int) start, (int) (end - start + 1), response.getOutputStream());
+        return true;
+    }
+
+    private static boolean notModified(HttpServletRequest request, Entry entry, String etag) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            if (ifNoneMatch.trim().equals("*")) return true;
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) tag = tag.substring(2); // comparaison faible (RFC 9110)
+                if (tag.equals(etag)) return true;
+            }
+            return false;
+        }
+        long since = request.getDateHeader("If-Modified-Since");
+        return since >= 0 && entry.lastModified / 1000 <= since / 1000;
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, Entry entry) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"")) return ifRange.equals(entry.etag);
+        long date = request.getDateHeader("If-Range");
+        return date >= 0 && entry.lastModified / 1000 <= date / 1000;
+    }
+
+    /**
+     * @return {début, fin} ; un tableau vide pour ignorer l'en-tête (plusieurs
+     *         intervalles ou syntaxe inconnue) ; null si l'intervalle est hors du fichier
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) return new long[0];
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return new long[0];
+
+        try {
+            long start;
+            long end;
+            if (dash == 0) { // bytes=-N : les N derniers octets
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) return null;
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1 : Long.parseLong(spec.substring(dash + 1));
+                end = Math.min(end, length - 1);
+            }
+            if (start >= length || start > end) return null;
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static void write(ByteBuffer buffer, int offset, int length, OutputStream out) throws IOException {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.limit(offset + length);
+        byte[] chunk = CHUNK.get();
+        while (view.hasRemaining()) {
+            int n = Math.min(chunk.length, view.remaining());
+            view.get(chunk, 0, n);
+            out.write(chunk, 0, n);
+        }
+    }
+
+    // ------------------------------
+    // 🔹 2. CHARGEMENT ET ÉVICTION
+    // ------------------------------
+    private Entry lookup(String path) throws IOException {
+        Entry entry = entries.get(path);
+        long now = System.currentTimeMillis();
+
+        if (entry != null) {
+            if (now - entry.checkedAt < RECHECK_MILLIS) return entry;
+            entry.checkedAt = now;
+            if (entry.file.lastModified() == entry.lastModified && entry.file.length() == entry.content.limit()) {
+                return entry;
+            }
+            remove(path, entry); // fichier modifié : rechargement
+        }
+
+        File file = resolve(path);
+        if (file == null) return null;
+
+        entry = load(file, now);
+        if (entry == null) return null;
+
+        Entry previous = entries.putIfAbsent(path, entry);
+        if (previous != null) return previous;
+        if (totalBytes.addAndGet(entry.bytes()) > maxBytes) evict();
+        return entry;
+    }
+
+    private File resolve(String path) {
+        // Chemin brut de la requête : normalisé avant le test WEB-INF / META-INF
+        if (!PathGuard.isPublic(path)) return null;
+        String upper = path.toUpperCase();
+        if (upper.endsWith(".JSP") || upper.endsWith(".JSPX")) return null;
+        String real = context.getRealPath(path);
+        if (real == null) return null; // war non décompressé
+        File file = new File(real);
+        if (!file.isFile() || file.length() > maxEntryBytes) return null;
+        return file;
+    }
+
+    private Entry load(File file, long now) throws IOException {
+        long lastModified = file.lastModified();
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        String contentType = context.getMimeType(file.getName());
+        if (contentType == null) contentType = "application/octet-stream";
+        if (contentType.startsWith("text/") && !contentType.contains("charset")) contentType += ";charset=UTF-8";
+
+        byte[] gzipped = null;
+        File prebuilt = new File(file.getPath() + ".gz");
+        if (prebuilt.isFile() && prebuilt.lastModified() >= lastModified) {
+            gzipped = Files.readAllBytes(prebuilt.toPath());
+        } else if (bytes.length >= MIN_GZIP_SIZE && compressible(contentType)) {
+            gzipped = gzip(bytes);
+            if (gzipped.length >= bytes.length) gzipped = null;
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        String tag = Long.toHexString(bytes.length) + "-" + Long.toHexString(crc.getValue());
+
+        return new Entry(file, offHeap(bytes), gzipped == null ? null : offHeap(gzipped),
+                "\"" + tag + "\"", "\"" + tag + "-gz\"", contentType, lastModified, now);
+    }
+
+    private static boolean compressible(String contentType) {
+        return contentType.startsWith("text/") || contentType.contains("javascript")
+                || contentType.contains("json") || contentType.contains("xml") || contentType.contains("svg");
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static ByteBuffer offHeap(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private void remove(String path, Entry entry) {
+        if (entries.remove(path, entry)) totalBytes.addAndGet(-entry.bytes());
+    }
+
+    // Éviction des entrées les moins récemment servies jusqu'à repasser sous la limite
+    private synchronized void evict() {
+        if (totalBytes.get() <= maxBytes) return;
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                .takeWhile(e -> totalBytes.get() > maxBytes)
+                .forEach(e -> remove(e.getKey(), e.getValue()));
+    }
+
+    private static final class Entry {
+        final File file;
+        final ByteBuffer content;
+        final ByteBuffer gzip;
+        final String etag;
+        final String gzipEtag;
+        final String contentType;
+        final long lastModified;
+        volatile long checkedAt;
+        volatile long lastAccess = System.nanoTime();
+
+        Entry(File file, ByteBuffer content, ByteBuffer gzip, String etag, String gzipEtag,
+              String contentType, long lastModified, long checkedAt) {
+            this.file = file;
+            this.content = content;
+            this.gzip = gzip;
+            this.etag = etag;
+            this.gzipEtag = gzipEtag;
+            this.contentType = contentType;
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+
+        long bytes() {
+            return content.capacity() + (gzip == null ? 0 : gzip.capacity());
+        }
+    }
+}
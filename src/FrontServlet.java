@@ -3,11 +3,44 @@ import jakarta.servlet.http.*;
 import java.io.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import framework.controllers.Controller;
 import framework.annotation.UrlHandler;
+import framework.annotation.Cacheable;
+import framework.scanner.ArgumentBinder;
+import framework.scanner.AsyncExecutors;
+import framework.scanner.BatchHandler;
+import framework.scanner.CapturingResponse;
+import framework.scanner.CompressingResponse;
+import framework.scanner.FormParameters;
+import framework.scanner.FormRequest;
+import framework.scanner.MetricsExporter;
+import framework.scanner.ETagResponse;
+import framework.scanner.ResponseCache;
+import framework.scanner.ResponseFormat;
+import framework.scanner.ResultStreamer;
+import framework.scanner.ResponseCompression;
 import framework.scanner.Scanner;
+import framework.scanner.StaticResources;
 import framework.scanner.ModelView;
 import framework.scanner.MappedMethod;
+import framework.scanner.RouteIndex;
+import framework.scanner.RouteLimiter;
+import framework.scanner.RouteMatch;
+import framework.scanner.RouteMetrics;
+import framework.scanner.RouteTable;
+import framework.utils.ApiResponse;
+import framework.utils.Converters;
+import framework.view.TemplateEngine;
+import framework.utils.JsonUtils;
+import framework.utils.RequestBodyException;
 import jakarta.servlet.annotation.MultipartConfig;
 
 
@@ -21,18 +54,104 @@ public class FrontServlet extends HttpServlet {
     
     private RequestDispatcher defaultDispatcher;
     private Map<String, List<MappedMethod>> urlMappings = new HashMap<>();
+    private RouteTable routeTable = RouteTable.build(urlMappings);
+    private ExecutorService asyncExecutor;
+    private ResponseCompression compression;
+    private StaticResources staticResources;
+    private String metricsPath; // null : endpoint des métriques désactivé
+    private BatchHandler batch;  // null : route de lot désactivée
+    private TemplateEngine templateEngine;
+    private boolean etagAll;     // etag=true : GET conditionnel pour toutes les routes @Json / ModelView
+    private int etagMaxBytes;
+    private ResultStreamer streamer;
+
+    private static final String ASYNC_ATTRIBUTE = "framework.async";
+    private static final String ASYNC_DONE_ATTRIBUTE = "framework.async.done"; // AtomicBoolean : réponse déjà prise
 
     @Override
     public void init() throws ServletException {
         defaultDispatcher = getServletContext().getNamedDispatcher("default");
 
+        // 🔹 JSON compact par défaut, lisible si jsonPretty=true
+        JsonUtils.setPrettyPrinting(Boolean.parseBoolean(config("jsonPretty")));
+
+        // 🔹 Taille maximale d'un corps @JsonBody (1 Mo par défaut, -1 : illimitée)
+        JsonUtils.setMaxBodyBytes(configLong("jsonBodyMaxBytes", 1024 * 1024));
+
+        // 🔹 Formulaires urlencoded : 2 Mo et 1000 paramètres par défaut (-1 : illimité)
+        FormParameters.setMaxBodyBytes(configLong("formMaxBytes", 2L * 1024 * 1024));
+        FormParameters.setMaxParameters((int) configLong("formMaxParameters", 1000));
+
+        // 🔹 Listes liées par indice ("es[3].nom") : 256 éléments au plus par défaut
+        ArgumentBinder.setMaxListSize((int) configLong("formMaxListSize", 256));
+
+        // 🔹 Cache des ressources statiques (64 Mo au total, 2 Mo par fichier par défaut)
+        staticResources = new StaticResources(getServletContext(),
+                configLong("staticCacheMaxBytes", 64L * 1024 * 1024),
+                configLong("staticCacheMaxFileBytes", 2L * 1024 * 1024));
+
+        // 🔹 Cache des réponses @Cacheable (32 Mo par défaut)
+        ResponseCache.install(new ResponseCache(configLong("responseCacheMaxBytes", 32L * 1024 * 1024)));
+
+        // 🔹 Vues .tpl compilées (alternative aux JSP), dans /WEB-INF/views/
+        templateEngine = new TemplateEngine(getServletContext(), "/WEB-INF/views/");
+
+        // 🔹 Compression des réponses des routes (gzip/deflate) : niveau 1-9, seuil en octets, types compressibles
+        compression = new ResponseCompression(
+                !"false".equalsIgnoreCase(config("compression")),
+                (int) configLong("compressionLevel", 6),
+                (int) configLong("compressionMinBytes", 1024),
+                ResponseCompression.parseTypes(config("compressionTypes")));
+
+        // 🔹 GET conditionnel : @ETag par route, ou etag=true pour toutes les routes @Json / ModelView ;
+        //    corps gardé jusqu'à etagMaxBytes (1 Mo par défaut) pour calculer l'ETag
+        etagAll = Boolean.parseBoolean(config("etag"));
+        etagMaxBytes = (int) configLong("etagMaxBytes", 1024 * 1024);
+
+        // 🔹 Résultats @Json en flux (Stream, Iterator, Producer) : vidés tous les N éléments ou toutes les N ms
+        streamer = new ResultStreamer((int) configLong("streamFlushElements", 256), configLong("streamFlushMillis", 200));
+
+        // 🔹 Endpoint des métriques par route (ex: metricsPath=/_metrics)
+        metricsPath = config("metricsPath");
+
+        // 🔹 Route de lot : désactivée sans batchPath ; pool borné (batchThreads), taille max (batchMaxRequests)
+        String batchPath = config("batchPath");
+        if (batchPath != null) {
+            batch = new BatchHandler(batchPath,
+                    (int) configLong("batchThreads", 2L * Runtime.getRuntime().availableProcessors()),
+                    (int) configLong("batchMaxRequests", 50));
+        }
+
+        // 🔹 Exécuteur des méthodes @Async et des Callable (threads virtuels si disponibles)
+        asyncExecutor = AsyncExecutors.newTaskExecutor("framework-async", (int) configLong("asyncThreads", 200));
+
+        // 🔹 Convertisseurs de l'application (META-INF/services/framework.utils.ConverterProvider),
+        //    chargés avant que les routes ne résolvent les leurs
+        Converters.loadProviders(Thread.currentThread().getContextClassLoader());
+
         try {
-            // 🔹 Scanner toutes les classes du projet
-            String classesPath = getServletContext().getRealPath("/WEB-INF/classes");
-            File baseDir = new File(classesPath);
+            // 🔹 Index des routes généré à la compilation (RouteIndexProcessor) ; il doit couvrir
+            //    tous les contrôleurs, sinon routeIndex=false force le scan
+            urlMappings = "false".equalsIgnoreCase(config("routeIndex")) ? null
+                    : RouteIndex.load(Thread.currentThread().getContextClassLoader());
 
-            // 🔹 Charger toutes les routes automatiquement
-            urlMappings = Scanner.loadAllRoutes(baseDir);
+            if (urlMappings == null) {
+                // 🔹 Pas d'index (ou routeIndex=false) : scanner le bytecode des classes et des jars du projet
+                System.out.println("ℹ️ Pas d'index de routes, scan de /WEB-INF/classes et /WEB-INF/lib");
+                String classesPath = getServletContext().getRealPath("/WEB-INF/classes");
+                String libPath = getServletContext().getRealPath("/WEB-INF/lib");
+                urlMappings = Scanner.loadAllRoutes(
+                        classesPath == null ? null : new File(classesPath),
+                        libPath == null ? null : new File(libPath),
+                        Thread.currentThread().getContextClassLoader());
+            }
+
+            // 🔹 Compiler la table de routage (trie immuable) une seule fois
+            routeTable = RouteTable.build(urlMappings);
+
+            // 🔹 Limites par route du fichier limitsFile (prioritaires sur @Limit) ;
+            //    après la table : un fichier illisible ne coûte que ses limites
+            loadLimits(config("limitsFile") != null ? config("limitsFile") : "/WEB-INF/limits.properties");
 
             ///AJOUT : stocker les routes dans le ServletContext pour y accéder plus tard
             ServletContext contexte = getServletContext();
@@ -41,10 +160,60 @@ public class FrontServlet extends HttpServlet {
             Scanner.printRoutes(urlMappings);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            // Une route mal déclarée est déjà écartée seule : ici, c'est le chargement entier
+            // qui a échoué, et une table vide répondrait 404 partout sans le dire
+            throw new ServletException("Chargement des routes impossible", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (asyncExecutor != null) asyncExecutor.shutdown();
+        if (batch != null) batch.shutdown();
+        if (compression != null) compression.shutdown();
+    }
+
+    // Fichier .properties : pattern de la route = concurrency=.., rate=.., burst=.., adaptive=..
+    // Une entrée invalide est signalée et ignorée (la route garde son @Limit)
+    private void loadLimits(String file) {
+        Properties limits = new Properties();
+        try (InputStream in = getServletContext().getResourceAsStream(file)) {
+            if (in == null) return;
+            limits.load(new InputStreamReader(in, java.nio.charset.StandardCharsets.UTF_8));
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("⚠️ " + file + " illisible, limites ignorées : " + e.getMessage());
+            return;
+        }
+
+        for (String pattern : limits.stringPropertyNames()) {
+            List<MappedMethod> methods = urlMappings.get(pattern);
+            if (methods == null) {
+                System.out.println("⚠️ " + file + " : aucune route " + pattern);
+                continue;
+            }
+            RouteLimiter limiter;
+            try {
+                limiter = RouteLimiter.parse(limits.getProperty(pattern));
+            } catch (IllegalArgumentException e) {
+                System.out.println("⚠️ " + file + " : limite ignorée pour " + pattern + " (" + e.getMessage() + ")");
+                continue;
+            }
+            // Une seule limite partagée par toutes les méthodes HTTP du pattern
+            for (MappedMethod mapped : methods) mapped.setLimiter(limiter);
         }
     }
 
+    // Paramètre de configuration : init-param du servlet, sinon context-param de web.xml
+    private String config(String name) {
+        String value = getServletConfig().getInitParameter(name);
+        return value != null ? value : getServletContext().getInitParameter(name);
+    }
+
+    private long configLong(String name, long defaultValue) {
+        String value = config(name);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
+
     @Override
     protected void service(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
@@ -52,17 +221,37 @@ public class FrontServlet extends HttpServlet {
         String path = request.getRequestURI().substring(request.getContextPath().length());
         if (path.isEmpty() || path.equals("/")) path = "/index.html";
 
-        // 🔹 Gestion automatique des ressources statiques
-        if (Scanner.isStaticResource(path, getServletContext())) {
-            defaultDispatcher.forward(request, response);
+        // 🔹 Endpoint interne des métriques (Prometheus par défaut, JSON avec ?format=json)
+        if (metricsPath != null && path.equals(metricsPath)) {
+            if ("json".equals(request.getParameter("format"))) {
+                MetricsExporter.writeJson(urlMappings, response);
+            } else {
+                MetricsExporter.writePrometheus(urlMappings, response);
+            }
+            return;
+        }
+
+        // 🔹 Lot de sous-requêtes @Json @Batchable exécutées en parallèle (ex: batchPath=/_batch)
+        if (batch != null && path.equals(batch.getPath())) {
+            HttpServletResponse out = compression.wrap(request, response);
+            batch.handle(request, out, routeTable);
+            CompressingResponse.finish(out);
+            return;
+        }
+
+        // 🔹 Gestion automatique des ressources statiques (cache mémoire, sinon dispatcher "default")
+        if (staticResources.isCached(path) || Scanner.isStaticResource(path, getServletContext())) {
+            if (!staticResources.serve(path, request, response)) {
+                defaultDispatcher.forward(request, response);
+            }
             return;
         }
 
         String httpMethod = request.getMethod().toUpperCase();
-        MappedMethod mapped = Scanner.findMappedMethod(path, httpMethod, urlMappings);
+        RouteMatch match = routeTable.match(path, httpMethod);
 
-        if (mapped != null) {
-            executeRoute(path, request, response, mapped);
+        if (match != null) {
+            executeRoute(path, request, response, match);
         } else {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
             showResponse(response, path,
@@ -71,38 +260,325 @@ public class FrontServlet extends HttpServlet {
     }
 
     private void executeRoute(String path, HttpServletRequest request, HttpServletResponse response,
-        MappedMethod mapped) throws IOException {
+        RouteMatch match) throws IOException {
+        MappedMethod mapped = match.getMappedMethod();
+
+        // 🔹 Contrôle d'admission : refus immédiat, avant la liaison et la création du contrôleur
+        RouteLimiter limiter = mapped.getLimiter();
+        if (limiter != null) {
+            long verdict = limiter.tryAcquire();
+            if (verdict != RouteLimiter.ADMITTED) {
+                reject(request, response, mapped, verdict);
+                return;
+            }
+        }
+
+        // Paramètres lus par FormParameters (décodés à la demande) pour la liaison comme pour le contrôleur
+        request = FormRequest.wrap(request);
+        // Compression gzip/deflate selon Accept-Encoding (sous CapturingResponse : le cache garde le corps brut)
+        response = compression.wrap(request, response);
+        RouteMetrics metrics = mapped.getMetrics();
+        long start = metrics.enter();
         try {
-            Object result = mapped.invoke(request, path);
+            invokeRoute(path, request, response, match, start);
+        } finally {
+            // Requête passée en asynchrone : la latence est enregistrée par le listener de startAsync
+            if (request.getAttribute(ASYNC_ATTRIBUTE) == null) {
+                try {
+                    CompressingResponse.finish(response);
+                } finally {
+                    long elapsed = metrics.exit(start);
+                    if (limiter != null) limiter.release(elapsed);
+                }
+            }
+        }
+    }
 
-            // ✅ Si la méthode est annotée @Json
-            if (mapped.isJson()) {
-                Scanner.sendJson(response, result, null);
+    // 503 (concurrence) ou 429 (débit) avec Retry-After en secondes
+    private void reject(HttpServletRequest request, HttpServletResponse response, MappedMethod mapped, long verdict) throws IOException {
+        boolean rate = verdict > 0;
+        mapped.getMetrics().reject(rate ? "rate" : "concurrency");
+        int status = rate ? 429 : HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+        long retryAfter = rate ? Math.max(1, (verdict + 999_999_999L) / 1_000_000_000L) : 1;
+
+        response.setStatus(status);
+        response.setHeader("Retry-After", Long.toString(retryAfter));
+        if (mapped.isJson()) {
+            Scanner.sendApiResponse(request, response, new ApiResponse("error", status, null));
+        } else {
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().print(rate ? "Trop de requêtes, réessayez plus tard" : "Service surchargé, réessayez plus tard");
+        }
+    }
+
+    private void invokeRoute(String path, HttpServletRequest request, HttpServletResponse response,
+        RouteMatch match, long start) throws IOException {
+        MappedMethod mapped = match.getMappedMethod();
+
+        // 🔹 @Async : la méthode s'exécute sur l'exécuteur, le thread du conteneur est libéré
+        if (mapped.isAsync() && request.isAsyncSupported()) {
+            AsyncContext async = startAsync(request, response, path, mapped, start);
+            asyncExecutor.execute(() -> {
+                try {
+                    handleResult(path, request, response, mapped, mapped.invoke(request, match), async, start);
+                } catch (Exception e) {
+                    handleError(path, request, response, mapped, e, async);
+                }
+            });
+            return;
+        }
+
+        // Réponse @Json négociée selon Accept : Vary posé aussi pour les 304 et les hits du cache
+        ResponseFormat format = mapped.isJson() ? ResponseFormat.negotiate(request.getHeader("Accept")) : ResponseFormat.JSON;
+        if (mapped.isJson()) response.addHeader("Vary", "Accept");
+        HttpServletResponse out = response;
+
+        // 🔹 GET conditionnel : version du contrôleur (304 sans invoquer la route), sinon ETag du corps
+        ETagResponse etag = null;
+        if (isConditional(mapped, request)) {
+            if (mapped.hasVersion()) {
+                try {
+                    if (ETagResponse.notModified(request, response, mapped.version(request, match), format.name())) return;
+                } catch (Exception e) {
+                    handleError(path, request, response, mapped, e, null);
+                    return;
+                }
+            } else {
+                out = etag = new ETagResponse(response, request, etagMaxBytes);
+            }
+        }
+
+        // 🔹 @Cacheable : un hit renvoie les octets déjà sérialisés, sans invoquer la méthode
+        Cacheable cacheable = mapped.getCacheable();
+        String cacheKey = null;
+        if (cacheable != null && "GET".equals(request.getMethod())) {
+            ResponseCache cache = ResponseCache.shared();
+            // Une entrée par format négocié (JSON / CBOR) pour les routes @Json
+            cacheKey = ResponseCache.key(path, request, cacheable, format == ResponseFormat.JSON ? null : format.name());
+            if (cache.serve(cacheKey, out)) {
+                if (etag != null) etag.finish();
+                return;
+            }
+            out = new CapturingResponse(out, cache.getMaxEntryBytes());
+        }
+
+        try {
+            Object result = mapped.invoke(request, match);
+            handleResult(path, request, out, mapped, result, null, start);
+
+            // Seule une réponse 200 produite de façon synchrone est mise en cache
+            if (out instanceof CapturingResponse capture
+                    && !request.isAsyncStarted() && response.getStatus() == HttpServletResponse.SC_OK) {
+                ResponseCache.shared().put(cacheKey, response.getContentType(),
+                        capture.getCapturedBody(), cacheable.ttl());
+            }
+        } catch (Exception e) {
+            handleError(path, request, out, mapped, e, null);
+        }
+        // Writer de la copie vidé avant la fin de la compression
+        if (out != response && !request.isAsyncStarted()) out.flushBuffer();
+        // Corps complet : ETag calculé, puis 304 ou corps envoyé
+        if (etag != null && !request.isAsyncStarted()) etag.finish();
+    }
+
+    private boolean isConditional(MappedMethod mapped, HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) return false;
+        return mapped.getETag() != null || (etagAll && (mapped.isJson() || mapped.returnsView()));
+    }
+
+    /**
+     * Traite le résultat d'une méthode : les résultats asynchrones (CompletionStage,
+     * Callable) sont attendus via AsyncContext, les autres sont rendus directement.
+     * async == null tant que la requête est synchrone.
+     */
+    private void handleResult(String path, HttpServletRequest request, HttpServletResponse response,
+        MappedMethod mapped, Object result, AsyncContext async, long start) throws Exception {
+
+        if (result instanceof CompletionStage<?> stage) {
+            CompletableFuture<?> future = stage.toCompletableFuture();
+            if (!future.isDone() && async == null && request.isAsyncSupported()) {
+                AsyncContext started = startAsync(request, response, path, mapped, start);
+                future.whenComplete((value, error) -> {
+                    try {
+                        if (error != null) throw unwrap(error);
+                        handleResult(path, request, response, mapped, value, started, start);
+                    } catch (Exception e) {
+                        handleError(path, request, response, mapped, e, started);
+                    }
+                });
+                return;
+            }
+            // Déjà terminé, ou servlet sans async-supported : attente sur ce thread
+            Object value;
+            try {
+                value = future.get();
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+            handleResult(path, request, response, mapped, value, async, start);
+            return;
+        }
+
+        if (result instanceof Callable<?> callable) {
+            if (async == null && request.isAsyncSupported()) {
+                AsyncContext started = startAsync(request, response, path, mapped, start);
+                asyncExecutor.execute(() -> {
+                    try {
+                        handleResult(path, request, response, mapped, callable.call(), started, start);
+                    } catch (Exception e) {
+                        handleError(path, request, response, mapped, e, started);
+                    }
+                });
                 return;
             }
+            handleResult(path, request, response, mapped, callable.call(), async, start);
+            return;
+        }
+
+        // Délai dépassé : le 503 est parti et la réponse a pu être recyclée, résultat abandonné
+        if (async != null && !claim(request)) {
+            System.out.println("⚠️ Résultat ignoré après le délai : " + path);
+            ResultStreamer.close(result); // flux jamais parcouru : source fermée, contrôleur poolé rendu
+            return;
+        }
+
+        // ✅ Si la méthode est annotée @Json
+        if (mapped.isJson()) {
+            if (ResultStreamer.isStreamed(result)) {
+                // Éléments envoyés au fil de l'eau : pas de corps gardé pour l'ETag
+                ETagResponse.bypass(response);
+                streamer.send(request, response, result);
+            } else {
+                Scanner.sendJson(request, response, result, null);
+            }
+            complete(async);
+            return;
+        }
 
-            if (result instanceof ModelView mv) {
-                for (var entry : mv.getData().entrySet()) {
+        if (result instanceof ModelView mv) {
+            // 🔹 Vue .tpl : rendue directement depuis le modèle, sans attributs de requête ni JSP
+            if (TemplateEngine.handles(mv.getView())) {
+                templateEngine.render(mv.getView(), mv.getData(), response);
+                complete(async);
+                return;
+            }
+            for (var entry : mv.getData().entrySet()) {
                 request.setAttribute(entry.getKey(), entry.getValue());
             }
             String jspPath = "/WEB-INF/views/" + mv.getView();
-            RequestDispatcher dispatcher = request.getRequestDispatcher(jspPath);
-            dispatcher.forward(request, response);
+            if (async != null) {
+                // Après le dispatch, la fin de réponse appartient au conteneur : pas de compression
+                CompressingResponse.bypass(response);
+                async.dispatch(jspPath); // termine la requête asynchrone après la JSP
             } else {
-                showDetailedResponse(response, path, mapped, result);
+                RequestDispatcher dispatcher = request.getRequestDispatcher(jspPath);
+                dispatcher.forward(request, response);
+            }
+        } else {
+            showDetailedResponse(response, path, mapped, result);
+            complete(async);
+        }
+    }
+
+    private void handleError(String path, HttpServletRequest request, HttpServletResponse response, MappedMethod mapped,
+        Exception e, AsyncContext async) {
+        if (async != null && !claim(request)) {
+            // Après le délai : erreur déjà comptée (timeout), réponse plus à nous
+            System.out.println("⚠️ Erreur ignorée après le délai : " + path + " (" + e + ")");
+            return;
+        }
+        e.printStackTrace();
+        mapped.getMetrics().error(e);
+        try {
+            // Réponse déjà partiellement envoyée : on ne peut plus rien réécrire
+            if (response.isCommitted()) return;
+            response.resetBuffer();
+
+            // Corps @JsonBody refusé : 400 (JSON invalide) ou 413 (trop volumineux)
+            if (e instanceof RequestBodyException) {
+                response.setStatus(((RequestBodyException) e).getStatus());
             }
 
-        } catch (Exception e) {
-                e.printStackTrace();
+            // Si méthode @Json : renvoyer JSON d'erreur
+            if (mapped.isJson()) {
+                Scanner.sendJson(request, response, null, e);
+            } else {
+                showError(response, path, e.getMessage());
+            }
+        } catch (IOException io) {
+            io.printStackTrace();
+        } finally {
+            complete(async);
+        }
+    }
 
-                // Si méthode @Json : renvoyer JSON d'erreur
-                if (mapped.isJson()) {
-                    Scanner.sendJson(response, null, e);
+    private AsyncContext startAsync(HttpServletRequest request, HttpServletResponse response,
+        String path, MappedMethod mapped, long start) throws IOException {
+        request.setAttribute(ASYNC_ATTRIBUTE, Boolean.TRUE);
+        request.setAttribute(ASYNC_DONE_ATTRIBUTE, new AtomicBoolean());
+        // Le corps s'écrira sur un autre thread : plus d'ETag calculé sur le corps
+        ETagResponse.bypass(response);
+        AsyncContext async = request.startAsync(request, response);
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                // Résultat déjà en cours d'écriture sur un autre thread : il termine la requête
+                if (!claim(request)) return;
+                TimeoutException timeout = new TimeoutException("Délai dépassé pour " + path);
+                if (response.isCommitted()) {
+                    mapped.getMetrics().error(timeout);
                 } else {
-                    showError(response, path, e.getMessage());
+                    // handleError compte l'erreur dans les métriques
+                    response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    handleError(path, request, response, mapped, timeout, null);
                 }
+                complete(async);
+            }
+
+            // Fin de la requête asynchrone : latence mesurée depuis l'entrée dans executeRoute
+            @Override public void onComplete(AsyncEvent event) {
+                long elapsed = mapped.getMetrics().exit(start);
+                RouteLimiter limiter = mapped.getLimiter();
+                if (limiter != null) limiter.release(elapsed);
+            }
+            @Override public void onError(AsyncEvent event) {}
+            @Override public void onStartAsync(AsyncEvent event) {}
+        });
+        return async;
+    }
+
+    /**
+     * Une seule écriture finale par requête asynchrone : le résultat, l'erreur
+     * ou le 503 du timeout, selon qui arrive le premier. @return true pour
+     * l'appelant qui prend la réponse (toujours true hors asynchrone).
+     */
+    private static boolean claim(HttpServletRequest request) {
+        Object done = request.getAttribute(ASYNC_DONE_ATTRIBUTE);
+        return !(done instanceof AtomicBoolean flag) || flag.compareAndSet(false, true);
+    }
+
+    // complete() après un timeout déjà traité lève IllegalStateException : ignoré
+    private static void complete(AsyncContext async) {
+        if (async == null) return;
+        try {
+            CompressingResponse.finish(async.getResponse());
+            async.complete();
+        } catch (IllegalStateException ignored) {
+        } catch (IOException io) {
+            io.printStackTrace();
+            async.complete();
         }
-}
+    }
+
+    private static Exception unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof Exception e) return e;
+        return new RuntimeException(error);
+    }
 
     private void showDetailedResponse(HttpServletResponse response, String path, MappedMethod mapped, Object result)
             throws IOException {
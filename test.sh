@@ -0,0 +1,24 @@
+#!/bin/bash
+
+# =========================================================
+# TESTS DE NON-RÉGRESSION (hors ligne, sans Tomcat)
+# → compile le framework + tests/ puis lance chaque classe *Test
+# → ./test.sh [Classe]   (ex: ./test.sh StaticPathTest)
+# =========================================================
+
+set -e
+OUT_DIR="test-classes"
+rm -rf "$OUT_DIR"
+mkdir -p "$OUT_DIR"
+
+find . -type f -name "*.java" -not -path "./bench/*" -not -path "./tests/*" | grep -v "/\." > sources.txt
+javac -encoding UTF-8 -parameters -nowarn -cp "lib/*" -d "$OUT_DIR" @sources.txt
+rm sources.txt
+javac -encoding UTF-8 -parameters -nowarn -cp "$OUT_DIR:lib/*" -d "$OUT_DIR" tests/*.java
+
+for test in tests/*Test.java; do
+    name=$(basename "$test" .java)
+    if [ -z "$1" ] || [ "$1" = "$name" ]; then
+        java -ea -cp "$OUT_DIR:lib/*" "framework.scanner.$name"
+    fi
+done
@@ -0,0 +1,27 @@
+package framework.scanner;
+
+/**
+ * Non-régression : Accept-Encoding est lu avec ses q-values, pour la
+ * compression des routes comme pour la variante gzip des fichiers statiques.
+ */
+public class AcceptEncodingTest {
+
+    public static void main(String[] args) {
+        check(ResponseCompression.acceptsGzip("gzip, deflate, br"), "gzip accepté");
+        check(ResponseCompression.acceptsGzip("deflate, gzip;q=0.5"), "gzip accepté avec q=0.5");
+        check(ResponseCompression.acceptsGzip("*"), "gzip accepté par *");
+        check(!ResponseCompression.acceptsGzip("gzip;q=0, deflate"), "gzip;q=0 accepté");
+        check(!ResponseCompression.acceptsGzip("*;q=0"), "*;q=0 accepté");
+        check(!ResponseCompression.acceptsGzip("identity"), "identity accepté comme gzip");
+        check(!ResponseCompression.acceptsGzip(null), "en-tête absent accepté");
+
+        check(ResponseCompression.GZIP.equals(ResponseCompression.negotiate("gzip, deflate")), "gzip préféré");
+        check(ResponseCompression.DEFLATE.equals(ResponseCompression.negotiate("gzip;q=0.5, deflate")), "deflate préféré");
+        check(ResponseCompression.negotiate("gzip;q=0") == null, "gzip;q=0 négocié");
+        System.out.println("✅ AcceptEncodingTest : OK");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
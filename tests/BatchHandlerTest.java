@@ -0,0 +1,105 @@
+package framework.scanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import framework.annotation.Batchable;
+import framework.annotation.Json;
+import framework.annotation.UrlGet;
+import framework.controllers.Controller;
+
+/**
+ * Non-régression : seules les routes @Batchable passent dans un lot, et la
+ * requête du conteneur n'est lue que sur le thread du lot (les sous-requêtes
+ * du pool voient un instantané de ses en-têtes).
+ */
+public class BatchHandlerTest {
+
+    @Controller
+    public static class Api {
+        @UrlGet("/open") @Json @Batchable
+        public String open(HttpServletRequest request) { return request.getHeader("X-Tenant"); }
+
+        @UrlGet("/closed") @Json
+        public String closed() { return "secret"; }
+    }
+
+    public static void main(String[] args) throws Exception {
+        RouteTable routes = RouteTable.build(Scanner.loadRoutes(List.of(Api.class)));
+        BatchHandler handler = new BatchHandler("/_batch", 2, 50);
+        Set<Thread> readers = ConcurrentHashMap.newKeySet();
+        try {
+            String calls = "[{\"path\":\"/open\"},{\"path\":\"/open\"},{\"path\":\"/open\"},{\"path\":\"/closed\"}]";
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            handler.handle(request(calls, readers), response(out), routes);
+
+            JsonArray results = JsonParser.parseString(out.toString(StandardCharsets.UTF_8)).getAsJsonArray();
+            for (int i = 0; i < 3; i++) {
+                check(results.get(i).getAsJsonObject().get("code").getAsInt() == 200, "/open refusée : " + results);
+                check("acme".equals(results.get(i).getAsJsonObject().get("data").getAsString()), "en-tête perdu : " + results);
+            }
+            check(results.get(3).getAsJsonObject().get("code").getAsInt() == 403, "/closed sans @Batchable : " + results);
+            check(readers.equals(Set.of(Thread.currentThread())), "requête du lot lue depuis " + readers);
+        } finally {
+            handler.shutdown();
+        }
+        System.out.println("✅ BatchHandlerTest : OK");
+    }
+
+    // Requête du conteneur : note chaque thread qui la lit
+    private static HttpServletRequest request(String body, Set<Thread> readers) {
+        ByteArrayInputStream in = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        ServletInputStream input = new ServletInputStream() {
+            @Override public int read() { return in.read(); }
+            @Override public boolean isFinished() { return in.available() == 0; }
+            @Override public boolean isReady() { return true; }
+            @Override public void setReadListener(ReadListener listener) {}
+        };
+        Map<String, String> headers = Map.of("X-Tenant", "acme", "Content-Type", "application/json");
+        return (HttpServletRequest) Proxy.newProxyInstance(BatchHandlerTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, (proxy, method, margs) -> {
+                    readers.add(Thread.currentThread());
+                    switch (method.getName()) {
+                        case "getMethod": return "POST";
+                        case "getInputStream": return input;
+                        case "getHeaderNames": return Collections.enumeration(headers.keySet());
+                        case "getHeaders": return Collections.enumeration(List.of(headers.get((String) margs[0])));
+                        case "getAttributeNames": return Collections.emptyEnumeration();
+                        case "getLocales": return Collections.emptyEnumeration();
+                        case "getContextPath": return "";
+                        case "getServerPort": return 80;
+                        case "isSecure": return false;
+                        default: return null;
+                    }
+                });
+    }
+
+    private static HttpServletResponse response(ByteArrayOutputStream out) {
+        ServletOutputStream output = new ServletOutputStream() {
+            @Override public void write(int b) { out.write(b); }
+            @Override public boolean isReady() { return true; }
+            @Override public void setWriteListener(WriteListener listener) {}
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(BatchHandlerTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletResponse.class },
+                (proxy, method, margs) -> method.getName().equals("getOutputStream") ? output : null);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,37 @@
+package framework.scanner;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Non-régression : un .class tronqué n'interrompt pas le scan, les autres
+ * contrôleurs du dossier sont trouvés.
+ */
+public class ClassFileScannerTest {
+
+    public static void main(String[] args) throws Exception {
+        byte[] controller;
+        try (InputStream in = RouteTableTest.Mixed.class.getResourceAsStream("RouteTableTest$Mixed.class")) {
+            controller = in.readAllBytes();
+        }
+        check(RouteTableTest.Mixed.class.getName().equals(ClassFileScanner.controllerName(controller)),
+                "contrôleur non reconnu");
+
+        File dir = Files.createTempDirectory("class-scan").toFile();
+        Files.write(new File(dir, "Good.class").toPath(), controller);
+        for (int length : new int[] { 12, controller.length / 2 }) {
+            Files.write(new File(dir, "Cut" + length + ".class").toPath(), Arrays.copyOf(controller, length));
+        }
+
+        List<String> names = ClassFileScanner.findControllerClassNames(dir, null);
+        check(names.equals(List.of(RouteTableTest.Mixed.class.getName())), "scan interrompu ou incomplet : " + names);
+        System.out.println("✅ ClassFileScannerTest : OK");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
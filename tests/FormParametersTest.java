@@ -0,0 +1,92 @@
+package framework.scanner;
+
+import java.nio.charset.StandardCharsets;
+import framework.utils.RequestBodyException;
+
+/**
+ * Non-régression : clés répétées (ordre des valeurs, coût linéaire), clés en
+ * collision pour String.hashCode, plafond du nombre de paramètres, query
+ * string en UTF-8 quel que soit le charset du corps, charset invalide → 400.
+ */
+public class FormParametersTest {
+
+    public static void main(String[] args) {
+        repeatedKeys();
+        collidingKeys();
+        parameterCap();
+        charsets();
+        System.out.println("✅ FormParametersTest : OK");
+    }
+
+    static void repeatedKeys() {
+        FormParameters form = FormParameters.ofQuery("a=1&b=x&a=2&a=3&c&a=%34");
+        check(String.join(",", form.getValues("a")).equals("1,2,3,4"), "valeurs de a dans le désordre");
+        check("".equals(form.get("c")), "c sans valeur");
+
+        // 100 000 fois la même clé : sans index de fin de chaîne, le parcours est quadratique
+        FormParameters.setMaxParameters(-1);
+        try {
+            int n = 100_000;
+            StringBuilder query = new StringBuilder();
+            for (int i = 0; i < n; i++) query.append(i == 0 ? "" : "&").append("k=").append(i);
+            long start = System.nanoTime();
+            String[] values = FormParameters.ofQuery(query.toString()).getValues("k");
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            check(values.length == n && values[n - 1].equals(Integer.toString(n - 1)), "valeurs de k incomplètes");
+            check(millis < 2000, "clé répétée trop lente : " + millis + " ms");
+        } finally {
+            FormParameters.setMaxParameters(1000);
+        }
+    }
+
+    // "Aa" et "BB" ont le même String.hashCode, donc toutes leurs concaténations aussi
+    static void collidingKeys() {
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < 512; i++) {
+            StringBuilder key = new StringBuilder();
+            for (int bit = 0; bit < 9; bit++) key.append((i >> bit & 1) == 0 ? "Aa" : "BB");
+            query.append(i == 0 ? "" : "&").append(key).append('=').append(i);
+        }
+        FormParameters form = FormParameters.ofQuery(query.toString());
+        check(form.toMap().size() == 512, "clés en collision fusionnées");
+        check("0".equals(form.get("AaAaAaAaAaAaAaAaAa")), "clé en collision introuvable");
+        check("511".equals(form.get("BBBBBBBBBBBBBBBBBB")), "clé en collision introuvable");
+    }
+
+    static void parameterCap() {
+        FormParameters.setMaxParameters(3);
+        try {
+            // Segments vides et clés vides ne comptent pas
+            FormParameters.ofQuery("a=1&&b=2&=x&c=3");
+            try {
+                FormParameters.ofQuery("a=1&b=2&c=3&d=4");
+                check(false, "4 paramètres acceptés avec formMaxParameters=3");
+            } catch (RequestBodyException e) {
+                check(e.getStatus() == 400, "statut " + e.getStatus() + " au lieu de 400");
+            }
+        } finally {
+            FormParameters.setMaxParameters(1000);
+        }
+    }
+
+    static void charsets() {
+        byte[] body = "b=%E9&a=2".getBytes(StandardCharsets.US_ASCII); // "é" en ISO-8859-1
+        FormParameters form = FormParameters.parse("q=%C3%A9&a=1", body, StandardCharsets.ISO_8859_1);
+        check("é".equals(form.get("q")), "query décodée avec le charset du corps : " + form.get("q"));
+        check("é".equals(form.get("b")), "corps ISO-8859-1 mal décodé : " + form.get("b"));
+        check(String.join(",", form.getValues("a")).equals("1,2"), "a : query puis corps");
+
+        for (String encoding : new String[] { "x-inconnu", "pas un nom" }) {
+            try {
+                FormParameters.bodyCharset(encoding);
+                check(false, "charset " + encoding + " accepté");
+            } catch (RequestBodyException e) {
+                check(e.getStatus() == 400, "statut " + e.getStatus() + " au lieu de 400");
+            }
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,46 @@
+package framework.scanner;
+
+import java.util.List;
+
+/**
+ * Non-régression : un indice de liste venu du client est plafonné
+ * (formMaxListSize) ; "es[999999999].nom" ne crée pas un milliard d'éléments.
+ */
+public class ListIndexTest {
+
+    public static class Emp {
+        public String nom;
+    }
+
+    public static class Dept {
+        public List<Emp> es;
+    }
+
+    public static void main(String[] args) {
+        Dept dept = new Dept();
+        PropertyAccessors.set(dept, "es[2].nom", new String[]{"c"});
+        check(dept.es != null && dept.es.size() == 3 && "c".equals(dept.es.get(2).nom), "es[2].nom non lié");
+
+        PropertyAccessors.set(dept, "es[999999999].nom", new String[]{"x"});
+        PropertyAccessors.set(dept, "es[256].nom", new String[]{"x"});
+        check(dept.es.size() == 3, "indice hors limite accepté : " + dept.es.size() + " éléments");
+
+        ArgumentBinder.setMaxListSize(1000);
+        try {
+            PropertyAccessors.set(dept, "es[256].nom", new String[]{"y"});
+            check(dept.es.size() == 257 && "y".equals(dept.es.get(256).nom), "limite configurée ignorée");
+        } finally {
+            ArgumentBinder.setMaxListSize(256);
+        }
+
+        // Clés inconnues en nombre : le chemin valide reste lié
+        for (int i = 0; i < 5000; i++) PropertyAccessors.set(dept, "inconnu" + i, new String[]{"z"});
+        PropertyAccessors.set(dept, "es[0].nom", new String[]{"a"});
+        check("a".equals(dept.es.get(0).nom), "es[0].nom non lié après des clés inconnues");
+        System.out.println("✅ ListIndexTest : OK");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,66 @@
+package framework.scanner;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+import framework.annotation.Json;
+import framework.controllers.Controller;
+import framework.controllers.Scope;
+
+/**
+ * Non-régression : une instance poolée reste occupée tant que son résultat
+ * s'exécute encore (Callable pas encore appelé, flux pas encore fermé) ; une
+ * autre requête ne peut pas la prendre en même temps.
+ */
+public class PooledControllerTest {
+
+    @Controller(scope = Scope.POOLED, poolSize = 1)
+    public static class Pooled {
+        @Json public Stream<Integer> stream() { return Stream.of(1, 2, 3); }
+        @Json public Callable<String> later() { return () -> "ok"; }
+        @Json public String now() { return "ok"; }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ControllerProvider provider = ControllerProvider.of(Pooled.class);
+
+        Object stream = invoke(provider, "stream");
+        check(busy(provider), "instance rendue avant la fermeture du flux");
+        check(ResultStreamer.collect(stream).equals(List.of(1, 2, 3)), "éléments du flux");
+        check(!busy(provider), "instance non rendue après la fermeture du flux");
+
+        Callable<?> callable = (Callable<?>) invoke(provider, "later");
+        check(busy(provider), "instance rendue avant l'appel du Callable");
+        check("ok".equals(callable.call()), "valeur du Callable");
+        check(!busy(provider), "instance non rendue après l'appel du Callable");
+
+        invoke(provider, "now");
+        check(!busy(provider), "instance non rendue après un résultat simple");
+        System.out.println("✅ PooledControllerTest : OK");
+    }
+
+    private static Object invoke(ControllerProvider provider, String name) throws Exception {
+        Method method = Pooled.class.getMethod(name);
+        MappedMethod mapped = new MappedMethod(provider, method, "/" + name, "GET");
+        return mapped.invoke(null, RouteMatch.forPath(mapped, "/" + name));
+    }
+
+    // Pool d'une instance : acquire() attend tant qu'elle est prise ; le thread la rend aussitôt obtenue
+    private static boolean busy(ControllerProvider provider) throws Exception {
+        Thread thread = new Thread(() -> {
+            try {
+                provider.release(provider.acquire());
+            } catch (Exception ignored) {
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        thread.join(300);
+        return thread.isAlive();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
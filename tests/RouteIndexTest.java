@@ -0,0 +1,67 @@
+package framework.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import framework.processor.RouteIndexProcessor;
+
+/**
+ * Non-régression : les index de routes de plusieurs jars / dossiers sont
+ * fusionnés (formats v1 et v2), et un index invalide fait revenir au scan
+ * (load() → null) au lieu d'interrompre le démarrage.
+ */
+public class RouteIndexTest {
+
+    public static class First {
+        public String a() { return "a"; }
+    }
+
+    public static class Second {
+        public String b(String id) { return id; }
+    }
+
+    public static void main(String[] args) throws Exception {
+        File one = index("GET\t/a\t" + First.class.getName() + "\ta\t");
+        File two = index("GET\t/b/{id}\t" + Second.class.getName() + "\tb\tjava.lang.String\t-"); // format v1
+        File stale = index("GET\t/c\t" + Second.class.getName() + "\tremoved\t");
+
+        Map<String, List<MappedMethod>> routes = RouteIndex.load(loader(one, two, one));
+        check(routes != null && routes.keySet().equals(Set.of("/a", "/b/{id}")), "index non fusionnés : " + routes);
+        check(routes.get("/a").size() == 1, "ligne en double non ignorée");
+
+        check(RouteIndex.load(loader(one, stale)) == null, "index obsolète accepté");
+        check(RouteIndex.load(loader()) == null, "aucun index : null attendu");
+        System.out.println("✅ RouteIndexTest : OK");
+    }
+
+    private static File index(String line) throws Exception {
+        File root = Files.createTempDirectory("route-index").toFile();
+        File file = new File(root, RouteIndexProcessor.INDEX_RESOURCE);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), (line + "\n").getBytes(StandardCharsets.UTF_8));
+        return root;
+    }
+
+    // Les index viennent des dossiers ; les classes, du chargeur des tests
+    private static ClassLoader loader(File... roots) throws Exception {
+        URL[] urls = new URL[roots.length];
+        for (int i = 0; i < roots.length; i++) urls[i] = roots[i].toURI().toURL();
+        return new URLClassLoader(urls, RouteIndexTest.class.getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                return findResources(name); // sans l'éventuel index du classpath des tests
+            }
+        };
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
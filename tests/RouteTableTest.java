@@ -0,0 +1,90 @@
+package framework.scanner;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import framework.annotation.ETag;
+import framework.annotation.UrlGet;
+import framework.controllers.Controller;
+
+/**
+ * Non-régression : variables partielles ("user-{id}", "file.{ext}") dans la
+ * RouteTable, priorité statique > partielle > joker, et refus explicite des
+ * segments ambigus ("{nom}.{ext}") : seule la route fautive est écartée,
+ * les autres restent servies.
+ */
+public class RouteTableTest {
+
+    public static class Routes {
+        public String user(String id) { return id; }
+        public String file(String name) { return name; }
+        public String any(String x) { return x; }
+        public String fixed() { return ""; }
+    }
+
+    @Controller
+    public static class Mixed {
+        @UrlGet("/ok/{id}") public String ok(String id) { return id; }
+        @UrlGet("/bad/{a}.{b}") public String ambiguous(String a, String b) { return a + b; }
+        @UrlGet("/brace/{id") public String unbalanced() { return ""; }
+        @UrlGet("/etag") @ETag(version = "introuvable") public String etag() { return ""; }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, List<MappedMethod>> mappings = new LinkedHashMap<>();
+        add(mappings, "/user-{id}", "user");
+        add(mappings, "/files/{name}.json", "file");
+        add(mappings, "/files/{x}", "any");
+        add(mappings, "/files/index.json", "fixed");
+        RouteTable table = RouteTable.build(mappings);
+
+        expect(table, "/user-42", "/user-{id}", "id", "42");
+        expect(table, "/files/report.json", "/files/{name}.json", "name", "report");
+        expect(table, "/files/report.xml", "/files/{x}", "x", "report.xml");
+        expect(table, "/files/.json", "/files/{x}", "x", ".json"); // variable partielle vide : joker
+        expect(table, "/files/index.json", "/files/index.json", null, null);
+        check(table.match("/user-", "GET") == null, "/user- ne doit pas correspondre");
+        check(table.match("/admin-1", "GET") == null, "/admin-1 ne doit pas correspondre");
+
+        // Chemin hors RouteTable (invoke(request, path))
+        MappedMethod user = mappings.get("/user-{id}").get(0);
+        check("7".equals(RouteMatch.forPath(user, "/user-7").getPathVariable("id")), "forPath : id");
+
+        try {
+            add(mappings, "/files/{name}.{ext}", "file");
+            check(false, "{name}.{ext} accepté");
+        } catch (IllegalArgumentException e) {
+            check(e.getMessage().contains("{name}.{ext}"), "message sans le segment : " + e.getMessage());
+        }
+        badRoutesSkipped();
+        System.out.println("✅ RouteTableTest : OK");
+    }
+
+    // Une route mal déclarée n'emporte pas les autres (table vide → 404 partout)
+    static void badRoutesSkipped() {
+        Map<String, List<MappedMethod>> routes = Scanner.loadRoutes(List.of(Mixed.class));
+        check(routes.keySet().equals(Set.of("/ok/{id}")), "routes chargées : " + routes.keySet());
+        RouteMatch match = RouteTable.build(routes).match("/ok/5", "GET");
+        check(match != null && "5".equals(match.getPathVariable("id")), "/ok/5 non servi");
+    }
+
+    private static void add(Map<String, List<MappedMethod>> mappings, String pattern, String name) throws Exception {
+        Method method = null;
+        for (Method m : Routes.class.getMethods()) if (m.getName().equals(name)) method = m;
+        mappings.computeIfAbsent(pattern, k -> new ArrayList<>()).add(new MappedMethod(Routes.class, method, pattern, "GET"));
+    }
+
+    private static void expect(RouteTable table, String path, String pattern, String var, String value) {
+        RouteMatch match = table.match(path, "GET");
+        check(match != null && match.getMappedMethod().getUrlPattern().equals(pattern),
+                path + " → " + (match == null ? "aucune route" : match.getMappedMethod().getUrlPattern()));
+        if (var != null) check(value.equals(match.getPathVariable(var)), path + " : " + var + "=" + match.getPathVariable(var));
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,136 @@
+package framework.scanner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import framework.embedded.EmbeddedServer;
+
+/**
+ * Non-régression : un chemin non normalisé ("/./WEB-INF/...", "//WEB-INF/...")
+ * ne doit jamais servir un fichier de WEB-INF, ni par le cache statique, ni
+ * par le dispatcher "default" du serveur embarqué.
+ */
+public class StaticPathTest {
+
+    private static final String[] BYPASSES = {
+        "/./WEB-INF/web.xml", "//WEB-INF/web.xml", "/WEB-INF/./web.xml", "/x/../WEB-INF/web.xml",
+        "/web-inf/web.xml", "/WEB-INF./web.xml", "/./META-INF/context.xml", "/WEB-INF\\web.xml"
+    };
+
+    public static void main(String[] args) throws Exception {
+        File root = Files.createTempDirectory("static-path").toFile();
+        write(new File(root, "WEB-INF/web.xml"), "<web-app secret/>");
+        write(new File(root, "META-INF/context.xml"), "<Context secret/>");
+        write(new File(root, "index.html"), "<p>public</p>");
+
+        pathGuard();
+        staticResources(root);
+        embedded(root);
+        System.out.println("✅ StaticPathTest : OK");
+    }
+
+    static void pathGuard() {
+        for (String path : BYPASSES) check(!PathGuard.isPublic(path), "PathGuard accepte " + path);
+        check(PathGuard.isPublic("/index.html"), "PathGuard refuse /index.html");
+        check(PathGuard.isPublic("/css/"), "PathGuard refuse /css/");
+        check(PathGuard.isPublic("/WEB-INF-public/a.css"), "PathGuard refuse /WEB-INF-public/a.css");
+    }
+
+    // Contexte dont getRealPath résout comme un conteneur (sans filtrer le chemin)
+    static void staticResources(File root) throws IOException {
+        ServletContext context = (ServletContext) Proxy.newProxyInstance(StaticPathTest.class.getClassLoader(),
+                new Class<?>[]{ServletContext.class}, (p, m, a) -> {
+                    switch (m.getName()) {
+                        case "getRealPath": return new File(root, (String) a[0]).getPath();
+                        case "getMimeType": return "text/plain";
+                        default: return null;
+                    }
+                });
+        StaticResources resources = new StaticResources(context, 1 << 20, 1 << 20);
+        for (String path : BYPASSES) {
+            check(!resources.serve(path, request(), response()), "StaticResources sert " + path);
+        }
+        check(resources.serve("/index.html", request(), response()), "StaticResources ne sert pas /index.html");
+    }
+
+    static void embedded(File root) throws Exception {
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                try {
+                    getServletContext().getNamedDispatcher("default").forward(request, response);
+                } catch (jakarta.servlet.ServletException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+        EmbeddedServer server = new EmbeddedServer(servlet, 0, root).host("127.0.0.1").start();
+        try {
+            for (String path : new String[]{"/./WEB-INF/web.xml", "//WEB-INF/web.xml", "/./META-INF/context.xml"}) {
+                String reply = get(server.getPort(), path);
+                check(reply.startsWith("HTTP/1.1 404") && !reply.contains("secret"), "serveur embarqué sert " + path);
+            }
+            check(get(server.getPort(), "/index.html").contains("public"), "serveur embarqué ne sert pas /index.html");
+        } finally {
+            server.stop();
+        }
+    }
+
+    // Requête brute : le chemin part tel quel, sans normalisation par le client
+    private static String get(int port, String path) throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private static HttpServletRequest request() {
+        return (HttpServletRequest) Proxy.newProxyInstance(StaticPathTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (p, m, a) -> {
+                    switch (m.getName()) {
+                        case "getMethod": return "GET";
+                        case "getDateHeader": return -1L;
+                        default: return null;
+                    }
+                });
+    }
+
+    private static HttpServletResponse response() {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ServletOutputStream stream = new ServletOutputStream() {
+            @Override public void write(int b) { body.write(b); }
+            @Override public boolean isReady() { return true; }
+            @Override public void setWriteListener(WriteListener listener) {}
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(StaticPathTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (p, m, a) ->
+                        m.getName().equals("getOutputStream") ? stream
+                                : m.getReturnType() == boolean.class ? false
+                                : m.getReturnType() == int.class ? 0 : null);
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), content);
+    }
+
+    static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError("❌ " + message);
+    }
+}
@@ -0,0 +1,40 @@
+package framework.scanner;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import framework.view.Template;
+
+/**
+ * Non-régression : propriétés lues sur des classes non publiques du JDK
+ * (vues non modifiables, List.of) par leur interface publique, et sur une
+ * classe interne non publique de l'application.
+ */
+public class TemplateTest {
+
+    static class Inner {
+        public int getSize() { return 7; }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Template template = Template.compile("${s.size} ${s.empty} ${l.size} ${o.present} ${i.size}", "getters");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.render(Map.of(
+                "s", Collections.unmodifiableSet(new TreeSet<>(Set.of(1, 2))),
+                "l", List.of(1, 2, 3),
+                "o", Optional.of("x"),
+                "i", new Inner()), out);
+        String text = out.toString(StandardCharsets.UTF_8);
+        check(text.equals("2 false 3 true 7"), "rendu : \"" + text + "\"");
+        System.out.println("✅ TemplateTest : OK");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -56,7 +56,7 @@ fi
 # ------------------- 3. Compilation avec -parameters -------------------
 echo
 echo "Recherche de tous les fichiers .java..."
-find . -type f -name "*.java" | grep -v "/\." > sources.txt
+find . -type f -name "*.java" -not -path "./bench/*" -not -path "./tests/*" | grep -v "/\." > sources.txt
 
 if [ ! -s sources.txt ]; then
     echo "ERREUR : Aucun fichier .java trouvé !"
@@ -87,6 +87,11 @@ fi
 echo "✅ COMPILATION RÉUSSIE !"
 rm sources.txt
 
+# Enregistrement du processeur d'annotations (index des routes généré par javac
+# pour toute application compilée avec framework.jar dans son classpath)
+mkdir -p "$OUT_DIR/META-INF/services"
+cp processor/META-INF/services/javax.annotation.processing.Processor "$OUT_DIR/META-INF/services/"
+
 # ------------------- 4. COPIE DIRECTE DANS L'APP Test-framework -------------------
 echo
 if [ -d "../Test-framework/WEB-INF/classes" ] || mkdir -p "../Test-framework/WEB-INF/classes" 2>/dev/null; then
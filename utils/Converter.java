@@ -0,0 +1,13 @@
+package framework.utils;
+
+/**
+ * Conversion d'une valeur de requête (paramètre, variable d'URL, champ de
+ * formulaire) vers un type Java.
+ *
+ * Une valeur invalide doit donner null, sans lever d'exception : la
+ * conversion est appelée pour chaque paramètre de chaque requête.
+ */
+@FunctionalInterface
+public interface Converter<T> {
+    T convert(String value);
+}
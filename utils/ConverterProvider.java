@@ -0,0 +1,16 @@
+package framework.utils;
+
+/**
+ * Point d'extension (ServiceLoader) pour ajouter des convertisseurs.
+ *
+ * Déclaré dans META-INF/services/framework.utils.ConverterProvider de
+ * l'application ; appelé une fois par FrontServlet.init(), avant la
+ * compilation des routes :
+ *
+ *   public void register() {
+ *       Converters.register(Money.class, Money::parse);
+ *   }
+ */
+public interface ConverterProvider {
+    void register();
+}
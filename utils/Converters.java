@@ -0,0 +1,273 @@
+package framework.utils;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.ParsePosition;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalQuery;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des convertisseurs String → type, résolu une fois par type
+ * (ClassValue) puis gardé par chaque paramètre / champ lié.
+ *
+ * Les nombres sont lus par des parseurs écrits à la main : aucune allocation
+ * ni exception pour une valeur invalide (le résultat est simplement null).
+ * Types fournis : String, primitifs et leurs wrappers, BigDecimal, BigInteger,
+ * enums, UUID et les principaux types java.time (formats ISO).
+ */
+public final class Converters {
+
+    /** Valeur renvoyée par parseInt / parseLong quand la chaîne est invalide. */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final Converter<Object> UNSUPPORTED = value -> null;
+    private static final Map<Class<?>, Converter<?>> custom = new ConcurrentHashMap<>();
+
+    private static final ClassValue<Converter<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected Converter<?> computeValue(Class<?> type) {
+            Converter<?> converter = custom.get(type);
+            return converter != null ? converter : builtIn(type);
+        }
+    };
+
+    private Converters() {}
+
+    // ------------------------------
+    // 🔹 1. REGISTRE
+    // ------------------------------
+
+    /**
+     * Ajoute (ou remplace) le convertisseur d'un type. Les routes déjà
+     * compilées gardent le convertisseur qu'elles ont résolu.
+     */
+    public static <T> void register(Class<T> type, Converter<? extends T> converter) {
+        custom.put(type, converter);
+        CACHE.remove(type);
+    }
+
+    /** Charge les ConverterProvider déclarés dans META-INF/services. */
+    public static void loadProviders(ClassLoader loader) {
+        try {
+            for (ConverterProvider provider : ServiceLoader.load(ConverterProvider.class, loader)) {
+                provider.register();
+            }
+        } catch (ServiceConfigurationError e) {
+            e.printStackTrace();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Converter<T> forType(Class<T> type) {
+        return (Converter<T>) CACHE.get(type);
+    }
+
+    /** @return false si aucun convertisseur ne gère ce type (objet complexe, collection...) */
+    public static boolean supports(Class<?> type) {
+        return CACHE.get(type) != UNSUPPORTED;
+    }
+
+    public static Object convert(String value, Class<?> type) {
+        if (value == null) return null;
+        return CACHE.get(type).convert(value);
+    }
+
+    /** Valeur par défaut d'un type (0, false... pour les primitifs, sinon null). */
+    public static Object defaultValue(Class<?> type) {
+        return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    // ------------------------------
+    // 🔹 2. CONVERTISSEURS FOURNIS
+    // ------------------------------
+    private static Converter<?> builtIn(Class<?> type) {
+        if (type == String.class) return value -> value;
+
+        if (type == int.class || type == Integer.class) return Converters::toInteger;
+        if (type == long.class || type == Long.class) return Converters::toLong;
+        if (type == short.class || type == Short.class) return value -> {
+            long v = parseLong(value);
+            return v >= Short.MIN_VALUE && v <= Short.MAX_VALUE ? (Short) (short) v : null;
+        };
+        if (type == byte.class || type == Byte.class) return value -> {
+            long v = parseLong(value);
+            return v >= Byte.MIN_VALUE && v <= Byte.MAX_VALUE ? (Byte) (byte) v : null;
+        };
+        if (type == double.class || type == Double.class) return value ->
+                isDecimal(value) ? Double.parseDouble(value) : null;
+        if (type == float.class || type == Float.class) return value ->
+                isDecimal(value) ? Float.parseFloat(value) : null;
+        if (type == boolean.class || type == Boolean.class) return Converters::toBoolean;
+        if (type == char.class || type == Character.class) return value ->
+                value.length() == 1 ? value.charAt(0) : null;
+
+        if (type == BigDecimal.class) return value -> isDecimal(value) ? new BigDecimal(value) : null;
+        if (type == BigInteger.class) return value -> isInteger(value) ? new BigInteger(value) : null;
+        if (type == UUID.class) return Converters::toUuid;
+
+        if (type == LocalDate.class) return temporal(DateTimeFormatter.ISO_LOCAL_DATE, LocalDate::from);
+        if (type == LocalDateTime.class) return temporal(DateTimeFormatter.ISO_LOCAL_DATE_TIME, LocalDateTime::from);
+        if (type == LocalTime.class) return temporal(DateTimeFormatter.ISO_LOCAL_TIME, LocalTime::from);
+        if (type == OffsetDateTime.class) return temporal(DateTimeFormatter.ISO_OFFSET_DATE_TIME, OffsetDateTime::from);
+        if (type == ZonedDateTime.class) return temporal(DateTimeFormatter.ISO_ZONED_DATE_TIME, ZonedDateTime::from);
+        if (type == Instant.class) return temporal(DateTimeFormatter.ISO_INSTANT, Instant::from);
+
+        if (type.isEnum()) return enumConverter(type);
+        return UNSUPPORTED;
+    }
+
+    private static Object toInteger(String value) {
+        long v = parseInt(value);
+        return v == INVALID ? null : (Integer) (int) v;
+    }
+
+    private static Object toLong(String value) {
+        long v = parseLong(value);
+        // Long.MIN_VALUE lui-même est relu par la voie lente
+        if (v == INVALID) return "-9223372036854775808".equals(value) ? Long.MIN_VALUE : null;
+        return v;
+    }
+
+    private static Object toBoolean(String value) {
+        switch (value.toLowerCase()) {
+            case "true": case "on": case "1": case "yes":
+                return Boolean.TRUE;
+            case "false": case "off": case "0": case "no":
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    private static Object toUuid(String value) {
+        if (value.length() != 36) return null;
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : Character.digit(c, 16) < 0) return null;
+        }
+        return UUID.fromString(value);
+    }
+
+    // Enum : nom exact, sinon sans tenir compte de la casse (table construite une fois)
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Converter<?> enumConverter(Class<?> type) {
+        Map<String, Object> byName = new HashMap<>();
+        Map<String, Object> byUpperName = new HashMap<>();
+        for (Object constant : type.getEnumConstants()) {
+            String name = ((Enum) constant).name();
+            byName.put(name, constant);
+            byUpperName.putIfAbsent(name.toUpperCase(), constant);
+        }
+        return value -> {
+            Object constant = byName.get(value);
+            return constant != null ? constant : byUpperName.get(value.toUpperCase());
+        };
+    }
+
+    // parseUnresolved ne lève pas d'exception sur une syntaxe invalide ;
+    // seule une date impossible (31 février...) passe par le catch
+    private static <T> Converter<T> temporal(DateTimeFormatter formatter, TemporalQuery<T> query) {
+        return value -> {
+            ParsePosition position = new ParsePosition(0);
+            if (formatter.parseUnresolved(value, position) == null
+                    || position.getErrorIndex() >= 0 || position.getIndex() != value.length()) {
+                return null;
+            }
+            try {
+                return formatter.parse(value, query);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        };
+    }
+
+    // ------------------------------
+    // 🔹 3. PARSEURS NUMÉRIQUES
+    // ------------------------------
+
+    /** Entier signé sur 32 bits, ou INVALID ; sans allocation ni exception. */
+    public static long parseInt(CharSequence s) {
+        long v = parseLong(s);
+        return v >= Integer.MIN_VALUE && v <= Integer.MAX_VALUE ? v : INVALID;
+    }
+
+    /** Entier signé sur 64 bits, ou INVALID (Long.MIN_VALUE n'est pas représentable). */
+    public static long parseLong(CharSequence s) {
+        int length = s == null ? 0 : s.length();
+        if (length == 0) return INVALID;
+
+        int i = 0;
+        boolean negative = false;
+        char first = s.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == length) return INVALID;
+        }
+
+        // Accumulation en négatif : même borne que Long.parseLong
+        long limit = negative ? Long.MIN_VALUE + 1 : -Long.MAX_VALUE;
+        long multMin = limit / 10;
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multMin) return INVALID;
+            result *= 10;
+            if (result < limit + digit) return INVALID;
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    // [+-]chiffres
+    private static boolean isInteger(String s) {
+        int i = s.startsWith("-") || s.startsWith("+") ? 1 : 0;
+        if (i == s.length()) return false;
+        for (; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    // [+-]chiffres[.chiffres][(e|E)[+-]chiffres] : tout ce qui passe est accepté par parseDouble et BigDecimal
+    private static boolean isDecimal(String s) {
+        int length = s.length();
+        int i = 0;
+        if (i < length && (s.charAt(i) == '-' || s.charAt(i) == '+')) i++;
+
+        int digits = 0;
+        while (i < length && isDigit(s.charAt(i))) { i++; digits++; }
+        if (i < length && s.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(s.charAt(i))) { i++; digits++; }
+        }
+        if (digits == 0) return false;
+
+        if (i < length && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (s.charAt(i) == '-' || s.charAt(i) == '+')) i++;
+            int exponent = 0;
+            while (i < length && isDigit(s.charAt(i)) && exponent < 9) { i++; exponent++; }
+            if (exponent == 0) return false;
+        }
+        return i == length;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
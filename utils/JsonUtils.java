@@ -1,19 +1,123 @@
 package framework.utils;
 
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 
 public class JsonUtils {
 
-    // 🔹 Configuration améliorée de Gson :
-    //    - setPrettyPrinting() : rend le JSON lisible
+    private static final int BUFFER_SIZE = 8192;
+
+    // 🔹 Configuration de Gson :
+    //    - compact par défaut (production) ; setPrettyPrinting(true) rend le JSON lisible
     //    - serializeNulls() : inclut les valeurs null
-    private static final Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
-            .serializeNulls()
-            .create();
+    private static volatile Gson gson = create(false);
+
+    // 🔹 Taille maximale d'un corps @JsonBody (1 Mo par défaut, jsonBodyMaxBytes dans web.xml)
+    private static volatile long maxBodyBytes = 1024 * 1024;
+
+    private static Gson create(boolean pretty) {
+        GsonBuilder builder = new GsonBuilder().serializeNulls();
+        if (pretty) builder.setPrettyPrinting();
+        return builder.create();
+    }
+
+    public static void setPrettyPrinting(boolean pretty) {
+        gson = create(pretty);
+    }
+
+    public static long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public static void setMaxBodyBytes(long maxBytes) {
+        maxBodyBytes = maxBytes;
+    }
+
+    public static Gson getGson() {
+        return gson;
+    }
 
     public static String toJson(Object obj) {
         return gson.toJson(obj);
     }
+
+    // 🔹 Sérialisation en flux : pas de String intermédiaire, encodage UTF-8 bufferisé
+    public static void writeJson(Object obj, OutputStream out) throws IOException {
+        Gson current = gson;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        JsonWriter json = current.newJsonWriter(writer);
+        if (obj == null) {
+            current.toJson(JsonNull.INSTANCE, json);
+        } else {
+            current.toJson(obj, obj.getClass(), json);
+        }
+        json.flush();
+    }
+
+    // 🔹 Lecture en flux d'un corps JSON : le document est décodé au fil de la lecture,
+    //    jamais copié en entier ; au-delà de maxBytes → RequestBodyException (413)
+    public static <T> T readJson(InputStream in, Charset charset, TypeAdapter<T> adapter, long maxBytes) throws IOException {
+        InputStream body = maxBytes < 0 ? in : new LimitedInputStream(in, maxBytes);
+        JsonReader reader = gson.newJsonReader(new InputStreamReader(body, charset));
+        try {
+            try {
+                reader.peek();
+            } catch (EOFException empty) {
+                return null; // corps vide
+            }
+            T value = adapter.read(reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new RequestBodyException(400, "Contenu après la fin du document JSON");
+            }
+            return value;
+        } catch (JsonParseException | IllegalStateException | NumberFormatException | MalformedJsonException | EOFException e) {
+            throw new RequestBodyException(400, "JSON invalide : " + e.getMessage(), e);
+        }
+    }
+
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.remaining = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) consume(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) consume(n);
+            return n;
+        }
+
+        private void consume(int n) {
+            remaining -= n;
+            if (remaining < 0) throw new RequestBodyException(413, "Corps de requête trop volumineux");
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package framework.utils;
+
+import java.util.function.Consumer;
+
+/**
+ * Résultat @Json produit élément par élément, sans liste en mémoire : chaque
+ * élément passé au sink est sérialisé et envoyé au fil de l'eau.
+ *
+ *   @UrlGet("/export") @Json
+ *   public Producer<Ligne> export() {
+ *       return sink -> dao.parcourir(ligne -> sink.accept(ligne));
+ *   }
+ *
+ * Si le client se déconnecte, sink.accept lève une UncheckedIOException qui
+ * interrompt la production.
+ */
+@FunctionalInterface
+public interface Producer<T> {
+    void produce(Consumer<? super T> sink) throws Exception;
+}
@@ -0,0 +1,22 @@
+package framework.utils;
+
+/**
+ * Corps de requête refusé (JSON invalide, taille dépassée) : remonte jusqu'à
+ * FrontServlet avec le code HTTP à renvoyer (400, 413...).
+ */
+public class RequestBodyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public RequestBodyException(int status, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    public RequestBodyException(int status, String message) {
+        this(status, message, null);
+    }
+
+    public int getStatus() { return status; }
+}
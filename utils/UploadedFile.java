@@ -1,16 +1,34 @@
 package framework.utils;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import jakarta.servlet.http.Part;
 
+/**
+ * Fichier uploadé, lu à la demande.
+ *
+ * Le contenu reste dans le Part du conteneur (ou dans un fichier temporaire) :
+ * rien n'est chargé en mémoire tant que getBytes() n'est pas appelé
+ * explicitement. Le Part n'est valable que pendant la requête.
+ */
 public class UploadedFile {
     private String fileName;
     private String contentType;
     private long size;
-    private byte[] bytes;
+    private byte[] bytes;  // contenu déjà en mémoire, ou chargé par getBytes()
+    private Part part;     // contenu géré par le conteneur
+    private Path tempFile; // contenu dans un fichier temporaire
+    private boolean saved; // tempFile est la copie déjà enregistrée : copiée, plus jamais déplacée
 
     public UploadedFile(String fileName, String contentType, long size, byte[] bytes) {
         this.fileName = fileName;
@@ -19,10 +37,37 @@ public class UploadedFile {
         this.bytes = bytes;
     }
 
+    public UploadedFile(Part part) {
+        this(part.getSubmittedFileName(), part.getContentType(), part.getSize(), (byte[]) null);
+        this.part = part;
+    }
+
+    public UploadedFile(String fileName, String contentType, long size, Path tempFile) {
+        this(fileName, contentType, size, (byte[]) null);
+        this.tempFile = tempFile;
+    }
+
     public String getFileName() { return fileName; }
     public String getContentType() { return contentType; }
     public long getSize() { return size; }
-    public byte[] getBytes() { return bytes; }
+
+    public InputStream getInputStream() throws IOException {
+        if (bytes != null) return new ByteArrayInputStream(bytes);
+        if (part != null) return part.getInputStream();
+        return Files.newInputStream(tempFile);
+    }
+
+    // ⚠️ Charge tout le fichier en mémoire : à réserver aux petits fichiers
+    public byte[] getBytes() {
+        if (bytes == null) {
+            try (InputStream in = getInputStream()) {
+                bytes = in.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return bytes;
+    }
 
     public File saveToDisk(String baseDirectory) throws IOException {
         String dateFolder = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
@@ -30,27 +75,65 @@ public class UploadedFile {
         if (!dateDir.exists() && !dateDir.mkdirs()) {
             throw new IOException("Impossible de créer le dossier : " + dateDir.getAbsolutePath());
         }
-    
-        File outFile = new File(dateDir, fileName);
+
+        // Seul le nom du fichier est gardé (pas de "../" venant du client)
+        String safeName = new File(fileName).getName();
+        File outFile = new File(dateDir, safeName);
         int counter = 1;
-        String nameWithoutExt = fileName;
+        String nameWithoutExt = safeName;
         String extension = "";
-        int dotIndex = fileName.lastIndexOf(".");
+        int dotIndex = safeName.lastIndexOf(".");
         if (dotIndex > 0) {
-            nameWithoutExt = fileName.substring(0, dotIndex);
-            extension = fileName.substring(dotIndex);
+            nameWithoutExt = safeName.substring(0, dotIndex);
+            extension = safeName.substring(dotIndex);
         }
-    
+
         while (outFile.exists()) {
             outFile = new File(dateDir, nameWithoutExt + "_" + counter + extension);
             counter++;
         }
-    
-        try (FileOutputStream fos = new FileOutputStream(outFile)) {
-            fos.write(bytes);
-        }
-    
+
+        writeTo(outFile.toPath());
         return outFile;
     }
-    
+
+    private void writeTo(Path target) throws IOException {
+        if (bytes != null) {
+            Files.write(target, bytes, StandardOpenOption.CREATE_NEW);
+        } else if (part != null) {
+            // Le conteneur déplace son fichier temporaire (simple renommage sur le même disque)
+            part.write(target.toAbsolutePath().toString());
+            part = null;
+            tempFile = target;
+            saved = true;
+        } else if (saved) {
+            // Deuxième enregistrement : la première copie reste en place
+            copyTempFile(target);
+        } else {
+            moveTempFile(target);
+        }
+    }
+
+    private void moveTempFile(Path target) throws IOException {
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            copyTempFile(target);
+            Files.deleteIfExists(tempFile);
+        }
+        tempFile = target;
+        saved = true;
+    }
+
+    // Copie noyau à noyau, sans passer par le heap
+    private void copyTempFile(Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(tempFile, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long total = in.size();
+            while (position < total) {
+                position += in.transferTo(position, total - position, out);
+            }
+        }
+    }
 }
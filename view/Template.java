@@ -0,0 +1,541 @@
+package framework.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Template compilé une fois en arbre d'instructions.
+ *
+ * Syntaxe :
+ *   ${emp.nom}                    valeur échappée (HTML)
+ *   $!{html}                      valeur brute
+ *   {% for e in employes %} ... {% else %} ... {% end %}
+ *   {% if emp.actif %} ... {% else %} ... {% end %}     (aussi : if not ...)
+ *   ${loop.index} ${loop.first} ${loop.last}            dans une boucle
+ *
+ * Le texte statique est encodé en UTF-8 à la compilation ; les variables de
+ * boucle reçoivent un emplacement fixe (pas de recherche par nom au rendu).
+ */
+public final class Template {
+
+    private final Node[] nodes;
+    private final int slots;
+
+    private Template(Node[] nodes, int slots) {
+        this.nodes = nodes;
+        this.slots = slots;
+    }
+
+    // ------------------------------
+    // 🔹 1. RENDU
+    // ------------------------------
+    public void render(Map<String, ?> model, OutputStream out) throws IOException {
+        Sink sink = new Sink(out);
+        Frame frame = new Frame(model, new Object[slots]);
+        for (Node node : nodes) node.render(frame, sink);
+        sink.flush();
+    }
+
+    private static final class Frame {
+        final Map<String, ?> model;
+        final Object[] locals;
+
+        Frame(Map<String, ?> model, Object[] locals) {
+            this.model = model;
+            this.locals = locals;
+        }
+    }
+
+    private interface Node {
+        void render(Frame frame, Sink sink) throws IOException;
+    }
+
+    private static final class Text implements Node {
+        private final byte[] bytes;
+
+        Text(String text) {
+            this.bytes = text.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void render(Frame frame, Sink sink) throws IOException {
+            sink.write(bytes);
+        }
+    }
+
+    private static final class Value implements Node {
+        private final Expr expr;
+        private final boolean escape;
+
+        Value(Expr expr, boolean escape) {
+            this.expr = expr;
+            this.escape = escape;
+        }
+
+        @Override
+        public void render(Frame frame, Sink sink) throws IOException {
+            Object value = expr.eval(frame);
+            if (value != null) sink.write(value.toString(), escape);
+        }
+    }
+
+    private static final class If implements Node {
+        private final Expr condition;
+        private final boolean negate;
+        private final Node[] then;
+        private final Node[] otherwise;
+
+        If(Expr condition, boolean negate, Node[] then, Node[] otherwise) {
+            this.condition = condition;
+            this.negate = negate;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        public void render(Frame frame, Sink sink) throws IOException {
+            Node[] branch = truthy(condition.eval(frame)) != negate ? then : otherwise;
+            for (Node node : branch) node.render(frame, sink);
+        }
+    }
+
+    private static final class For implements Node {
+        private final int slot;      // variable de l'élément
+        private final int loopSlot;  // objet "loop"
+        private final Expr items;
+        private final Node[] body;
+        private final Node[] empty;
+
+        For(int slot, int loopSlot, Expr items, Node[] body, Node[] empty) {
+            this.slot = slot;
+            this.loopSlot = loopSlot;
+            this.items = items;
+            this.body = body;
+            this.empty = empty;
+        }
+
+        @Override
+        public void render(Frame frame, Sink sink) throws IOException {
+            Iterator<?> it = iterator(items.eval(frame));
+            if (!it.hasNext()) {
+                for (Node node : empty) node.render(frame, sink);
+                return;
+            }
+            Object savedItem = frame.locals[slot];
+            Object savedLoop = frame.locals[loopSlot];
+            Loop loop = new Loop();
+            frame.locals[loopSlot] = loop;
+            while (it.hasNext()) {
+                frame.locals[slot] = it.next();
+                loop.last = !it.hasNext();
+                for (Node node : body) node.render(frame, sink);
+                loop.index++;
+                loop.first = false;
+            }
+            frame.locals[slot] = savedItem;
+            frame.locals[loopSlot] = savedLoop;
+        }
+    }
+
+    /** État d'une boucle, accessible par ${loop.index}, ${loop.first}, ${loop.last}. */
+    public static final class Loop {
+        public int index;
+        public boolean first = true;
+        public boolean last;
+    }
+
+    // ------------------------------
+    // 🔹 2. EXPRESSIONS
+    // ------------------------------
+
+    // Chemin pointé : racine (variable de boucle ou clé du modèle) puis propriétés
+    private static final class Expr {
+        private final String root;
+        private final int slot; // -1 : clé du modèle
+        private final String[] properties;
+
+        Expr(String root, int slot, String[] properties) {
+            this.root = root;
+            this.slot = slot;
+            this.properties = properties;
+        }
+
+        Object eval(Frame frame) {
+            Object value = slot >= 0 ? frame.locals[slot] : frame.model.get(root);
+            for (int i = 0; i < properties.length && value != null; i++) {
+                value = property(value, properties[i]);
+            }
+            return value;
+        }
+    }
+
+    private static boolean truthy(Object value) {
+        if (value == null) return false;
+        if (value instanceof Boolean b) return b;
+        if (value instanceof Number n) return n.doubleValue() != 0;
+        if (value instanceof CharSequence s) return s.length() > 0;
+        if (value instanceof Collection<?> c) return !c.isEmpty();
+        if (value instanceof Map<?, ?> m) return !m.isEmpty();
+        if (value.getClass().isArray()) return Array.getLength(value) > 0;
+        return true;
+    }
+
+    private static Iterator<?> iterator(Object value) {
+        if (value == null) return List.of().iterator();
+        if (value instanceof Iterable<?> iterable) return iterable.iterator();
+        if (value instanceof Map<?, ?> map) return map.entrySet().iterator();
+        if (value instanceof Iterator<?> it) return it;
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            List<Object> list = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) list.add(Array.get(value, i));
+            return list.iterator();
+        }
+        return List.of(value).iterator();
+    }
+
+    // ------------------------------
+    // 🔹 3. ACCÈS AUX PROPRIÉTÉS (mis en cache par classe)
+    // ------------------------------
+    private static final MethodHandle MISSING = MethodHandles.constant(Object.class, null);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<Map<String, MethodHandle>> GETTERS = new ClassValue<>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static Object property(Object target, String name) {
+        if (target instanceof Map<?, ?> map) return map.get(name);
+        if (target instanceof List<?> list) {
+            if ("size".equals(name)) return list.size();
+            int index = index(name);
+            return index >= 0 && index < list.size() ? list.get(index) : null;
+        }
+        if (target.getClass().isArray()) {
+            if ("length".equals(name)) return Array.getLength(target);
+            int index = index(name);
+            return index >= 0 && index < Array.getLength(target) ? Array.get(target, index) : null;
+        }
+        if (target instanceof Map.Entry<?, ?> entry) {
+            if ("key".equals(name)) return entry.getKey();
+            if ("value".equals(name)) return entry.getValue();
+        }
+
+        MethodHandle getter = GETTERS.get(target.getClass()).computeIfAbsent(name, n -> getter(target.getClass(), n));
+        if (getter == MISSING) return null;
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (Throwable t) {
+            if (t instanceof Error) throw (Error) t;
+            throw new TemplateException("Lecture de '" + name + "' sur " + target.getClass().getName(), t);
+        }
+    }
+
+    private static int index(String name) {
+        if (name.isEmpty() || name.length() > 9) return -1;
+        int value = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // getNom(), isNom(), nom() (records), sinon champ ; MISSING si rien ne correspond
+    private static MethodHandle getter(Class<?> type, String name) {
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String candidate : new String[]{"get" + capitalized, "is" + capitalized, name}) {
+            try {
+                Method method = type.getMethod(candidate);
+                if (method.getReturnType() == void.class || Modifier.isStatic(method.getModifiers())) continue;
+                Method visible = publicMethod(type, candidate);
+                if (visible != null) {
+                    try {
+                        return MethodHandles.lookup().unreflect(visible).asType(GETTER_TYPE);
+                    } catch (IllegalAccessException e) {
+                        // héritée d'une classe non publique : repli sur setAccessible
+                    }
+                }
+                method.setAccessible(true); // classe non publique de l'application (classe interne, lambda...)
+                return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+            } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+                // candidat suivant (résultat mis en cache, une seule fois par classe)
+            }
+        }
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(name);
+                if (Modifier.isStatic(field.getModifiers())) break;
+                MethodHandles.Lookup fieldLookup = MethodHandles.privateLookupIn(c, MethodHandles.lookup());
+                return fieldLookup.unreflectGetter(field).asType(GETTER_TYPE);
+            } catch (NoSuchFieldException e) {
+                // classe parente
+            } catch (IllegalAccessException | RuntimeException e) {
+                break;
+            }
+        }
+        return MISSING;
+    }
+
+    // Méthode déclarée par une classe ou interface publique et exportée : une classe
+    // cachée du JDK (Collections.unmodifiableSet(...), List.of(...)) se lit par son
+    // interface (Set.size), setAccessible y est refusé hors de java.base
+    private static Method publicMethod(Class<?> type, String name) {
+        Deque<Class<?>> pending = new ArrayDeque<>(List.of(type));
+        Set<Class<?>> seen = new HashSet<>();
+        while (!pending.isEmpty()) {
+            Class<?> c = pending.poll();
+            if (!seen.add(c)) continue;
+            if (Modifier.isPublic(c.getModifiers()) && c.getModule().isExported(c.getPackageName())) {
+                try {
+                    return c.getMethod(name);
+                } catch (NoSuchMethodException e) {
+                    continue; // ni ses parents ni ses interfaces ne la déclarent
+                }
+            }
+            if (c.getSuperclass() != null) pending.add(c.getSuperclass());
+            pending.addAll(Arrays.asList(c.getInterfaces()));
+        }
+        return null;
+    }
+
+    // ------------------------------
+    // 🔹 4. COMPILATION
+    // ------------------------------
+    public static Template compile(String source, String name) {
+        Parser parser = new Parser(source, name);
+        Node[] nodes = parser.parseUntil(false);
+        return new Template(nodes, parser.maxSlots);
+    }
+
+    private static final class Parser {
+        private final String src;
+        private final String name;
+        private int pos;
+        private String stoppedAt;                              // "else" ou "end" qui a terminé le bloc
+        private final List<String> scope = new ArrayList<>(); // variables de boucle visibles (index = emplacement)
+        private int maxSlots;
+
+        Parser(String src, String name) {
+            this.src = src;
+            this.name = name;
+        }
+
+        // Lit des nœuds jusqu'à {% else %} / {% end %} (inBlock) ou la fin du texte
+        Node[] parseUntil(boolean inBlock) {
+            List<Node> nodes = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+
+            while (pos < src.length()) {
+                char c = src.charAt(pos);
+                if (c == '\\' && src.startsWith("${", pos + 1)) {  // \${ : texte littéral
+                    text.append("${");
+                    pos += 3;
+                } else if (c == '$' && (src.startsWith("${", pos) || src.startsWith("$!{", pos))) {
+                    boolean raw = src.charAt(pos + 1) == '!';
+                    int start = pos + (raw ? 3 : 2);
+                    int end = closing(start, "}");
+                    flush(text, nodes);
+                    nodes.add(new Value(expr(src.substring(start, end).trim()), !raw));
+                    pos = end + 1;
+                } else if (c == '{' && src.startsWith("{%", pos)) {
+                    int start = pos + 2;
+                    int end = closing(start, "%}");
+                    String tag = src.substring(start, end).trim();
+                    flush(text, nodes);
+                    pos = end + 2;
+
+                    if (tag.equals("else") || tag.equals("end")) {
+                        if (!inBlock) throw error("{% " + tag + " %} sans bloc ouvert", start);
+                        stoppedAt = tag;
+                        return nodes.toArray(new Node[0]);
+                    }
+                    nodes.add(block(tag, start));
+                } else {
+                    text.append(c);
+                    pos++;
+                }
+            }
+            if (inBlock) throw error("{% end %} manquant", src.length());
+            flush(text, nodes);
+            return nodes.toArray(new Node[0]);
+        }
+
+        private Node block(String tag, int at) {
+            if (tag.startsWith("if ")) {
+                String condition = tag.substring(3).trim();
+                boolean negate = condition.startsWith("not ");
+                if (negate) condition = condition.substring(4).trim();
+                Expr expr = expr(condition);
+                Node[] then = parseUntil(true);
+                Node[] otherwise = "else".equals(stoppedAt) ? parseEnd() : new Node[0];
+                return new If(expr, negate, then, otherwise);
+            }
+            if (tag.startsWith("for ")) {
+                String[] parts = tag.substring(4).trim().split("\\s+");
+                if (parts.length != 3 || !parts[1].equals("in")) throw error("Syntaxe : {% for x in liste %}", at);
+                Expr items = expr(parts[2]);
+
+                int slot = scope.size();
+                scope.add(parts[0]);
+                scope.add("loop");
+                maxSlots = Math.max(maxSlots, scope.size());
+                Node[] body = parseUntil(true);
+                boolean hasEmpty = "else".equals(stoppedAt);
+                scope.remove(scope.size() - 1);
+                scope.remove(scope.size() - 1);
+
+                Node[] empty = hasEmpty ? parseEnd() : new Node[0];
+                return new For(slot, slot + 1, items, body, empty);
+            }
+            throw error("Instruction inconnue : {% " + tag + " %}", at);
+        }
+
+        // Branche après {% else %} : doit se terminer par {% end %}
+        private Node[] parseEnd() {
+            int at = pos;
+            Node[] nodes = parseUntil(true);
+            if (!"end".equals(stoppedAt)) throw error("{% else %} en double", at);
+            return nodes;
+        }
+
+        private Expr expr(String text) {
+            if (text.isEmpty()) throw error("Expression vide", pos);
+            String[] parts = text.split("\\.");
+            for (String part : parts) {
+                if (part.isEmpty()) throw error("Expression invalide : " + text, pos);
+            }
+            String root = parts[0];
+            String[] properties = new String[parts.length - 1];
+            System.arraycopy(parts, 1, properties, 0, properties.length);
+            return new Expr(root, scope.lastIndexOf(root), properties);
+        }
+
+        private int closing(int from, String delimiter) {
+            int end = src.indexOf(delimiter, from);
+            if (end < 0) throw error("'" + delimiter + "' manquant", from);
+            return end;
+        }
+
+        private void flush(StringBuilder text, List<Node> nodes) {
+            if (text.length() > 0) {
+                nodes.add(new Text(text.toString()));
+                text.setLength(0);
+            }
+        }
+
+        private TemplateException error(String message, int at) {
+            int line = 1;
+            for (int i = 0; i < at && i < src.length(); i++) if (src.charAt(i) == '\n') line++;
+            return new TemplateException(name + ":" + line + " : " + message, null);
+        }
+    }
+
+    // ------------------------------
+    // 🔹 5. SORTIE UTF-8 BUFFERISÉE
+    // ------------------------------
+    private static final class Sink {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[8192];
+        private int count;
+
+        Sink(OutputStream out) {
+            this.out = out;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.length - count) {
+                flushBuffer();
+                if (bytes.length > buffer.length) {
+                    out.write(bytes);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buffer, count, bytes.length);
+            count += bytes.length;
+        }
+
+        // Encodage UTF-8 (et échappement HTML) caractère par caractère, directement dans le buffer
+        void write(String s, boolean escape) throws IOException {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (escape) {
+                    String entity = entity(c);
+                    if (entity != null) {
+                        for (int k = 0; k < entity.length(); k++) put(entity.charAt(k));
+                        continue;
+                    }
+                }
+                if (c < 0x80) {
+                    put(c);
+                } else if (c < 0x800) {
+                    put(0xC0 | (c >> 6));
+                    put(0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    put(0xF0 | (cp >> 18));
+                    put(0x80 | ((cp >> 12) & 0x3F));
+                    put(0x80 | ((cp >> 6) & 0x3F));
+                    put(0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    put('?'); // surrogate isolé
+                } else {
+                    put(0xE0 | (c >> 12));
+                    put(0x80 | ((c >> 6) & 0x3F));
+                    put(0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        private static String entity(char c) {
+            switch (c) {
+                case '<': return "&lt;";
+                case '>': return "&gt;";
+                case '&': return "&amp;";
+                case '"': return "&quot;";
+                case '\'': return "&#39;";
+                default: return null;
+            }
+        }
+
+        private void put(int b) throws IOException {
+            if (count == buffer.length) flushBuffer();
+            buffer[count++] = (byte) b;
+        }
+
+        private void flushBuffer() throws IOException {
+            if (count > 0) {
+                out.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+
+        void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package framework.view;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Vues ModelView rendues sans JSP : tout nom de vue qui se termine par
+ * ".tpl" est lu dans /WEB-INF/views/, compilé en Template et gardé en
+ * mémoire. La date du fichier est revérifiée au plus une fois par seconde
+ * (template modifié → recompilé au rendu suivant).
+ */
+public final class TemplateEngine {
+
+    public static final String EXTENSION = ".tpl";
+    private static final long RECHECK_MILLIS = 1000;
+
+    private final ServletContext context;
+    private final String directory;
+    private final Map<String, Entry> templates = new ConcurrentHashMap<>();
+
+    public TemplateEngine(ServletContext context, String directory) {
+        this.context = context;
+        this.directory = directory;
+    }
+
+    public static boolean handles(String view) {
+        return view != null && view.endsWith(EXTENSION);
+    }
+
+    // ------------------------------
+    // 🔹 1. RENDU D'UNE VUE
+    // ------------------------------
+    public void render(String view, Map<String, ?> model, HttpServletResponse response) throws IOException {
+        Template template = get(view);
+        if (response.getContentType() == null) response.setContentType("text/html;charset=UTF-8");
+        template.render(model, response.getOutputStream());
+    }
+
+    public Template get(String view) throws IOException {
+        Entry entry = templates.get(view);
+        long now = System.currentTimeMillis();
+
+        if (entry != null) {
+            if (entry.file == null || now - entry.checkedAt < RECHECK_MILLIS) return entry.template;
+            entry.checkedAt = now;
+            if (entry.file.lastModified() == entry.lastModified) return entry.template;
+        }
+
+        entry = load(view, now);
+        templates.put(view, entry);
+        return entry.template;
+    }
+
+    // ------------------------------
+    // 🔹 2. CHARGEMENT
+    // ------------------------------
+    private Entry load(String view, long now) throws IOException {
+        String path = directory + view;
+        if (view.contains("..")) throw new IOException("Vue invalide : " + view);
+
+        String real = context.getRealPath(path);
+        if (real != null && new File(real).isFile()) {
+            File file = new File(real);
+            long lastModified = file.lastModified();
+            String source = Files.readString(file.toPath(), StandardCharsets.UTF_8);
+            return new Entry(Template.compile(source, view), file, lastModified, now);
+        }
+
+        // War non décompressé : lu une seule fois, sans vérification de date
+        try (InputStream in = context.getResourceAsStream(path)) {
+            if (in == null) throw new IOException("Template introuvable : " + path);
+            String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return new Entry(Template.compile(source, view), null, 0, now);
+        }
+    }
+
+    private static final class Entry {
+        final Template template;
+        final File file;
+        final long lastModified;
+        volatile long checkedAt;
+
+        Entry(Template template, File file, long lastModified, long checkedAt) {
+            this.template = template;
+            this.file = file;
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package framework.view;
+
+// Erreur de syntaxe (avec fichier et ligne) ou de lecture d'une propriété pendant le rendu
+public class TemplateException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public TemplateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}